@@ -0,0 +1,157 @@
+package se.hig.dvg329.algomaze.control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code BatchRunner} class generates and solves a number of {@link Maze}s within one JVM and
+ * reports the throughput and the latency percentiles of the generation and solving phases.
+ * The jobs are spread over a fixed number of workers. Each worker owns one {@link MazeController}
+ * and keeps taking jobs until all of them have been run, so the measurements are not swamped by
+ * the start-up of a JVM per {@link Maze}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class BatchRunner {
+
+	private final int count, minSize, maxSize, concurrency;
+	private final String generatorAlgorithm, solverAlgorithm;
+	private final double[] generationTimes, solvingTimes;
+	private final long[] cells;
+	private final AtomicInteger nextJob = new AtomicInteger();
+	private final LongAccumulator largestFootprint = new LongAccumulator(Math::max, 0);
+	private String generatorName, solverName;
+	private double totalTime;
+
+	/**
+	 * Constructs a {@code BatchRunner}.
+	 * @param count the number of {@link Maze}s to generate and solve.
+	 * @param minSize the smallest width and height of a {@link Maze}.
+	 * @param maxSize the largest width and height of a {@link Maze}.
+	 * @param generatorAlgorithm the algorithm used to generate the {@link Maze}s.
+	 * @param solverAlgorithm the algorithm used to solve the {@link Maze}s.
+	 * @param concurrency the number of workers running jobs at the same time.
+	 * @throws IllegalArgumentException if the count or concurrency is smaller than one or if the
+	 * size range is empty or smaller than three.
+	 */
+	BatchRunner(int count, int minSize, int maxSize, String generatorAlgorithm, String solverAlgorithm,
+			int concurrency) throws IllegalArgumentException {
+		if (count < 1 || concurrency < 1) {
+			throw new IllegalArgumentException("The count and concurrency must be at least one.");
+		}
+		if (minSize < 3 || maxSize < minSize) {
+			throw new IllegalArgumentException("The size range must be at least three and not empty.");
+		}
+		this.count = count;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.generatorAlgorithm = generatorAlgorithm;
+		this.solverAlgorithm = solverAlgorithm;
+		this.concurrency = concurrency;
+		generationTimes = new double[count];
+		solvingTimes = new double[count];
+		cells = new long[count];
+	}
+
+	/**
+	 * Runs all jobs and waits for them to finish.
+	 * @throws IllegalArgumentException if an algorithm has not been implemented.
+	 * @throws InterruptedException if the calling thread is interrupted while waiting.
+	 */
+	void run() throws IllegalArgumentException, InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		Timer timer = new Timer();
+		timer.startTimer();
+		try {
+			List<Future<?>> futures = new ArrayList<>(concurrency);
+			for (int i = 0; i < concurrency; i++) {
+				futures.add(workers.submit(this::work));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		finally {
+			workers.shutdownNow();
+		}
+		totalTime = timer.endTimer();
+	}
+
+	private void work() {
+		MazeController mazeController = new MazeController();
+		int job;
+		while ((job = nextJob.getAndIncrement()) < count) {
+			int width = ThreadLocalRandom.current().nextInt(minSize, maxSize + 1);
+			int height = ThreadLocalRandom.current().nextInt(minSize, maxSize + 1);
+			mazeController.createMaze(width, height);
+			mazeController.generateMaze(generatorAlgorithm);
+			mazeController.solveMaze(solverAlgorithm);
+			generationTimes[job] = mazeController.getGenerationTime();
+			solvingTimes[job] = mazeController.getSolvingTime();
+			cells[job] = (long) width * height;
+			largestFootprint.accumulate(mazeController.getFootprint().getTotalBytes());
+			if (job == 0) {
+				generatorName = mazeController.getGeneratorName();
+				solverName = mazeController.getSolverName();
+			}
+		}
+	}
+
+	/**
+	 * Returns a report of the throughput and latency percentiles of the last run.
+	 * @return a report of the last run.
+	 */
+	String getReport() {
+		long totalCells = 0;
+		for (long c : cells) {
+			totalCells += c;
+		}
+		double seconds = totalTime / 1000;
+		double[] generation = Arrays.copyOf(generationTimes, count);
+		double[] solving = Arrays.copyOf(solvingTimes, count);
+		Arrays.sort(generation);
+		Arrays.sort(solving);
+
+		return "Batch of " + count + " mazes (" + minSize + "x" + minSize + " to " + maxSize + "x" + maxSize
+				+ ") on " + concurrency + " workers\n"
+				+ "Maze generated with: " + generatorName + "\n"
+				+ "Maze solved with: " + solverName + "\n"
+				+ "Total time: " + totalTime + " ms\n"
+				+ "Throughput: " + (count / seconds) + " mazes/s, " + (totalCells / seconds) + " cells/s\n"
+				+ "Maze generation time p50/p95/p99: " + percentile(generation, 50) + " / "
+						+ percentile(generation, 95) + " / " + percentile(generation, 99) + " ms\n"
+				+ "Maze solving time p50/p95/p99: " + percentile(solving, 50) + " / "
+						+ percentile(solving, 95) + " / " + percentile(solving, 99) + " ms\n"
+				+ "Largest estimated footprint: " + MazeFootprint.megabytes(largestFootprint.get()) + "\n";
+	}
+
+	/**
+	 * Returns the nearest-rank percentile of sorted values.
+	 * @param sorted the values, sorted in ascending order, at least one.
+	 * @param percent the percentile to return, between 0 and 100.
+	 * @return the smallest value that is greater than or equal to the given percent of the values, which
+	 * for 0 is the smallest value.
+	 */
+	static double percentile(double[] sorted, double percent) {
+		// Dividing last keeps the rank exact when it is a whole number, e.g. 7 / 100 * 100 would round up to 8.
+		int rank = (int) Math.ceil(percent * sorted.length / 100);
+		return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+	}
+}
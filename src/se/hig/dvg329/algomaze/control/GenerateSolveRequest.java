@@ -0,0 +1,54 @@
+package se.hig.dvg329.algomaze.control;
+
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * A {@code GenerateSolveRequest} describes one job for a {@link MazeJobExecutor}: the size of the
+ * {@link Maze} to create and the algorithms used to generate and solve it.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class GenerateSolveRequest {
+
+	private final int width, height;
+	private final String generatorAlgorithm, solverAlgorithm;
+
+	/**
+	 * Constructs a {@code GenerateSolveRequest}.
+	 * @param width the width of the {@link Maze}. Must be greater than three.
+	 * @param height the height of the {@link Maze}. Must be greater than three.
+	 * @param generatorAlgorithm the algorithm used to generate the {@link Maze}, e.g. "Prim".
+	 * @param solverAlgorithm the algorithm used to solve the {@link Maze}, e.g. "Dijkstra".
+	 */
+	public GenerateSolveRequest(int width, int height, String generatorAlgorithm, String solverAlgorithm) {
+		this.width = width;
+		this.height = height;
+		this.generatorAlgorithm = generatorAlgorithm;
+		this.solverAlgorithm = solverAlgorithm;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the number of {@link se.hig.dvg329.algomaze.model.Cell}s of the requested {@link Maze}.
+	 * @return the number of cells of the requested {@link Maze}.
+	 */
+	public long getCellCount() {
+		return (long) width * height;
+	}
+
+	public String getGeneratorAlgorithm() {
+		return generatorAlgorithm;
+	}
+
+	public String getSolverAlgorithm() {
+		return solverAlgorithm;
+	}
+}
@@ -0,0 +1,54 @@
+package se.hig.dvg329.algomaze.control;
+
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * A {@code GenerateSolveResult} holds the solved {@link Maze} of a {@link GenerateSolveRequest}
+ * together with the names of the algorithms used and the time spent in each phase.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class GenerateSolveResult {
+
+	private final Maze maze;
+	private final String generatorName, solverName;
+	private final double generationTime, solvingTime;
+
+	GenerateSolveResult(Maze maze, String generatorName, String solverName, double generationTime,
+			double solvingTime) {
+		this.maze = maze;
+		this.generatorName = generatorName;
+		this.solverName = solverName;
+		this.generationTime = generationTime;
+		this.solvingTime = solvingTime;
+	}
+
+	public Maze getMaze() {
+		return maze;
+	}
+
+	public String getGeneratorName() {
+		return generatorName;
+	}
+
+	public String getSolverName() {
+		return solverName;
+	}
+
+	/**
+	 * Returns the time it took to generate the {@link Maze}, in milliseconds.
+	 * @return the generation time of the {@link Maze}.
+	 */
+	public double getGenerationTime() {
+		return generationTime;
+	}
+
+	/**
+	 * Returns the time it took to solve the {@link Maze}, in milliseconds.
+	 * @return the solving time of the {@link Maze}.
+	 */
+	public double getSolvingTime() {
+		return solvingTime;
+	}
+}
@@ -0,0 +1,85 @@
+package se.hig.dvg329.algomaze.control;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import se.hig.dvg329.algomaze.control.analysis.MazeAnalysis;
+import se.hig.dvg329.algomaze.control.generators.MazeGeneratorFactory;
+import se.hig.dvg329.algomaze.control.registry.AlgorithmDescriptor;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code GeneratorBenchmark} class compares the registered generators on one size of {@link Maze}.
+ * Every generator generates a {@link Maze} from the same seed a number of times, and the median
+ * generation time is reported together with the {@link MazeAnalysis} of the last {@link Maze}, which
+ * shows the shape of the mazes it makes, e.g. the long corridors of the recursive backtracker against
+ * the many short dead ends of Prim's algorithm. The first run of every generator only warms up the JIT
+ * compiler and is not counted.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class GeneratorBenchmark {
+
+	private static final long SEED = 42;
+
+	private final int width, height, runs;
+	private final StringBuilder report = new StringBuilder();
+
+	/**
+	 * Constructs a {@code GeneratorBenchmark}.
+	 * @param width the width of the {@link Maze}s.
+	 * @param height the height of the {@link Maze}s.
+	 * @param runs the number of counted runs of each generator.
+	 * @throws IllegalArgumentException if the width or height is smaller than three or the number of
+	 * runs is smaller than one.
+	 */
+	GeneratorBenchmark(int width, int height, int runs) throws IllegalArgumentException {
+		if (width < 3 || height < 3 || runs < 1) {
+			throw new IllegalArgumentException("The size must be at least three and the runs at least one.");
+		}
+		this.width = width;
+		this.height = height;
+		this.runs = runs;
+	}
+
+	/**
+	 * Runs the benchmark of every generator.
+	 * @throws IllegalArgumentException if a {@link Maze} of this size does not fit in the heap.
+	 */
+	void run() throws IllegalArgumentException {
+		report.setLength(0);
+		report.append("Generators of a " + width + "x" + height + " maze, median of " + runs + " runs\n");
+		for (AlgorithmDescriptor descriptor : MazeGeneratorFactory.getRegistry().getDescriptors()) {
+			MazeController mazeController = new MazeController();
+			double[] generation = new double[runs];
+			for (int run = -1; run < runs; run++) {
+				mazeController.createMaze(width, height);
+				mazeController.generateMaze(descriptor.getName(), SEED);
+				if (run >= 0) {
+					generation[run] = mazeController.getGenerationTime();
+				}
+			}
+			double median = median(generation);
+			MazeAnalysis analysis = mazeController.analyzeMaze();
+			report.append(descriptor.getName() + ": generation " + median + " ms ("
+					+ String.format(Locale.ROOT, "%.0f", median * 1000000 / ((long) width * height)) + " ns/cell), "
+					+ analysis.getDeadEnds() + " dead ends, longest corridor " + analysis.getLongestCorridor()
+					+ ", river factor " + String.format(Locale.ROOT, "%.3f", analysis.getRiverFactor()) + "\n");
+		}
+	}
+
+	/**
+	 * Returns the report of the last run.
+	 * @return the report of the last run.
+	 */
+	String getReport() {
+		return report.toString();
+	}
+
+	private static double median(double[] times) {
+		double[] sorted = Arrays.copyOf(times, times.length);
+		Arrays.sort(sorted);
+		return BatchRunner.percentile(sorted, 50);
+	}
+}
@@ -0,0 +1,126 @@
+package se.hig.dvg329.algomaze.control;
+
+import java.util.Arrays;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.CellLayout;
+import se.hig.dvg329.algomaze.model.HilbertLayout;
+import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.model.MortonLayout;
+import se.hig.dvg329.algomaze.model.RowMajorLayout;
+
+/**
+ * The {@code LayoutBenchmark} class compares the {@link CellLayout}s on one size of {@link Maze}. For
+ * every layout it generates a {@link Maze} with Prim's algorithm from the same seed, solves it with
+ * Dijkstra's algorithm and walks every passage breadth-first by the neighbour indices of the layout,
+ * and it reports the median time of each phase over a number of runs. The first run of every layout
+ * only warms up the JIT compiler and is not counted.
+ * <p>
+ * The layouts only pay off once a {@link Maze} is much larger than the caches, so the benchmark
+ * should be run with mazes of millions of {@link Cell}s and a heap large enough to hold them.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class LayoutBenchmark {
+
+	private static final long SEED = 42;
+
+	private final int width, height, runs;
+	private final StringBuilder report = new StringBuilder();
+
+	/**
+	 * Constructs a {@code LayoutBenchmark}.
+	 * @param width the width of the {@link Maze}s.
+	 * @param height the height of the {@link Maze}s.
+	 * @param runs the number of counted runs of each layout.
+	 * @throws IllegalArgumentException if the width or height is smaller than three or the number of
+	 * runs is smaller than one.
+	 */
+	LayoutBenchmark(int width, int height, int runs) throws IllegalArgumentException {
+		if (width < 3 || height < 3 || runs < 1) {
+			throw new IllegalArgumentException("The size must be at least three and the runs at least one.");
+		}
+		this.width = width;
+		this.height = height;
+		this.runs = runs;
+	}
+
+	/**
+	 * Runs the benchmark of every layout.
+	 * @throws IllegalArgumentException if a layout cannot hold a {@link Maze} of this size.
+	 */
+	void run() throws IllegalArgumentException {
+		report.setLength(0);
+		report.append("Layouts of a " + width + "x" + height + " maze, median of " + runs + " runs\n");
+		CellLayout[] layouts = { new RowMajorLayout(width, height), new MortonLayout(width, height),
+				new HilbertLayout(width, height) };
+		for (CellLayout layout : layouts) {
+			double[] generation = new double[runs];
+			double[] solving = new double[runs];
+			double[] traversal = new double[runs];
+			for (int run = -1; run < runs; run++) {
+				MazeController mazeController = new MazeController();
+				Maze maze = mazeController.createMaze(width, height, layout);
+				mazeController.generateMaze("Prim", SEED);
+				mazeController.solveMaze("Dijkstra");
+				Timer timer = new Timer();
+				timer.startTimer();
+				int reached = traverse(maze);
+				double traversalTime = timer.endTimer();
+				if (reached != width * height) {
+					throw new IllegalStateException("The traversal only reached " + reached + " cells.");
+				}
+				if (run >= 0) {
+					generation[run] = mazeController.getGenerationTime();
+					solving[run] = mazeController.getSolvingTime();
+					traversal[run] = traversalTime;
+				}
+			}
+			report.append(layout + " (" + layout.size() + " slots): generation " + median(generation)
+					+ " ms, solving " + median(solving) + " ms, traversal " + median(traversal) + " ms\n");
+		}
+	}
+
+	/**
+	 * Returns the report of the last run.
+	 * @return the report of the last run.
+	 */
+	String getReport() {
+		return report.toString();
+	}
+
+	/**
+	 * Walks every passage of a {@link Maze} breadth-first from the top left {@link Cell}, finding the
+	 * neighbours by the index arithmetic of the layout.
+	 * @return the number of {@link Cell}s reached.
+	 */
+	private static int traverse(Maze maze) {
+		CellLayout layout = maze.getLayout();
+		boolean[] seen = new boolean[layout.size()];
+		int[] queue = new int[maze.getWidth() * maze.getHeight()];
+		int head = 0, tail = 0;
+		queue[tail++] = layout.indexOf(0, 0);
+		seen[queue[0]] = true;
+		while (head < tail) {
+			int index = queue[head++];
+			Cell cell = maze.getCell(layout.xOf(index), layout.yOf(index));
+			int[] neighbors = { cell.hasNorth() ? layout.northOf(index) : -1,
+					cell.hasWest() ? layout.westOf(index) : -1, cell.hasSouth() ? layout.southOf(index) : -1,
+					cell.hasEast() ? layout.eastOf(index) : -1 };
+			for (int neighbor : neighbors) {
+				if (neighbor >= 0 && !seen[neighbor]) {
+					seen[neighbor] = true;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return tail;
+	}
+
+	private static double median(double[] times) {
+		double[] sorted = Arrays.copyOf(times, times.length);
+		Arrays.sort(sorted);
+		return BatchRunner.percentile(sorted, 50);
+	}
+}
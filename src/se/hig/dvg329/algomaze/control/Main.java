@@ -1,7 +1,16 @@
 package se.hig.dvg329.algomaze.control;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import se.hig.dvg329.algomaze.control.metrics.MetricsRegistry;
+import se.hig.dvg329.algomaze.control.recording.StepLog;
+import se.hig.dvg329.algomaze.control.recording.StepRecorder;
 import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.storage.AsciiMazeParser;
 import se.hig.dvg329.algomaze.storage.FileMazeDAO;
+import se.hig.dvg329.algomaze.storage.MazeFormatException;
 import se.hig.dvg329.algomaze.storage.MazeDAO;
 import se.hig.dvg329.algomaze.view.GUI;
 import se.hig.dvg329.algomaze.storage.FileStorageManager;
@@ -12,6 +21,29 @@ import se.hig.dvg329.algomaze.storage.FileStorageManager;
  * The first argument must be the width of the {@link Maze}.
  * The second argument must be the height of the {@link Maze}.
  * The third argument must be the file path that the program should print the {@link Maze} to.
+ * An optional fourth argument {@code --analyze} appends the metrics of a
+ * {@link se.hig.dvg329.algomaze.control.analysis.MazeAnalysis} to the results header.
+ * <p>
+ * Alternatively, {@code --resolve <input> <output>} reads back all {@link Maze}s previously printed to
+ * the input file, solves them again and prints them to the output file.
+ * <p>
+ * {@code --batch <count> <min size> <max size> <generator> <solver> <concurrency>} generates and solves
+ * a number of {@link Maze}s of random sizes within the size range on a number of concurrent workers and
+ * prints their throughput and latency percentiles.
+ * <p>
+ * {@code --record <width> <height> <output>} generates and solves a {@link Maze} and saves every step of
+ * both runs as a {@link StepLog}, which the GUI can open and replay.
+ * <p>
+ * {@code --layouts <width> <height> <runs>} generates, solves and traverses a {@link Maze} stored in each
+ * {@link se.hig.dvg329.algomaze.model.CellLayout} and prints the median time of each phase.
+ * <p>
+ * {@code --generators <width> <height> <runs>} generates a {@link Maze} with each registered generator and
+ * prints the median generation time and the shape of the {@link Maze}s, see {@link GeneratorBenchmark}.
+ * <p>
+ * {@code --serve <port>} serves {@link Maze}s over HTTP on the loopback interface until the program is
+ * stopped, see {@link MazeServer}.
+ * <p>
+ * In every mode the metrics of the program are published over JMX under {@link MetricsRegistry#OBJECT_NAME}.
  * @author Thomas Lundgren
  * @version 1.0.0
  * @since 1.0.0
@@ -32,7 +64,27 @@ public class Main {
 	 * The third argument must be the file path that the program should print the {@link Maze} to.
 	 */
 	public static void main(String[] args) {
-		if (args.length == 3 && args[0] != null && args[1] != null && args[2] != null) {
+		MetricsRegistry.getInstance().registerMBean();
+		if (args.length == 3 && "--resolve".equals(args[0])) {
+			resolve(args[1], args[2]);
+		}
+		else if (args.length == 7 && "--batch".equals(args[0])) {
+			batch(args);
+		}
+		else if (args.length == 4 && "--record".equals(args[0])) {
+			record(args);
+		}
+		else if (args.length == 4 && "--layouts".equals(args[0])) {
+			layouts(args);
+		}
+		else if (args.length == 4 && "--generators".equals(args[0])) {
+			generators(args);
+		}
+		else if (args.length == 2 && "--serve".equals(args[0])) {
+			serve(args[1]);
+		}
+		else if ((args.length == 3 || args.length == 4 && "--analyze".equals(args[3]))
+				&& args[0] != null && args[1] != null && args[2] != null) {
 			int width = 0;
 			int height = 0;
 			
@@ -56,15 +108,24 @@ public class Main {
 				mazeController.createMaze(width, height);
 				mazeController.generateMaze("Prim");
 				mazeController.solveMaze("Dijkstra");
+				String analysis = args.length == 4 ? mazeController.analyzeMaze().toString() : "";
 				STORAGE_MANAGER.storeData("Maze generated with: " + mazeController.getGeneratorName() + "\n"
 						+ "Maze generation time: " + mazeController.getGenerationTime() + " ms\n"
 								+ "Maze solved with: " + mazeController.getSolverName() + "\n"
-										+ "Maze solving time: " + mazeController.getSolvingTime() + " ms\n\n");
+										+ "Maze solving time: " + mazeController.getSolvingTime() + " ms\n"
+												+ analysis + "\n");
 				MAZE_DAO.store(mazeController.getMaze());
 				System.out.println("Succesfully generated maze and printed it to: " + STORAGE_MANAGER.getSavePath());
+				System.out.println("Estimated footprint: " + mazeController.getFootprint());
 			}
 			catch (IllegalArgumentException e) {
-				System.err.println("Invalid width or height. Width and height must be larger than three. Closing program.");
+				if (width < 3 || height < 3) {
+					System.err.println("Invalid width or height. Width and height must be larger than three. Closing program.");
+				}
+				else {
+					// The maze was too large for the heap.
+					System.err.println(e.getMessage() + " Closing program.");
+				}
 				System.exit(0);
 			}
 		}
@@ -74,4 +135,126 @@ public class Main {
 			gui.initGUI();
 		}
 	}
+	
+	private static void resolve(String input, String output) {
+		List<Maze> mazes = null;
+		try {
+			mazes = new AsciiMazeParser().parse(Paths.get(input));
+		}
+		catch (IOException e) {
+			System.err.println("Could not read " + input + ". Closing program.");
+			System.exit(0);
+		}
+		catch (MazeFormatException e) {
+			System.err.println("Invalid maze in " + input + ": " + e.getMessage() + " Closing program.");
+			System.exit(0);
+		}
+		STORAGE_MANAGER.setSavePath(output);
+		MazeController mazeController = new MazeController();
+		for (Maze maze : mazes) {
+			mazeController.setMaze(maze);
+			mazeController.solveMaze("Dijkstra");
+			STORAGE_MANAGER.storeData("Maze solved with: " + mazeController.getSolverName() + "\n"
+					+ "Maze solving time: " + mazeController.getSolvingTime() + " ms\n\n");
+			MAZE_DAO.store(maze);
+		}
+		System.out.println("Succesfully solved " + mazes.size() + " mazes and printed them to: " + STORAGE_MANAGER.getSavePath());
+	}
+	
+	private static void record(String[] args) {
+		try {
+			MazeController mazeController = new MazeController();
+			Maze maze = mazeController.createMaze(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+			StepRecorder recorder = new StepRecorder(maze);
+			mazeController.registerObserver(recorder);
+			mazeController.generateMaze("Prim");
+			mazeController.solveMaze("Dijkstra");
+			StepLog log = recorder.getLog();
+			log.writeTo(Paths.get(args[3]));
+			System.out.println("Succesfully recorded " + log.size() + " steps to: " + args[3]);
+		}
+		catch (NumberFormatException e) {
+			System.err.println("Invalid width or height provided. Closing program.");
+			System.exit(0);
+		}
+		catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage() + " Closing program.");
+			System.exit(0);
+		}
+		catch (IOException e) {
+			System.err.println("Could not write " + args[3] + ". Closing program.");
+			System.exit(0);
+		}
+	}
+	
+	private static void batch(String[] args) {
+		try {
+			BatchRunner batchRunner = new BatchRunner(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+					Integer.parseInt(args[3]), args[4], args[5], Integer.parseInt(args[6]));
+			batchRunner.run();
+			System.out.print(batchRunner.getReport());
+		}
+		catch (NumberFormatException e) {
+			System.err.println("Invalid count, size or concurrency provided. Closing program.");
+			System.exit(0);
+		}
+		catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage() + " Closing program.");
+			System.exit(0);
+		}
+		catch (InterruptedException e) {
+			System.err.println("Batch was interrupted. Closing program.");
+			System.exit(0);
+		}
+	}
+	
+	private static void layouts(String[] args) {
+		try {
+			LayoutBenchmark benchmark = new LayoutBenchmark(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+					Integer.parseInt(args[3]));
+			benchmark.run();
+			System.out.print(benchmark.getReport());
+		}
+		catch (NumberFormatException e) {
+			System.err.println("Invalid width, height or runs provided. Closing program.");
+			System.exit(0);
+		}
+		catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage() + " Closing program.");
+			System.exit(0);
+		}
+	}
+	
+	private static void generators(String[] args) {
+		try {
+			GeneratorBenchmark benchmark = new GeneratorBenchmark(Integer.parseInt(args[1]),
+					Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+			benchmark.run();
+			System.out.print(benchmark.getReport());
+		}
+		catch (NumberFormatException e) {
+			System.err.println("Invalid width, height or runs provided. Closing program.");
+			System.exit(0);
+		}
+		catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage() + " Closing program.");
+			System.exit(0);
+		}
+	}
+	
+	private static void serve(String port) {
+		try {
+			MazeServer server = new MazeServer(Integer.parseInt(port), MazeServer.DEFAULT_CACHE_SIZE);
+			server.start();
+			System.out.println("Serving mazes on http://localhost:" + server.getPort() + "/");
+		}
+		catch (NumberFormatException e) {
+			System.err.println("Invalid port provided. Closing program.");
+			System.exit(0);
+		}
+		catch (IOException e) {
+			System.err.println("Could not listen on port " + port + ". Closing program.");
+			System.exit(0);
+		}
+	}
 }
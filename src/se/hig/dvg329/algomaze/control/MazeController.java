@@ -1,31 +1,70 @@
 package se.hig.dvg329.algomaze.control;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Observable;
 import java.util.Observer;
+import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 
+import jdk.jfr.EventType;
+
+import se.hig.dvg329.algomaze.control.analysis.MazeAnalysis;
+import se.hig.dvg329.algomaze.control.analysis.MazeAnalyzer;
 import se.hig.dvg329.algomaze.control.generators.MazeGenerator;
+import se.hig.dvg329.algomaze.control.metrics.AllocationCounter;
+import se.hig.dvg329.algomaze.control.metrics.MetricsRegistry;
+import se.hig.dvg329.algomaze.control.registry.AlgorithmRegistry;
 import se.hig.dvg329.algomaze.control.generators.MazeGeneratorFactory;
+import se.hig.dvg329.algomaze.control.generators.TerrainGenerator;
 import se.hig.dvg329.algomaze.control.solvers.MazeSolver;
 import se.hig.dvg329.algomaze.control.solvers.MazeSolverFactory;
+import se.hig.dvg329.algomaze.control.solvers.SolverStatistics;
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.CellLayout;
 import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.model.RowMajorLayout;
 
 /**
  * The {@code MazeController} class is responsible for handling the currently used {@link Maze}.
  * The {@link MazeController#generateMaze(String)} and {@link MazeController#solveMaze(String)} methods
  * are used to generate and solve {@link Maze}s, respectively. The {@code MazeController} class
+ * keeps the last used {@link MazeGenerator} and {@link MazeSolver} and reuses them as long as the same
+ * algorithm is asked for, so that their scratch buffers are reused as well.
+ * <p>
+ * Every generation and solve is recorded in the {@link MetricsRegistry}: the latency of the phase, the
+ * part of it spent in registered {@link Observer}s, the number of cells processed, the bytes allocated
+ * by the calling thread and, for solvers that report them, the operations on the priority queue.
+ * The same figures are emitted as JDK Flight Recorder events, together with an event for each
+ * observer callback slower than one millisecond.
+ * <p>
+ * Before a {@link Maze} is allocated, or an algorithm is run on it, its {@link MazeFootprint} is
+ * reserved in the free heap, shared by all {@code MazeController}s, so that a request that cannot fit is
+ * rejected up front instead of failing with an {@link OutOfMemoryError} halfway through.
  * @author Thomas Lundgren
  *
  */
 public class MazeController {
 
+	private static final EventType OBSERVER_CALLBACK = EventType.getEventType(ObserverCallbackEvent.class);
+
 	private Maze maze;
 	private MazeGenerator generator;
 	private MazeSolver solver;
+	private String generatorAlgorithm, solverAlgorithm;
 	private final MazeGeneratorFactory generatorFactory = new MazeGeneratorFactory();
 	private final MazeSolverFactory solverFactory = new MazeSolverFactory();
+	private final TerrainGenerator terrainGenerator = new TerrainGenerator();
+	private final MazeAnalyzer analyzer = new MazeAnalyzer();
 	private Timer timer = new Timer();
 	private double generationTime;
 	private double solvingTime;
+	private double generationObserverTime;
+	private double solvingObserverTime;
+	private final LongAdder observerNanos = new LongAdder();
+	private final Map<Observer, Observer> timedObservers = new HashMap<>();
+	private final MetricsRegistry metrics = MetricsRegistry.getInstance();
 	
 	/**
 	 * Constructs a {@code MazeController}.
@@ -37,55 +76,269 @@ public class MazeController {
 	 * @param width the width of the {@link Maze}.
 	 * @param height the height of the {@link Maze}.
 	 * @return the created {@link Maze}.
+	 * @throws IllegalArgumentException if the width or height is smaller than three or if the
+	 * {@link Maze} would not fit in the free heap.
 	 */
-	public Maze createMaze(int width, int height) {
-		maze = new Maze(width, height);
+	public Maze createMaze(int width, int height) throws IllegalArgumentException {
+		return createMaze(width, height, new RowMajorLayout(width, height));
+	}
+	
+	/**
+	 * Creates a {@link Maze} object whose {@link Cell}s are stored in the order of a {@link CellLayout},
+	 * e.g. a {@link se.hig.dvg329.algomaze.model.HilbertLayout} for huge mazes. If the {@link Maze} would
+	 * not fit in the free heap in the layout but would in row-major order, which leaves no unused slots,
+	 * it is created in row-major order instead.
+	 * @param width the width of the {@link Maze}.
+	 * @param height the height of the {@link Maze}.
+	 * @param layout the layout of the {@link Cell}s, with the same width and height.
+	 * @return the created {@link Maze}.
+	 * @throws IllegalArgumentException if the layout does not match the width and height, or if the
+	 * {@link Maze} would not fit in the free heap.
+	 */
+	public Maze createMaze(int width, int height, CellLayout layout) throws IllegalArgumentException {
+		long reserved = 0;
+		if (width >= 3 && height >= 3) {
+			MazeFootprint footprint = MazeFootprint.estimate(layout, null, null);
+			boolean fits = MazeFootprint.reserve(footprint.getTotalBytes());
+			if (!fits && !(layout instanceof RowMajorLayout)) {
+				layout = new RowMajorLayout(width, height);
+				footprint = MazeFootprint.estimate(layout, null, null);
+				fits = MazeFootprint.reserve(footprint.getTotalBytes());
+				metrics.counter("footprint.layoutFallbacks").increment();
+			}
+			if (!fits) {
+				metrics.counter("footprint.rejected").increment();
+				throw new IllegalArgumentException("A maze of " + width + "x" + height + " needs about "
+						+ footprint + " but only " + MazeFootprint.megabytes(MazeFootprint.getAvailableHeap())
+						+ " of the heap is free. Store it as a TiledMazeFile and solve it with the"
+						+ " OutOfCoreMazeSolver instead.");
+			}
+			reserved = footprint.getTotalBytes();
+			metrics.counter("footprint.estimatedBytes").add(reserved);
+		}
+		try {
+			setMaze(new Maze(width, height, layout));
+		}
+		finally {
+			// Once allocated, the grid is counted as used heap instead.
+			MazeFootprint.release(reserved);
+		}
 		return maze;
 	}
 	
+	/**
+	 * Returns the estimated footprint of the {@link Maze} and the algorithms last used on it.
+	 * @return the estimate, or null if there is no {@link Maze}.
+	 */
+	public MazeFootprint getFootprint() {
+		return maze == null ? null : MazeFootprint.estimate(maze.getLayout(), generatorAlgorithm, solverAlgorithm);
+	}
+	
+	/**
+	 * Reserves the heap of an algorithm before it is run, see {@link MazeFootprint#reserve(long)}.
+	 * @return the reserved bytes, to be released once the algorithm has run.
+	 * @throws IllegalArgumentException if it does not fit.
+	 */
+	private long admit(String generatorAlgorithm, String solverAlgorithm) throws IllegalArgumentException {
+		MazeFootprint footprint = MazeFootprint.estimate(maze.getLayout(), generatorAlgorithm, solverAlgorithm);
+		long bytes = footprint.getGeneratorBytes() + footprint.getSolverBytes();
+		if (!MazeFootprint.reserve(bytes)) {
+			metrics.counter("footprint.rejected").increment();
+			throw new IllegalArgumentException("The algorithm needs about " + MazeFootprint.megabytes(bytes)
+					+ " but only " + MazeFootprint.megabytes(MazeFootprint.getAvailableHeap()) + " of the heap is free."
+					+ " Choose \"" + AlgorithmRegistry.AUTO + "\" to pick one that fits.");
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Makes a previously created {@link Maze}, e.g. one read back from a file, the {@link Maze}
+	 * handled by this {@code MazeController}. The last used solver forgets the previous {@link Maze}, see
+	 * {@link MazeSolver#reset()}.
+	 * @param maze the {@link Maze} to handle.
+	 */
+	public void setMaze(Maze maze) {
+		if (maze != this.maze && solver != null) {
+			solver.reset();
+		}
+		this.maze = maze;
+	}
+	
+	/**
+	 * Gives the lastly created {@link Maze} a terrain of traversal costs generated from seeded noise,
+	 * which the solvers take into account. The terrain is kept when the {@link Maze} is generated again.
+	 * @param seed the seed of the noise.
+	 */
+	public void generateTerrain(long seed) {
+		maze.setTerrain(terrainGenerator.generate(maze.getWidth(), maze.getHeight(), seed));
+	}
+	
 	/**
 	 * Generates a random {@link Maze} using the algorithm provided as the method's argument.
 	 * This method will turn an empty {@link Maze} into a randomized perfect {@link Maze}.
 	 * The {@link Maze} used is the {@link Maze} lastly created by calling the {@link MazeController#createMaze(int, int)}
 	 * method.
-	 * @param algorithm the algorithm to be used to generate the {@link Maze}. The only implemented
-	 * method currently is "Prim".
+	 * @param algorithm the algorithm to be used to generate the {@link Maze}, see
+	 * {@link MazeGeneratorFactory#createGenerator(String)}.
 	 * @throws IllegalArgumentException if an application tries to call this method with a String
 	 * representing a not yet implemented algorithm as an argument.
 	 */
 	public void generateMaze(String algorithm) throws IllegalArgumentException {
+		generateMaze(algorithm, ThreadLocalRandom.current());
+	}
+	
+	/**
+	 * Generates a {@link Maze} like {@link #generateMaze(String)}, but draws the start, the end and every
+	 * choice of the algorithm from a {@link Random} created from a seed. Generating {@link Maze}s of the
+	 * same size with the same algorithm and seed gives the same {@link Maze}, except with "WilsonParallel",
+	 * whose {@link Maze}s also depend on the timing of its threads.
+	 * @param algorithm the algorithm to be used to generate the {@link Maze}.
+	 * @param seed the seed of the random choices.
+	 * @throws IllegalArgumentException if an application tries to call this method with a String
+	 * representing a not yet implemented algorithm as an argument.
+	 */
+	public void generateMaze(String algorithm, long seed) throws IllegalArgumentException {
+		generateMaze(algorithm, new Random(seed));
+	}
+	
+	private void generateMaze(String algorithm, Random random) throws IllegalArgumentException {
 		if (!maze.isEmpty()) {
 			maze.clear();
 		}
-		generator = generatorFactory.createGenerator(algorithm);
-		if (generator == null) {
-			throw new IllegalArgumentException("The chosen algorithm has not been implemented.");
+		// "auto" is resolved for each maze, since the pick depends on its size.
+		algorithm = MazeGeneratorFactory.getRegistry().resolve(algorithm, maze.getWidth(), maze.getHeight());
+		long reserved = admit(algorithm, null);
+		try {
+			runGenerator(algorithm, random);
+		}
+		finally {
+			MazeFootprint.release(reserved);
 		}
-		maze.setStart(maze.getCell(ThreadLocalRandom.current().nextInt(0, maze.getWidth()), 0));
-		maze.setEnd(maze.getCell(ThreadLocalRandom.current().nextInt(0, maze.getWidth()), maze.getHeight() - 1));
+	}
+	
+	private void runGenerator(String algorithm, Random random) throws IllegalArgumentException {
+		if (generator == null || !algorithm.equals(generatorAlgorithm)) {
+			MazeGenerator created = generatorFactory.createGenerator(algorithm);
+			if (created == null) {
+				throw new IllegalArgumentException("The chosen algorithm has not been implemented.");
+			}
+			generator = created;
+			generatorAlgorithm = algorithm;
+		}
+		maze.setStart(maze.getCell(random.nextInt(maze.getWidth()), 0));
+		maze.setEnd(maze.getCell(random.nextInt(maze.getWidth()), maze.getHeight() - 1));
 		
+		MazeGenerationEvent event = new MazeGenerationEvent();
+		long observerStart = observerNanos.sum();
+		long allocationStart = AllocationCounter.currentThreadAllocatedBytes();
+		event.begin();
 		timer.startTimer();
-		generator.generate(maze);
+		generator.generate(maze, random);
 		generationTime = timer.endTimer();
+		event.end();
+		long allocated = AllocationCounter.currentThreadAllocatedBytes() - allocationStart;
+		long observed = observerNanos.sum() - observerStart;
+		generationObserverTime = (double) observed / 1000000;
 		
 		maze.setEmpty(false);
+		
+		if (event.shouldCommit()) {
+			event.mazeId = maze.getId().toString();
+			event.width = maze.getWidth();
+			event.height = maze.getHeight();
+			event.algorithm = generator.toString();
+			event.cells = (long) maze.getWidth() * maze.getHeight();
+			event.observerTime = observed;
+			event.allocated = allocated;
+			event.commit();
+		}
+		metrics.counter("generation.count").increment();
+		metrics.counter("generation.cells").add((long) maze.getWidth() * maze.getHeight());
+		metrics.counter("generation.allocatedBytes").add(allocated);
+		metrics.histogram("generation.latency").record(timer.getElapsedNanos());
+		metrics.histogram("generation.observerLatency").record(observed);
+		metrics.histogram("generation.algorithmLatency").record(timer.getElapsedNanos() - observed);
 	}
 	
 	/**
 	 * Solves a previously generated {@link Maze}.
-	 * @param algorithm the algorithm to be used to solve the {@link Maze}. The only implemented
-	 * algorithm so far is "Dijkstra".
+	 * @param algorithm the algorithm to be used to solve the {@link Maze}, see
+	 * {@link MazeSolverFactory#createMazeSolver(String)}.
 	 * @throws IllegalArgumentException if an application tries to call this method with a String
 	 * representing a not yet implemented algorithm as an argument.
 	 */
 	public void solveMaze(String algorithm) throws IllegalArgumentException {
-		solver = solverFactory.createMazeSolver(algorithm);
-		if (solver == null) {
-			throw new IllegalArgumentException("The chosen algorithm has not been implemented.");
+		algorithm = MazeSolverFactory.getRegistry().resolve(algorithm, maze.getWidth(), maze.getHeight());
+		long reserved = admit(null, algorithm);
+		try {
+			runSolver(algorithm);
 		}
+		finally {
+			MazeFootprint.release(reserved);
+		}
+	}
+	
+	private void runSolver(String algorithm) throws IllegalArgumentException {
+		if (solver == null || !algorithm.equals(solverAlgorithm)) {
+			MazeSolver created = solverFactory.createMazeSolver(algorithm);
+			if (created == null) {
+				throw new IllegalArgumentException("The chosen algorithm has not been implemented.");
+			}
+			if (solver != null) {
+				solver.reset();
+			}
+			solver = created;
+			solverAlgorithm = algorithm;
+		}
+		MazeSolvingEvent event = new MazeSolvingEvent();
+		long observerStart = observerNanos.sum();
+		long allocationStart = AllocationCounter.currentThreadAllocatedBytes();
+		event.begin();
 		timer.startTimer();
 		solver.solve(maze);
 		solvingTime = timer.endTimer();
+		event.end();
+		long allocated = AllocationCounter.currentThreadAllocatedBytes() - allocationStart;
+		long observed = observerNanos.sum() - observerStart;
+		solvingObserverTime = (double) observed / 1000000;
+		
+		SolverStatistics statistics = solver.getStatistics();
+		if (event.shouldCommit()) {
+			event.mazeId = maze.getId().toString();
+			event.width = maze.getWidth();
+			event.height = maze.getHeight();
+			event.algorithm = solver.toString();
+			event.visitedCells = statistics.getVisitedCells();
+			event.enqueueCount = statistics.getEnqueueCount();
+			event.dequeueCount = statistics.getDequeueCount();
+			event.decreaseKeyCount = statistics.getDecreaseKeyCount();
+			event.observerTime = observed;
+			event.allocated = allocated;
+			event.commit();
+		}
+		metrics.counter("solving.count").increment();
+		metrics.counter("solving.visitedCells").add(statistics.getVisitedCells());
+		metrics.counter("solving.allocatedBytes").add(allocated);
+		metrics.counter("heap.enqueue").add(statistics.getEnqueueCount());
+		metrics.counter("heap.dequeueMin").add(statistics.getDequeueCount());
+		metrics.counter("heap.decreaseKey").add(statistics.getDecreaseKeyCount());
+		metrics.histogram("solving.latency").record(timer.getElapsedNanos());
+		metrics.histogram("solving.observerLatency").record(observed);
+		metrics.histogram("solving.algorithmLatency").record(timer.getElapsedNanos() - observed);
+	}
+	
+	/**
+	 * Analyses the lastly created {@link Maze}, an optional step after it has been generated and,
+	 * for the length of its solution, solved.
+	 * @return the metrics of the {@link Maze}.
+	 */
+	public MazeAnalysis analyzeMaze() {
+		timer.startTimer();
+		MazeAnalysis analysis = analyzer.analyze(maze);
+		timer.endTimer();
+		metrics.counter("analysis.count").increment();
+		metrics.histogram("analysis.latency").record(timer.getElapsedNanos());
+		return analysis;
 	}
 	
 	/**
@@ -122,7 +375,7 @@ public class MazeController {
 	 * does not tell you how fast a particular algorithm is, but rather how fast
 	 * it is in the context of this application. Note also that it should never
 	 * be compared to maze solving times, since the overhead of these operations
-	 * are different.
+	 * are different. The part spent in observers is returned by {@link #getGenerationObserverTime()}.
 	 * @return the generation time of the lastly generated maze.
 	 */
 	public double getGenerationTime() {
@@ -135,29 +388,96 @@ public class MazeController {
 	 * does not tell you how fast a particular algorithm is, but rather how fast
 	 * it is in the context of this application. Note also that it should never
 	 * be compared to maze generation times, since the overhead of these operations
-	 * are different.
+	 * are different. The part spent in observers is returned by {@link #getSolvingObserverTime()}.
 	 * @return the solving time of the lastly solved maze.
 	 */
 	public double getSolvingTime() {
 		return solvingTime;
 	}
 	
+	/**
+	 * Returns the part of the last generation time that was spent in {@link Observer}s registered
+	 * through {@link #registerObserver(Observer)}.
+	 * @return the observer time of the lastly generated maze in milliseconds.
+	 */
+	public double getGenerationObserverTime() {
+		return generationObserverTime;
+	}
+	
+	/**
+	 * Returns the part of the last solving time that was spent in {@link Observer}s registered
+	 * through {@link #registerObserver(Observer)}.
+	 * @return the observer time of the lastly solved maze in milliseconds.
+	 */
+	public double getSolvingObserverTime() {
+		return solvingObserverTime;
+	}
+	
+	/**
+	 * Registers an {@link Observer} on every {@link se.hig.dvg329.algomaze.model.Cell} of the lastly
+	 * created {@link Maze}. The time spent in the {@link Observer} is measured separately from the
+	 * time spent in the algorithms.
+	 * @param observer the {@link Observer} to register.
+	 */
 	public void registerObserver(Observer observer) {
+		Observer timedObserver = timedObservers.computeIfAbsent(observer, TimedObserver::new);
 		for (int y = 0; y < maze.getHeight(); y++) {
 			for (int x = 0; x < maze.getWidth(); x++) {
-				maze.getCell(x, y).addObserver(observer);
+				maze.getCell(x, y).addObserver(timedObserver);
 			}	
 		}	
 	}
 	
+	/**
+	 * Removes an {@link Observer} registered through {@link #registerObserver(Observer)} from every
+	 * {@link se.hig.dvg329.algomaze.model.Cell} of the lastly created {@link Maze}.
+	 * @param observer the {@link Observer} to remove.
+	 */
 	public void deleteObserver(Observer observer) {
+		Observer timedObserver = timedObservers.remove(observer);
+		if (timedObserver == null) {
+			return;
+		}
 		for (int y = 0; y < maze.getHeight(); y++) {
 			for (int x = 0; x < maze.getWidth(); x++) {
-				maze.getCell(x, y).deleteObserver(observer);
+				maze.getCell(x, y).deleteObserver(timedObserver);
 			}	
 		}
 	}
 	
+	private class TimedObserver implements Observer {
+		
+		private final Observer observer;
+		
+		TimedObserver(Observer observer) {
+			this.observer = observer;
+		}
+		
+		@Override
+		public void update(Observable o, Object arg) {
+			if (!OBSERVER_CALLBACK.isEnabled()) {
+				// Callbacks are many, so no event is allocated unless a recording asks for it.
+				long start = System.nanoTime();
+				observer.update(o, arg);
+				observerNanos.add(System.nanoTime() - start);
+				return;
+			}
+			ObserverCallbackEvent event = new ObserverCallbackEvent();
+			event.begin();
+			long start = System.nanoTime();
+			observer.update(o, arg);
+			observerNanos.add(System.nanoTime() - start);
+			event.end();
+			if (event.shouldCommit()) {
+				Cell cell = (Cell) o;
+				event.observer = observer.getClass().getName();
+				event.x = cell.getX();
+				event.y = cell.getY();
+				event.commit();
+			}
+		}
+	}
+	
 	public static void main(String[] args) {
 		boolean[][] maze = new boolean[39][37];
 		
@@ -0,0 +1,234 @@
+package se.hig.dvg329.algomaze.control;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.atomic.AtomicLong;
+
+import se.hig.dvg329.algomaze.control.generators.MazeGeneratorFactory;
+import se.hig.dvg329.algomaze.control.registry.AlgorithmDescriptor;
+import se.hig.dvg329.algomaze.control.registry.AlgorithmRegistry;
+import se.hig.dvg329.algomaze.control.solvers.MazeSolverFactory;
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.CellLayout;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * A {@code MazeFootprint} is an estimate of the heap needed by a {@link Maze} and the algorithms run on
+ * it, made before anything is allocated. The grid is estimated from the measured size of a {@link Cell},
+ * which with its list of observers is about {@value #CELL_BYTES} bytes plus a reference per slot of the
+ * {@link CellLayout}, or {@value #WIDE_CELL_BYTES} plus a wider reference on heaps too large for
+ * compressed references. The algorithms are estimated from the heap per cell of their
+ * {@link AlgorithmDescriptor}s. A terrain, if one is added later, costs two more bytes per cell.
+ * <p>
+ * Since many {@link MazeController}s may check the free heap at the same time, each one reserves its
+ * estimate with {@link #reserve(long)} before it allocates, and releases it with {@link #release(long)}
+ * once the allocation is done and counted as used heap. A reservation only succeeds if it fits in the free
+ * heap less what the others have reserved, so two requests that each fit cannot both be admitted when
+ * together they do not.
+ * <p>
+ * The used heap also counts garbage that has not been collected yet, so a request is never rejected on it
+ * alone. If the request does not fit in the free heap but would in the max heap, the heap is collected once
+ * and the request is checked again. Concurrent requests share that collection. If explicit collections are
+ * disabled, what was free after the last collection decides instead.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class MazeFootprint {
+
+	public static final int CELL_BYTES = 128, WIDE_CELL_BYTES = 184;
+
+	/**
+	 * The largest heap on which the JVM uses compressed references by default.
+	 */
+	private static final long COMPRESSED_REFERENCE_HEAP = 32L << 30;
+	private static final int ARRAY_HEADER_BYTES = 16;
+	private static final AtomicLong RESERVED = new AtomicLong();
+	private static final AtomicLong COLLECTIONS = new AtomicLong();
+	private static final Object COLLECTION_LOCK = new Object();
+
+	private final long cells, gridBytes, generatorBytes, solverBytes;
+	private final String generatorName, solverName;
+
+	private MazeFootprint(long cells, long gridBytes, String generatorName, long generatorBytes, String solverName,
+			long solverBytes) {
+		this.cells = cells;
+		this.gridBytes = gridBytes;
+		this.generatorName = generatorName;
+		this.generatorBytes = generatorBytes;
+		this.solverName = solverName;
+		this.solverBytes = solverBytes;
+	}
+
+	/**
+	 * Estimates the footprint of a {@link Maze} and its algorithms. An algorithm named
+	 * {@link AlgorithmRegistry#AUTO} is estimated as the one it would pick now.
+	 * @param layout the layout of the {@link Cell}s of the {@link Maze}.
+	 * @param generatorAlgorithm the name of the generator, or null to leave it out.
+	 * @param solverAlgorithm the name of the solver, or null to leave it out.
+	 * @return the estimate, where an unknown algorithm counts as needing nothing.
+	 */
+	public static MazeFootprint estimate(CellLayout layout, String generatorAlgorithm, String solverAlgorithm) {
+		int width = layout.getWidth();
+		int height = layout.getHeight();
+		long cells = (long) width * height;
+		boolean wide = Runtime.getRuntime().maxMemory() >= COMPRESSED_REFERENCE_HEAP;
+		// A layout has at least a slot per cell, even where its size overflows an int.
+		long slots = Math.max(cells, layout.size());
+		long gridBytes = cells * (wide ? WIDE_CELL_BYTES : CELL_BYTES) + slots * (wide ? 8 : 4) + ARRAY_HEADER_BYTES;
+		String generatorName = null, solverName = null;
+		long generatorBytes = 0, solverBytes = 0;
+		if (generatorAlgorithm != null) {
+			AlgorithmRegistry<?> registry = MazeGeneratorFactory.getRegistry();
+			generatorName = registry.resolve(generatorAlgorithm, width, height);
+			generatorBytes = bytesOf(registry.getDescriptor(generatorName), cells);
+		}
+		if (solverAlgorithm != null) {
+			AlgorithmRegistry<?> registry = MazeSolverFactory.getRegistry();
+			solverName = registry.resolve(solverAlgorithm, width, height);
+			solverBytes = bytesOf(registry.getDescriptor(solverName), cells);
+		}
+		return new MazeFootprint(cells, gridBytes, generatorName, generatorBytes, solverName, solverBytes);
+	}
+
+	private static long bytesOf(AlgorithmDescriptor descriptor, long cells) {
+		return descriptor == null ? 0 : (long) Math.ceil(descriptor.estimateBytes(cells));
+	}
+
+	/**
+	 * Returns the number of bytes of the heap that are not in use, counting the heap the JVM may still grow.
+	 * Garbage that has not been collected yet counts as used.
+	 * @return the free heap in bytes.
+	 */
+	public static long getFreeHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+	}
+
+	/**
+	 * Returns the number of bytes of the heap that were free after the last collection of each heap pool,
+	 * i.e. the max heap less the live set the collector left. What has been allocated since counts as free,
+	 * so this is at most what a collection can free now, and before the old generation has been collected
+	 * it counts only what the young collections left.
+	 * @return the free heap after the last collection in bytes.
+	 */
+	public static long getFreeHeapAfterCollection() {
+		long live = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+			if (usage != null) {
+				live += usage.getUsed();
+			}
+		}
+		return Runtime.getRuntime().maxMemory() - live;
+	}
+
+	/**
+	 * Returns the free heap less what has been reserved and not yet released.
+	 * @return the available heap in bytes.
+	 */
+	public static long getAvailableHeap() {
+		return getFreeHeap() - RESERVED.get();
+	}
+
+	/**
+	 * Reserves a number of bytes of the heap, if they fit in the available heap. If they do not, the heap
+	 * is collected and they are checked again, unless they would not even fit in the max heap.
+	 * @param bytes the number of bytes to reserve.
+	 * @return true if the bytes were reserved, and false if they do not fit.
+	 */
+	static boolean reserve(long bytes) {
+		if (reserve(bytes, getFreeHeap())) {
+			return true;
+		}
+		if (bytes > Runtime.getRuntime().maxMemory() - RESERVED.get()) {
+			return false;
+		}
+		long collectionCount = getCollectionCount();
+		collect();
+		if (getCollectionCount() == collectionCount) {
+			// Explicit collections are disabled, so the last collection is all there is to go by.
+			return reserve(bytes, getFreeHeapAfterCollection());
+		}
+		return reserve(bytes, getFreeHeap());
+	}
+
+	private static boolean reserve(long bytes, long freeHeap) {
+		while (true) {
+			long reserved = RESERVED.get();
+			if (bytes > freeHeap - reserved) {
+				return false;
+			}
+			if (RESERVED.compareAndSet(reserved, reserved + bytes)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Collects the heap, unless another request collected it while this one waited.
+	 */
+	private static void collect() {
+		long collections = COLLECTIONS.get();
+		synchronized (COLLECTION_LOCK) {
+			if (COLLECTIONS.get() == collections) {
+				System.gc();
+				COLLECTIONS.incrementAndGet();
+			}
+		}
+	}
+
+	private static long getCollectionCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, collector.getCollectionCount());
+		}
+		return count;
+	}
+
+	/**
+	 * Releases bytes reserved with {@link #reserve(long)}.
+	 * @param bytes the number of reserved bytes.
+	 */
+	static void release(long bytes) {
+		RESERVED.addAndGet(-bytes);
+	}
+
+	public long getCells() {
+		return cells;
+	}
+
+	public long getGridBytes() {
+		return gridBytes;
+	}
+
+	public long getGeneratorBytes() {
+		return generatorBytes;
+	}
+
+	public long getSolverBytes() {
+		return solverBytes;
+	}
+
+	public long getTotalBytes() {
+		return gridBytes + generatorBytes + solverBytes;
+	}
+
+	/**
+	 * Returns the estimate, e.g. "grid 12.2 MB + Prim 0.8 MB = 13.0 MB".
+	 * @return the estimate in megabytes.
+	 */
+	@Override
+	public String toString() {
+		return "grid " + megabytes(gridBytes) + (generatorName != null ? " + " + generatorName + " " + megabytes(generatorBytes) : "")
+				+ (solverName != null ? " + " + solverName + " " + megabytes(solverBytes) : "") + " = "
+				+ megabytes(getTotalBytes());
+	}
+
+	static String megabytes(long bytes) {
+		return String.format("%.1f MB", bytes / (double) (1 << 20));
+	}
+}
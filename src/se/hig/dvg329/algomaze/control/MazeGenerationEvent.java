@@ -0,0 +1,46 @@
+package se.hig.dvg329.algomaze.control;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event covering one call to {@link MazeController#generateMaze(String)}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+@Name("se.hig.dvg329.algomaze.MazeGeneration")
+@Label("Maze Generation")
+@Category({ "AlgoMaze", "Maze" })
+@Description("Generation of a maze by a MazeGenerator")
+class MazeGenerationEvent extends jdk.jfr.Event {
+
+	@Label("Maze Id")
+	String mazeId;
+
+	@Label("Width")
+	int width;
+
+	@Label("Height")
+	int height;
+
+	@Label("Algorithm")
+	String algorithm;
+
+	@Label("Cells")
+	long cells;
+
+	@Label("Observer Time")
+	@Description("Part of the duration spent in registered observers")
+	@Timespan(Timespan.NANOSECONDS)
+	long observerTime;
+
+	@Label("Allocated")
+	@Description("Bytes allocated by the generating thread")
+	@DataAmount
+	long allocated;
+}
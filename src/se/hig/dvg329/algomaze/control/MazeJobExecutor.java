@@ -0,0 +1,154 @@
+package se.hig.dvg329.algomaze.control;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code MazeJobExecutor} class runs many concurrent {@link GenerateSolveRequest}s, each on its own
+ * virtual thread when the running JVM supports them, and on a cached pool of daemon threads otherwise.
+ * <p>
+ * The jobs borrow {@link MazeController}s from a shared pool and return them when they are done. Since
+ * a {@link MazeController} keeps its generator and solver between calls, and those keep their scratch
+ * buffers, small jobs reuse them instead of allocating new ones. The pool keeps at most one
+ * {@link MazeController} per processor by default; the extra {@link MazeController}s of a burst of jobs are
+ * dropped when they are returned, so their buffers do not stay in the heap. Jobs larger than a threshold must also acquire a permit from a {@link Semaphore}
+ * first, so that a burst of large {@link Maze}s cannot starve the small ones.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class MazeJobExecutor {
+
+	/**
+	 * The default number of cells above which a job is considered large.
+	 */
+	public static final long DEFAULT_LARGE_JOB_CELLS = 200 * 200;
+
+	private final ExecutorService executor = newTaskExecutor();
+	private final Queue<MazeController> controllers;
+	private final Semaphore largeJobs;
+	private final long largeJobCells;
+
+	/**
+	 * Constructs a {@code MazeJobExecutor} that treats jobs of more than {@link #DEFAULT_LARGE_JOB_CELLS}
+	 * cells as large and runs at most half as many large jobs as there are processors at the same time.
+	 */
+	public MazeJobExecutor() {
+		this(DEFAULT_LARGE_JOB_CELLS, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+	}
+
+	/**
+	 * Constructs a {@code MazeJobExecutor} that keeps one {@link MazeController} per processor.
+	 * @param largeJobCells the number of cells above which a job is considered large.
+	 * @param maxLargeJobs the maximum number of large jobs that may run at the same time.
+	 * @throws IllegalArgumentException if maxLargeJobs is smaller than one.
+	 */
+	public MazeJobExecutor(long largeJobCells, int maxLargeJobs) throws IllegalArgumentException {
+		this(largeJobCells, maxLargeJobs, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a {@code MazeJobExecutor}.
+	 * @param largeJobCells the number of cells above which a job is considered large.
+	 * @param maxLargeJobs the maximum number of large jobs that may run at the same time.
+	 * @param maxPooledControllers the maximum number of {@link MazeController}s kept between jobs.
+	 * @throws IllegalArgumentException if maxLargeJobs or maxPooledControllers is smaller than one.
+	 */
+	public MazeJobExecutor(long largeJobCells, int maxLargeJobs, int maxPooledControllers)
+			throws IllegalArgumentException {
+		if (maxLargeJobs < 1) {
+			throw new IllegalArgumentException("At least one large job must be allowed to run.");
+		}
+		if (maxPooledControllers < 1) {
+			throw new IllegalArgumentException("At least one controller must be kept between jobs.");
+		}
+		this.largeJobCells = largeJobCells;
+		largeJobs = new Semaphore(maxLargeJobs, true);
+		controllers = new ArrayBlockingQueue<>(maxPooledControllers);
+	}
+
+	/**
+	 * Submits a job that creates, generates and solves a {@link Maze}.
+	 * @param request the job to run.
+	 * @return a {@link CompletableFuture} that is completed with the result of the job, or exceptionally
+	 * with an {@link IllegalArgumentException} if the size or an algorithm of the request is invalid.
+	 */
+	public CompletableFuture<GenerateSolveResult> submit(GenerateSolveRequest request) {
+		return CompletableFuture.supplyAsync(() -> run(request), executor);
+	}
+
+	/**
+	 * Stops accepting new jobs. Jobs that have already been submitted still run to completion.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private GenerateSolveResult run(GenerateSolveRequest request) {
+		boolean large = request.getCellCount() > largeJobCells;
+		if (large) {
+			try {
+				largeJobs.acquire();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new CompletionException(e);
+			}
+		}
+		MazeController mazeController = controllers.poll();
+		if (mazeController == null) {
+			mazeController = new MazeController();
+		}
+		try {
+			Maze maze = mazeController.createMaze(request.getWidth(), request.getHeight());
+			mazeController.generateMaze(request.getGeneratorAlgorithm());
+			mazeController.solveMaze(request.getSolverAlgorithm());
+			return new GenerateSolveResult(maze, mazeController.getGeneratorName(),
+					mazeController.getSolverName(), mazeController.getGenerationTime(),
+					mazeController.getSolvingTime());
+		}
+		finally {
+			mazeController.setMaze(null);
+			// A full pool drops the controller.
+			controllers.offer(mazeController);
+			if (large) {
+				largeJobs.release();
+			}
+		}
+	}
+
+	int getPooledControllerCount() {
+		return controllers.size();
+	}
+
+	int getAvailableLargeJobPermits() {
+		return largeJobs.availablePermits();
+	}
+
+	/**
+	 * Returns an {@link ExecutorService} that starts a new virtual thread for each task when the running
+	 * JVM supports virtual threads, and a cached pool of daemon threads otherwise.
+	 * @return an {@link ExecutorService} for many short, independent tasks.
+	 */
+	static ExecutorService newTaskExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		}
+		catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "algomaze-job");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+}
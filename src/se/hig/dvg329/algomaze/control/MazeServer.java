@@ -0,0 +1,315 @@
+package se.hig.dvg329.algomaze.control;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.storage.InMemoryMazeDAO;
+import se.hig.dvg329.algomaze.storage.MazeDAO;
+import se.hig.dvg329.algomaze.storage.TiledMazeFile;
+
+/**
+ * The {@code MazeServer} class serves {@link Maze}s over HTTP on the loopback interface with the HTTP
+ * server of the JDK. Every request is handled on its own task of {@link MazeJobExecutor#newTaskExecutor()},
+ * i.e. on a virtual thread where the JVM supports them. Generated {@link Maze}s are kept in a
+ * {@link MazeDAO} by their ids, by default an {@link InMemoryMazeDAO} that holds the
+ * {@link #DEFAULT_CAPACITY} most recently used {@link Maze}s. Every load from the {@link MazeDAO} must
+ * return a new {@link Maze}, so a stored {@link Maze} never changes and is never shared between requests.
+ * All operations take {@code GET} requests:
+ * <ul>
+ * <li>{@code /generate?width=W&height=H[&algorithm=A][&seed=S]} generates a {@link Maze}, Prim's
+ * algorithm by default. A request with a seed is answered from an LRU cache of the ids of the
+ * {@link Maze}s generated for each width, height, seed and algorithm, so repeating it returns the same
+ * {@link Maze} without generating it again, unless the {@link MazeDAO} has removed it since. Two identical
+ * requests that miss the cache at the same time may both generate it, and the last one is cached.</li>
+ * <li>{@code /solve?id=ID[&algorithm=A]} returns a solved copy of a stored {@link Maze}, with Dijkstra's
+ * algorithm by default. The stored {@link Maze} is left unsolved.</li>
+ * <li>{@code /mazes/ID} returns a stored {@link Maze}.</li>
+ * </ul>
+ * Each operation answers with the {@link Maze} and its id in the {@code Maze-Id} header. The body is the
+ * text of {@link Maze#writeTo(Appendable)}, streamed row by row to the response, or with
+ * {@code format=binary} four big-endian {@code int}s (width, height and the indices {@code y * width + x}
+ * of the start and the end) followed by one byte per {@link Cell} in row-major order, whose low four bits
+ * are its open walls as in {@link TiledMazeFile} and whose high bits are the ordinal of its value.
+ * <p>
+ * Invalid parameters are answered with status 400 and unknown ids with status 404.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class MazeServer {
+
+	public static final int DEFAULT_CACHE_SIZE = 64;
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int IO_BUFFER_BYTES = 1 << 16;
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final MazeDAO mazeDAO;
+	private final Map<CacheKey, UUID> cache;
+
+	/**
+	 * Constructs a {@code MazeServer} that keeps at most {@link #DEFAULT_CAPACITY} {@link Maze}s in memory.
+	 * @param port the port to listen on, or zero for any free port.
+	 * @param cacheSize the largest number of seeded {@link Maze}s to cache.
+	 * @throws IOException if the server cannot listen on the port.
+	 */
+	MazeServer(int port, int cacheSize) throws IOException {
+		this(port, cacheSize, new InMemoryMazeDAO(DEFAULT_CAPACITY));
+	}
+
+	/**
+	 * Constructs a {@code MazeServer}.
+	 * @param port the port to listen on, or zero for any free port.
+	 * @param cacheSize the largest number of seeded {@link Maze}s to cache.
+	 * @param mazeDAO where to store and load {@link Maze}s by their ids, which returns a new {@link Maze}
+	 * from every load and bounds the number of {@link Maze}s it keeps.
+	 * @throws IOException if the server cannot listen on the port.
+	 * @throws IllegalArgumentException if the cache size is smaller than one.
+	 */
+	MazeServer(int port, int cacheSize, MazeDAO mazeDAO) throws IOException, IllegalArgumentException {
+		if (cacheSize < 1) {
+			throw new IllegalArgumentException("The cache must hold at least one maze.");
+		}
+		this.mazeDAO = mazeDAO;
+		cache = new LinkedHashMap<CacheKey, UUID>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 4390861577436165421L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CacheKey, UUID> eldest) {
+				return size() > cacheSize;
+			}
+		};
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		executor = MazeJobExecutor.newTaskExecutor();
+		server.setExecutor(executor);
+		server.createContext("/generate", handler(this::generate));
+		server.createContext("/solve", handler(this::solve));
+		server.createContext("/mazes/", handler(this::fetch));
+	}
+
+	void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops the server, waiting at most a second for the requests being handled.
+	 */
+	void stop() {
+		server.stop(1);
+		executor.shutdown();
+	}
+
+	int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	private void generate(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+		int width = Integer.parseInt(required(parameters, "width"));
+		int height = Integer.parseInt(required(parameters, "height"));
+		String algorithm = parameters.getOrDefault("algorithm", "Prim");
+		String seed = parameters.get("seed");
+		CacheKey key = seed == null ? null : new CacheKey(width, height, Long.parseLong(seed), algorithm);
+		Maze maze = null;
+		if (key != null) {
+			UUID id;
+			synchronized (cache) {
+				id = cache.get(key);
+			}
+			if (id != null) {
+				maze = mazeDAO.load(id);
+			}
+		}
+		if (maze == null) {
+			MazeController mazeController = new MazeController();
+			maze = mazeController.createMaze(width, height);
+			mazeController.generateMaze(algorithm, key != null ? key.seed : ThreadLocalRandom.current().nextLong());
+			mazeDAO.store(maze);
+			if (key != null) {
+				synchronized (cache) {
+					cache.put(key, maze.getId());
+				}
+			}
+		}
+		send(exchange, maze, parameters);
+	}
+
+	private void solve(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+		Maze maze = load(exchange, required(parameters, "id"));
+		if (maze != null) {
+			// The loaded maze is a copy of its own, so the stored maze stays unsolved.
+			MazeController mazeController = new MazeController();
+			mazeController.setMaze(maze);
+			mazeController.solveMaze(parameters.getOrDefault("algorithm", "Dijkstra"));
+			send(exchange, maze, parameters);
+		}
+	}
+
+	private void fetch(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		Maze maze = load(exchange, path.substring(path.lastIndexOf('/') + 1));
+		if (maze != null) {
+			send(exchange, maze, parameters);
+		}
+	}
+
+	/**
+	 * Loads a {@link Maze}, answering with status 404 if there is none with the id.
+	 * @return the {@link Maze}, or null if it was not found.
+	 */
+	private Maze load(HttpExchange exchange, String id) throws IOException {
+		Maze maze = mazeDAO.load(UUID.fromString(id));
+		if (maze == null) {
+			sendError(exchange, 404, "No maze with id " + id + ".");
+		}
+		return maze;
+	}
+
+	private static void send(HttpExchange exchange, Maze maze, Map<String, String> parameters) throws IOException {
+		String format = parameters.getOrDefault("format", "ascii");
+		if (!format.equals("ascii") && !format.equals("binary")) {
+			throw new IllegalArgumentException("Unknown format " + format + ".");
+		}
+		exchange.getResponseHeaders().set("Maze-Id", maze.getId().toString());
+		OutputStream body = exchange.getResponseBody();
+		if (format.equals("binary")) {
+			exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+			exchange.sendResponseHeaders(200, 4 * Integer.BYTES + (long) maze.getWidth() * maze.getHeight());
+			writeBinary(maze, new DataOutputStream(new BufferedOutputStream(body, IO_BUFFER_BYTES)));
+		}
+		else {
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+			// A length of zero streams the body in chunks as it is written.
+			exchange.sendResponseHeaders(200, 0);
+			Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.US_ASCII), IO_BUFFER_BYTES);
+			maze.writeTo(writer);
+			writer.flush();
+		}
+	}
+
+	private static void writeBinary(Maze maze, DataOutputStream out) throws IOException {
+		int width = maze.getWidth();
+		out.writeInt(width);
+		out.writeInt(maze.getHeight());
+		out.writeInt(maze.getStart().getY() * width + maze.getStart().getX());
+		out.writeInt(maze.getEnd().getY() * width + maze.getEnd().getX());
+		for (int y = 0; y < maze.getHeight(); y++) {
+			for (int x = 0; x < width; x++) {
+				Cell cell = maze.getCell(x, y);
+				out.writeByte(TiledMazeFile.wallsOf(cell) | (cell.getValue().ordinal() << 4));
+			}
+		}
+		out.flush();
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		byte[] bytes = message.getBytes(StandardCharsets.US_ASCII);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+		exchange.sendResponseHeaders(status, bytes.length);
+		exchange.getResponseBody().write(bytes);
+	}
+
+	private static String required(Map<String, String> parameters, String name) throws IllegalArgumentException {
+		String value = parameters.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("The parameter " + name + " is missing.");
+		}
+		return value;
+	}
+
+	private static Map<String, String> parse(String query) throws UnsupportedEncodingException {
+		Map<String, String> parameters = new HashMap<>();
+		if (query != null) {
+			for (String pair : query.split("&")) {
+				int equals = pair.indexOf('=');
+				if (equals > 0) {
+					parameters.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"),
+							URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+				}
+			}
+		}
+		return parameters;
+	}
+
+	/**
+	 * Wraps an operation in a handler that only accepts {@code GET}, parses the query and answers
+	 * invalid parameters with status 400.
+	 */
+	private static HttpHandler handler(Operation operation) {
+		return exchange -> {
+			try {
+				if (!"GET".equals(exchange.getRequestMethod())) {
+					exchange.getResponseHeaders().set("Allow", "GET");
+					sendError(exchange, 405, "Only GET is supported.");
+					return;
+				}
+				try {
+					operation.handle(exchange, parse(exchange.getRequestURI().getRawQuery()));
+				}
+				catch (IllegalArgumentException e) {
+					sendError(exchange, 400, e.getMessage());
+				}
+			}
+			finally {
+				exchange.close();
+			}
+		};
+	}
+
+	private interface Operation {
+
+		void handle(HttpExchange exchange, Map<String, String> parameters) throws IOException;
+	}
+
+	private static final class CacheKey {
+
+		private final int width, height;
+		private final long seed;
+		private final String algorithm;
+
+		CacheKey(int width, int height, long seed, String algorithm) {
+			this.width = width;
+			this.height = height;
+			this.seed = seed;
+			this.algorithm = algorithm;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey key = (CacheKey) other;
+			return width == key.width && height == key.height && seed == key.seed && algorithm.equals(key.algorithm);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(width, height, seed, algorithm);
+		}
+	}
+}
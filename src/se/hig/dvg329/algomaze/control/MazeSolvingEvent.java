@@ -0,0 +1,55 @@
+package se.hig.dvg329.algomaze.control;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event covering one call to {@link MazeController#solveMaze(String)}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+@Name("se.hig.dvg329.algomaze.MazeSolving")
+@Label("Maze Solving")
+@Category({ "AlgoMaze", "Maze" })
+@Description("Solving of a maze by a MazeSolver")
+class MazeSolvingEvent extends jdk.jfr.Event {
+
+	@Label("Maze Id")
+	String mazeId;
+
+	@Label("Width")
+	int width;
+
+	@Label("Height")
+	int height;
+
+	@Label("Algorithm")
+	String algorithm;
+
+	@Label("Visited Cells")
+	long visitedCells;
+
+	@Label("Enqueue Operations")
+	long enqueueCount;
+
+	@Label("DequeueMin Operations")
+	long dequeueCount;
+
+	@Label("DecreaseKey Operations")
+	long decreaseKeyCount;
+
+	@Label("Observer Time")
+	@Description("Part of the duration spent in registered observers")
+	@Timespan(Timespan.NANOSECONDS)
+	long observerTime;
+
+	@Label("Allocated")
+	@Description("Bytes allocated by the solving thread")
+	@DataAmount
+	long allocated;
+}
@@ -0,0 +1,32 @@
+package se.hig.dvg329.algomaze.control;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event covering one callback to an {@link java.util.Observer} registered
+ * through {@link MazeController#registerObserver(java.util.Observer)}. Only callbacks slower than
+ * the threshold, one millisecond by default, are recorded.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+@Name("se.hig.dvg329.algomaze.ObserverCallback")
+@Label("Observer Callback")
+@Category({ "AlgoMaze", "Maze" })
+@Description("A slow callback to an observer of the cells of a maze")
+@Threshold("1 ms")
+class ObserverCallbackEvent extends jdk.jfr.Event {
+
+	@Label("Observer")
+	String observer;
+
+	@Label("X")
+	int x;
+
+	@Label("Y")
+	int y;
+}
@@ -29,4 +29,13 @@ class Timer {
 		return executionTime;
 	}
 	
+	/**
+	 * Returns the time elapsed between the last calls to {@link Timer#startTimer()} and
+	 * {@link Timer#endTimer()} in nanoseconds.
+	 * @return the elapsed time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return endTime - startTime;
+	}
+	
 }
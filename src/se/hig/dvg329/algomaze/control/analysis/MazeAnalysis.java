@@ -0,0 +1,114 @@
+package se.hig.dvg329.algomaze.control.analysis;
+
+import java.util.Locale;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code MazeAnalysis} class holds the metrics a {@link MazeAnalyzer} computed for a {@link Maze}, which
+ * tell how hard it is to solve. The degree of a {@link Cell} is the number of passages that lead from it to
+ * its neighbours: a dead end has one, a corridor two and a junction three or four. Openings in the outer wall
+ * are not counted.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class MazeAnalysis {
+
+	private final long cells, solutionLength;
+	private final long[] degrees;
+	private final int longestCorridor;
+
+	MazeAnalysis(long cells, long[] degrees, int longestCorridor, long solutionLength) {
+		this.cells = cells;
+		this.degrees = degrees;
+		this.longestCorridor = longestCorridor;
+		this.solutionLength = solutionLength;
+	}
+
+	public long getCells() {
+		return cells;
+	}
+
+	/**
+	 * Returns the number of {@link Cell}s of a degree.
+	 * @param degree the number of passages, between zero and four.
+	 * @return the number of {@link Cell}s with that many passages.
+	 * @throws IllegalArgumentException if the degree is not between zero and four.
+	 */
+	public long getDegreeCount(int degree) throws IllegalArgumentException {
+		if (degree < 0 || degree >= degrees.length) {
+			throw new IllegalArgumentException("A cell has between zero and four passages.");
+		}
+		return degrees[degree];
+	}
+
+	public long getDeadEnds() {
+		return degrees[1];
+	}
+
+	public long getCorridors() {
+		return degrees[2];
+	}
+
+	public long getJunctions() {
+		return degrees[3] + degrees[4];
+	}
+
+	/**
+	 * Returns the number of {@link Cell}s in the longest straight corridor, i.e. the longest run of
+	 * {@link Cell}s in one row or column joined by passages.
+	 * @return the length of the longest straight corridor in {@link Cell}s.
+	 */
+	public int getLongestCorridor() {
+		return longestCorridor;
+	}
+
+	/**
+	 * Returns the river factor, the share of the {@link Cell}s that are corridors. A {@link Maze} with a
+	 * high river factor has long winding passages that seldom branch, while one with a low river factor
+	 * has many short dead ends.
+	 * @return the river factor between zero and one.
+	 */
+	public double getRiverFactor() {
+		return (double) degrees[2] / cells;
+	}
+
+	/**
+	 * Returns the average number of new ways to choose between at a junction, i.e. its degree less the
+	 * passage it is entered through.
+	 * @return the average branching of the junctions, or zero if there are none.
+	 */
+	public double getAverageBranching() {
+		long junctions = getJunctions();
+		return junctions == 0 ? 0 : (double) (2 * degrees[3] + 3 * degrees[4]) / junctions;
+	}
+
+	/**
+	 * Returns the length of the solution.
+	 * @return the number of {@link Cell}s marked {@link CellValue#SOLUTION}, or zero if the {@link Maze}
+	 * has not been solved.
+	 */
+	public long getSolutionLength() {
+		return solutionLength;
+	}
+
+	/**
+	 * Returns the metrics as lines that may be appended to the results header of a {@link Maze}.
+	 * @return the metrics, one per line.
+	 */
+	@Override
+	public String toString() {
+		return "Dead ends: " + getDeadEnds() + "\n"
+				+ "Corridors: " + getCorridors() + "\n"
+				+ "Junctions: " + getJunctions() + "\n"
+				+ "Longest corridor: " + longestCorridor + "\n"
+				+ "River factor: " + String.format(Locale.ROOT, "%.3f", getRiverFactor()) + "\n"
+				+ "Solution length: " + solutionLength + "\n"
+				+ "Degrees 0/1/2/3/4: " + degrees[0] + " / " + degrees[1] + " / " + degrees[2] + " / " + degrees[3]
+						+ " / " + degrees[4] + "\n"
+				+ "Average branching: " + String.format(Locale.ROOT, "%.3f", getAverageBranching()) + "\n";
+	}
+}
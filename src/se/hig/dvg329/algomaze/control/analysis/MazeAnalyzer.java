@@ -0,0 +1,153 @@
+package se.hig.dvg329.algomaze.control.analysis;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code MazeAnalyzer} class computes a {@link MazeAnalysis} of a {@link Maze} in one pass over its
+ * {@link Cell}s. Like the {@link se.hig.dvg329.algomaze.control.validation.PerfectMazeValidator}, the
+ * {@link Maze} is split into stripes of rows that are analysed in parallel, and every {@link Cell} is read
+ * once by the stripe that owns it. The counts of the stripes are added up afterwards. A vertical corridor
+ * may run across several stripes, so each stripe also returns the length of the corridor of every column
+ * that touches its first and its last row, and these are joined in the order of the stripes.
+ * <p>
+ * Besides the result, a stripe holds two {@code int}s per column, so the analysis needs about
+ * {@code 8 * width} bytes per stripe.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class MazeAnalyzer {
+
+	private static final int STRIPES_PER_THREAD = 4;
+
+	private final int stripes;
+
+	/**
+	 * Constructs a {@code MazeAnalyzer} that uses a few stripes per thread of the common
+	 * {@link ForkJoinPool}.
+	 */
+	public MazeAnalyzer() {
+		this(ForkJoinPool.getCommonPoolParallelism() * STRIPES_PER_THREAD);
+	}
+
+	/**
+	 * Constructs a {@code MazeAnalyzer}.
+	 * @param stripes the largest number of stripes to split a {@link Maze} into.
+	 * @throws IllegalArgumentException if stripes is smaller than one.
+	 */
+	public MazeAnalyzer(int stripes) throws IllegalArgumentException {
+		if (stripes < 1) {
+			throw new IllegalArgumentException("A maze must be analysed in at least one stripe.");
+		}
+		this.stripes = stripes;
+	}
+
+	/**
+	 * Analyses a {@link Maze}.
+	 * @param maze the {@link Maze} to analyse.
+	 * @return the metrics of the {@link Maze}.
+	 */
+	public MazeAnalysis analyze(Maze maze) {
+		int width = maze.getWidth();
+		int height = maze.getHeight();
+		int rowsPerStripe = (height + stripes - 1) / stripes;
+		int stripeCount = (height + rowsPerStripe - 1) / rowsPerStripe;
+
+		Stripe[] results = IntStream.range(0, stripeCount).parallel()
+				.mapToObj(stripe -> analyzeStripe(maze, stripe * rowsPerStripe, Math.min(height, (stripe + 1) * rowsPerStripe)))
+				.toArray(Stripe[]::new);
+
+		long[] degrees = new long[5];
+		long solutionLength = 0;
+		int longestCorridor = 0;
+		// The length of the vertical corridor of every column that reaches the last row joined so far.
+		int[] open = new int[width];
+		for (Stripe stripe : results) {
+			for (int degree = 0; degree < degrees.length; degree++) {
+				degrees[degree] += stripe.degrees[degree];
+			}
+			solutionLength += stripe.solutionLength;
+			longestCorridor = Math.max(longestCorridor, stripe.longestCorridor);
+			for (int x = 0; x < width; x++) {
+				int top = stripe.top[x];
+				if (top > 0) {
+					// The corridor continues from the previous stripe.
+					int joined = open[x] + top;
+					longestCorridor = Math.max(longestCorridor, joined);
+					open[x] = top == stripe.rows ? joined : stripe.bottom[x];
+				}
+				else {
+					open[x] = stripe.bottom[x];
+				}
+			}
+		}
+		return new MazeAnalysis((long) width * height, degrees, longestCorridor, solutionLength);
+	}
+
+	private static Stripe analyzeStripe(Maze maze, int firstRow, int endRow) {
+		int width = maze.getWidth();
+		int height = maze.getHeight();
+		Stripe stripe = new Stripe(width, endRow - firstRow);
+		// The length of the vertical corridor of every column that reaches the current row.
+		int[] vertical = stripe.bottom;
+		for (int y = firstRow; y < endRow; y++) {
+			int horizontal = 0;
+			for (int x = 0; x < width; x++) {
+				Cell cell = maze.getCell(x, y);
+				boolean north = y > 0 && cell.hasNorth();
+				boolean west = x > 0 && cell.hasWest();
+				boolean south = y < height - 1 && cell.hasSouth();
+				boolean east = x < width - 1 && cell.hasEast();
+				stripe.degrees[(north ? 1 : 0) + (west ? 1 : 0) + (south ? 1 : 0) + (east ? 1 : 0)]++;
+				if (cell.getValue() == CellValue.SOLUTION) {
+					stripe.solutionLength++;
+				}
+
+				horizontal = west ? horizontal + 1 : 1;
+				stripe.longestCorridor = Math.max(stripe.longestCorridor, horizontal);
+				if (y == firstRow) {
+					vertical[x] = 1;
+					// The length of a corridor that enters from the previous stripe is only known once
+					// the stripes are joined.
+					stripe.top[x] = north ? 1 : 0;
+				}
+				else if (north) {
+					vertical[x]++;
+					if (stripe.top[x] == y - firstRow) {
+						stripe.top[x]++;
+					}
+				}
+				else {
+					vertical[x] = 1;
+				}
+				stripe.longestCorridor = Math.max(stripe.longestCorridor, vertical[x]);
+			}
+		}
+		return stripe;
+	}
+
+	/**
+	 * The counts of one stripe. For each column, {@code top} is the length of the corridor that runs down
+	 * from the first row if it is open to the previous stripe, otherwise zero, and {@code bottom} is the
+	 * length of the corridor that runs up from the last row.
+	 */
+	private static final class Stripe {
+
+		private final int rows;
+		private final long[] degrees = new long[5];
+		private final int[] top, bottom;
+		private long solutionLength;
+		private int longestCorridor;
+
+		Stripe(int width, int rows) {
+			this.rows = rows;
+			top = new int[width];
+			bottom = new int[width];
+		}
+	}
+}
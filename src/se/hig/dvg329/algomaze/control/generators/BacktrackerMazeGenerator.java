@@ -0,0 +1,121 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code BacktrackerMazeGenerator} class implements the {@link MazeGenerator} interface. It generates
+ * a perfect random maze with the recursive backtracker, a randomised depth-first search: from the current
+ * {@link Cell} it tears down the wall to a random unvisited neighbour and moves on to it, and when there
+ * is none it backs up to the last {@link Cell} that still has one. This gives long winding corridors with
+ * few dead ends.
+ * <p>
+ * The depth of the search is as large as the number of {@link Cell}s in the worst case, so instead of
+ * recursing it keeps the path in an explicit stack of {@code int} indices {@code y * width + x}, which
+ * grows as needed. The visited {@link Cell}s are kept in a bitset of {@code long}s. No objects are
+ * allocated per {@link Cell}, and the values of the {@link Cell}s are left untouched, so observers are
+ * only notified of the walls that are torn down. In total the generator needs at most about 4.1 bytes
+ * per {@link Cell}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class BacktrackerMazeGenerator implements MazeGenerator {
+
+	private static final int INITIAL_STACK_SIZE = 1024;
+
+	private int[] stack = new int[INITIAL_STACK_SIZE];
+	private long[] visited = new long[0];
+	private final int[] directions = new int[4];
+
+	/**
+	 * Turns an empty {@link Maze} object into a perfect random maze using the recursive backtracker.
+	 * @param maze an empty {@link Maze} object.
+	 * @param random the source of the random choices.
+	 */
+	@Override
+	public void generate(Maze maze, Random random) {
+		int width = maze.getWidth();
+		int height = maze.getHeight();
+		int cells = width * height;
+		int words = (cells + 63) >>> 6;
+		if (visited.length < words) {
+			visited = new long[words];
+		}
+		else {
+			Arrays.fill(visited, 0, words, 0);
+		}
+
+		int first = random.nextInt(height) * width + random.nextInt(width);
+		visited[first >>> 6] |= 1L << first;
+		stack[0] = first;
+		int size = 1;
+		while (size > 0) {
+			int index = stack[size - 1];
+			int x = index % width;
+			int y = index / width;
+			int count = 0;
+			if (y > 0 && !isVisited(index - width)) {
+				directions[count++] = 0;
+			}
+			if (x > 0 && !isVisited(index - 1)) {
+				directions[count++] = 1;
+			}
+			if (y < height - 1 && !isVisited(index + width)) {
+				directions[count++] = 2;
+			}
+			if (x < width - 1 && !isVisited(index + 1)) {
+				directions[count++] = 3;
+			}
+			if (count == 0) {
+				size--;
+				continue;
+			}
+			Cell cell = maze.getCell(x, y);
+			int next;
+			switch (directions[random.nextInt(count)]) {
+			case 0:
+				next = index - width;
+				cell.setNorth(true);
+				maze.getCell(x, y - 1).setSouth(true);
+				break;
+			case 1:
+				next = index - 1;
+				cell.setWest(true);
+				maze.getCell(x - 1, y).setEast(true);
+				break;
+			case 2:
+				next = index + width;
+				cell.setSouth(true);
+				maze.getCell(x, y + 1).setNorth(true);
+				break;
+			default:
+				next = index + 1;
+				cell.setEast(true);
+				maze.getCell(x + 1, y).setWest(true);
+				break;
+			}
+			visited[next >>> 6] |= 1L << next;
+			if (size == stack.length) {
+				stack = Arrays.copyOf(stack, (int) Math.min(cells, 2L * size));
+			}
+			stack[size++] = next;
+		}
+	}
+
+	private boolean isVisited(int index) {
+		return (visited[index >>> 6] & 1L << index) != 0;
+	}
+
+	/**
+	 * Returns the name of the algorithm used by this MazeGenerator.
+	 * @return String the name of the algorithm used by this MazeGenerator.
+	 */
+	@Override
+	public String toString() {
+		return "Recursive backtracker";
+	}
+}
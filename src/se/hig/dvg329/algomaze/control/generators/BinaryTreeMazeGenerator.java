@@ -0,0 +1,55 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import se.hig.dvg329.algomaze.model.Cell;
+
+/**
+ * The {@code BinaryTreeMazeGenerator} class generates a perfect random maze with the binary tree
+ * algorithm: every {@link Cell} carves a passage either north or east, at random, except along the top
+ * row, which can only go east, and the east column, which can only go north. The mazes have a long
+ * corridor along the top and the east side, and every path leads north-east, so they are easy to solve,
+ * but the algorithm is as fast as a maze can be made. The rows are decided in parallel, and
+ * carved in parallel too unless the {@link Cell}s have observers, see {@link RowParallelMazeGenerator}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class BinaryTreeMazeGenerator extends RowParallelMazeGenerator {
+
+	/**
+	 * Constructs a {@code BinaryTreeMazeGenerator} that runs on the common {@link ForkJoinPool}.
+	 */
+	BinaryTreeMazeGenerator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs a {@code BinaryTreeMazeGenerator}.
+	 * @param pool the pool to generate the rows on.
+	 */
+	BinaryTreeMazeGenerator(ForkJoinPool pool) {
+		super(pool);
+	}
+
+	@Override
+	void generateRow(byte[] passages, int offset, int width, int y, SplittableRandom random) {
+		int last = width - 1;
+		for (int x = 0; x < last; x++) {
+			passages[offset + x] = y > 0 && random.nextBoolean() ? NORTH : EAST;
+		}
+		if (y > 0) {
+			passages[offset + last] = NORTH;
+		}
+	}
+
+	/**
+	 * Returns the name of the algorithm used by this MazeGenerator.
+	 * @return String the name of the algorithm used by this MazeGenerator.
+	 */
+	@Override
+	public String toString() {
+		return "Binary tree algorithm";
+	}
+}
@@ -0,0 +1,177 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code BraidMazeGenerator} class adds loops to the perfect maze of another {@link MazeGenerator},
+ * so that there is more than one path between most cells and shortest path solvers have something to
+ * choose between. It runs in two optional stages after the other generator:
+ * <ul>
+ * <li>A fraction of the dead ends, picked at random, are connected to a neighbour. A neighbour that is
+ * a dead end itself is preferred, so one passage removes two dead ends.</li>
+ * <li>A number of random inner walls, given as a fraction of the number of cells, are torn down.</li>
+ * </ul>
+ * The result is still connected and its walls are consistent, but it is no longer perfect.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class BraidMazeGenerator implements MazeGenerator {
+
+	private static final int NORTH = 0, WEST = 1, SOUTH = 2, EAST = 3;
+
+	private final MazeGenerator base;
+	private final double deadEndFraction, wallFraction;
+
+	/**
+	 * Constructs a {@code BraidMazeGenerator}.
+	 * @param base the generator of the perfect maze.
+	 * @param deadEndFraction the fraction of the dead ends to remove, from zero to one.
+	 * @param wallFraction the number of random inner walls to remove, as a fraction of the number of
+	 * cells. Must not be negative.
+	 * @throws IllegalArgumentException if a fraction is out of range.
+	 */
+	public BraidMazeGenerator(MazeGenerator base, double deadEndFraction, double wallFraction)
+			throws IllegalArgumentException {
+		if (!(deadEndFraction >= 0 && deadEndFraction <= 1)) {
+			throw new IllegalArgumentException("The fraction of dead ends must be between 0 and 1.");
+		}
+		if (!(wallFraction >= 0)) {
+			throw new IllegalArgumentException("The fraction of walls must not be negative.");
+		}
+		this.base = base;
+		this.deadEndFraction = deadEndFraction;
+		this.wallFraction = wallFraction;
+	}
+
+	/**
+	 * Generates a perfect maze with the base generator and adds loops to it.
+	 * @param maze an empty {@link Maze} object.
+	 * @param random the source of the random choices.
+	 */
+	@Override
+	public void generate(Maze maze, Random random) {
+		base.generate(maze, random);
+		removeDeadEnds(maze, random);
+		removeRandomWalls(maze, random);
+	}
+
+	private void removeDeadEnds(Maze maze, Random random) {
+		List<Cell> deadEnds = new ArrayList<>();
+		for (int y = 0; y < maze.getHeight(); y++) {
+			for (int x = 0; x < maze.getWidth(); x++) {
+				if (isDeadEnd(maze.getCell(x, y))) {
+					deadEnds.add(maze.getCell(x, y));
+				}
+			}
+		}
+		Collections.shuffle(deadEnds, random);
+		int toRemove = (int) Math.round(deadEnds.size() * deadEndFraction);
+		int[] closed = new int[4];
+		for (int i = 0; i < toRemove; i++) {
+			Cell deadEnd = deadEnds.get(i);
+			// An earlier passage to this cell may already have removed it.
+			if (!isDeadEnd(deadEnd)) {
+				continue;
+			}
+			int count = 0;
+			int preferred = -1;
+			for (int direction = NORTH; direction <= EAST; direction++) {
+				Cell neighbor = neighborOf(maze, deadEnd, direction);
+				if (neighbor != null && !isOpen(deadEnd, direction)) {
+					closed[count++] = direction;
+					if (isDeadEnd(neighbor) && (preferred < 0 || random.nextBoolean())) {
+						preferred = direction;
+					}
+				}
+			}
+			if (count > 0) {
+				open(maze, deadEnd, preferred >= 0 ? preferred : closed[random.nextInt(count)]);
+			}
+		}
+	}
+
+	private void removeRandomWalls(Maze maze, Random random) {
+		long toRemove = Math.round((double) maze.getWidth() * maze.getHeight() * wallFraction);
+		long innerWalls = 2L * maze.getWidth() * maze.getHeight() - maze.getWidth() - maze.getHeight();
+		long attempts = 0;
+		// Picks walls at random and skips those already open, giving up when the maze has few walls left.
+		while (toRemove > 0 && attempts++ < 4 * innerWalls) {
+			Cell cell = maze.getCell(random.nextInt(maze.getWidth()), random.nextInt(maze.getHeight()));
+			int direction = random.nextBoolean() ? SOUTH : EAST;
+			if (neighborOf(maze, cell, direction) != null && !isOpen(cell, direction)) {
+				open(maze, cell, direction);
+				toRemove--;
+			}
+		}
+	}
+
+	private static boolean isDeadEnd(Cell cell) {
+		int open = (cell.hasNorth() ? 1 : 0) + (cell.hasWest() ? 1 : 0) + (cell.hasSouth() ? 1 : 0)
+				+ (cell.hasEast() ? 1 : 0);
+		return open == 1;
+	}
+
+	private static boolean isOpen(Cell cell, int direction) {
+		switch (direction) {
+		case NORTH:
+			return cell.hasNorth();
+		case WEST:
+			return cell.hasWest();
+		case SOUTH:
+			return cell.hasSouth();
+		default:
+			return cell.hasEast();
+		}
+	}
+
+	private static Cell neighborOf(Maze maze, Cell cell, int direction) {
+		switch (direction) {
+		case NORTH:
+			return maze.getNorthNeighborOf(cell);
+		case WEST:
+			return maze.getWestNeighborOf(cell);
+		case SOUTH:
+			return maze.getSouthNeighborOf(cell);
+		default:
+			return maze.getEastNeighborOf(cell);
+		}
+	}
+
+	private static void open(Maze maze, Cell cell, int direction) {
+		Cell neighbor = neighborOf(maze, cell, direction);
+		switch (direction) {
+		case NORTH:
+			cell.setNorth(true);
+			neighbor.setSouth(true);
+			break;
+		case WEST:
+			cell.setWest(true);
+			neighbor.setEast(true);
+			break;
+		case SOUTH:
+			cell.setSouth(true);
+			neighbor.setNorth(true);
+			break;
+		default:
+			cell.setEast(true);
+			neighbor.setWest(true);
+			break;
+		}
+	}
+
+	/**
+	 * Returns the name of the algorithm used by this MazeGenerator.
+	 *
+	 * @return String the name of the algorithm used by this MazeGenerator.
+	 */
+	public String toString() {
+		return base + " braided";
+	}
+}
@@ -1,5 +1,8 @@
 package se.hig.dvg329.algomaze.control.generators;
 
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
 import se.hig.dvg329.algomaze.model.Maze;
 
 /**
@@ -15,5 +18,17 @@ public interface MazeGenerator {
 	 * Turns an empty {@link Maze} object into a perfect random maze.  
 	 * @param maze an empty {@link Maze} object.
 	 */
-	void generate(Maze maze);
+	default void generate(Maze maze) {
+		generate(maze, ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Turns an empty {@link Maze} object into a perfect random maze, drawing every random choice from
+	 * the provided {@link Random}. Two runs on {@link Maze}s of the same size with {@link Random}s
+	 * created from the same seed generate the same maze.
+	 * @param maze an empty {@link Maze} object.
+	 * @param random the source of the random choices.
+	 * @since 1.1.0
+	 */
+	void generate(Maze maze, Random random);
 }
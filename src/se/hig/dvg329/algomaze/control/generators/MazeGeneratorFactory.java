@@ -1,24 +1,58 @@
 package se.hig.dvg329.algomaze.control.generators;
 
+import se.hig.dvg329.algomaze.control.registry.AlgorithmRegistry;
+
 /**
- * The {@code MazeGeneratorFactory} class generates {@link MazeGenerator} objects.
+ * The {@code MazeGeneratorFactory} class generates {@link MazeGenerator} objects. The generators are
+ * found as {@link MazeGeneratorProvider}s with a {@link java.util.ServiceLoader} once, when the class
+ * is loaded.
  * @author Thomas Lundgren
  * @version 1.0.0
  * @since 1.0.0
  */
 public class MazeGeneratorFactory {
 	
+	/**
+	 * The fraction of dead ends removed by the "Braid" generator.
+	 */
+	public static final double BRAID_DEAD_END_FRACTION = 0.5;
+	
+	private static final AlgorithmRegistry<MazeGenerator> REGISTRY = AlgorithmRegistry.load(MazeGeneratorProvider.class);
+	
 	/**
 	 * Creates a {@link MazeGenerator} object.
-	 * @param algorithm The algorithm to use.
-	 * @return the created {@link MazeGenerator}.
+	 * @param algorithm The algorithm to use: "Prim", "Backtracker" for the recursive backtracker, whose
+	 * mazes have long corridors, "Wilson" for Wilson's algorithm, which picks every maze alike,
+	 * "WilsonParallel" for Wilson's algorithm with concurrent walkers, whose mazes do not only depend on the
+	 * seed, "Sidewinder" and "BinaryTree" for the fastest generators, which carve the rows in parallel,
+	 * "Braid" for a maze by Prim's algorithm where
+	 * {@link #BRAID_DEAD_END_FRACTION} of the dead ends are removed to create loops, the name of another
+	 * registered {@link MazeGeneratorProvider}, or {@link AlgorithmRegistry#AUTO} for the fastest one.
+	 * @return the created {@link MazeGenerator}, or null if the algorithm is unknown.
 	 */
 	public MazeGenerator createGenerator(String algorithm) {
-		if (algorithm.equals("Prim")) {
-			return new PrimMazeGenerator();
-		}
-		else {
-			return null;
-		}
+		return REGISTRY.create(algorithm, 0, 0);
+	}
+	
+	/**
+	 * Creates a {@link MazeGenerator} object for a size of maze, see {@link #createGenerator(String)}.
+	 * {@link AlgorithmRegistry#AUTO} picks the fastest generator that fits in the free heap.
+	 * @param algorithm the algorithm to use.
+	 * @param width the width of the maze.
+	 * @param height the height of the maze.
+	 * @return the created {@link MazeGenerator}, or null if the algorithm is unknown.
+	 * @since 1.1.0
+	 */
+	public MazeGenerator createGenerator(String algorithm, int width, int height) {
+		return REGISTRY.create(algorithm, width, height);
+	}
+	
+	/**
+	 * Returns the registry of all known generators.
+	 * @return the registry of all known generators.
+	 * @since 1.1.0
+	 */
+	public static AlgorithmRegistry<MazeGenerator> getRegistry() {
+		return REGISTRY;
 	}
 }
@@ -0,0 +1,14 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import se.hig.dvg329.algomaze.control.registry.AlgorithmProvider;
+
+/**
+ * The service interface of {@link MazeGenerator}s. Implementations are listed in
+ * {@code META-INF/services/se.hig.dvg329.algomaze.control.generators.MazeGeneratorProvider} and found
+ * by {@link MazeGeneratorFactory}, so a generator can be added from another jar without changing
+ * the factory.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public interface MazeGeneratorProvider extends AlgorithmProvider<MazeGenerator> {}
@@ -0,0 +1,155 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import java.util.concurrent.ForkJoinPool;
+
+import se.hig.dvg329.algomaze.control.registry.AlgorithmDescriptor;
+
+/**
+ * Holds the {@link MazeGeneratorProvider}s of the generators of AlgoMaze. The time per cell is measured
+ * on a 1000 by 1000 maze without observers, and the heap per cell counts the arrays and lists that
+ * grow with the maze.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public final class MazeGeneratorProviders {
+
+	private MazeGeneratorProviders() {}
+
+	/**
+	 * Prim's algorithm, whose list of candidate cells holds at most about one reference per cell.
+	 */
+	public static final class Prim implements MazeGeneratorProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("Prim", 8, 750, false, false);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeGenerator create() {
+			return new PrimMazeGenerator();
+		}
+	}
+
+	/**
+	 * The recursive backtracker, whose stack holds at most one {@code int} per cell and whose bitset one bit.
+	 */
+	public static final class Backtracker implements MazeGeneratorProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("Backtracker", 4.125, 300, false,
+				false);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeGenerator create() {
+			return new BacktrackerMazeGenerator();
+		}
+	}
+
+	/**
+	 * Wilson's algorithm with one walker, whose state is one {@code int} per cell and whose walker remembers
+	 * the cells of its current walk.
+	 */
+	public static final class Wilson implements MazeGeneratorProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("Wilson", 8, 450, false,
+				false);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeGenerator create() {
+			return new WilsonMazeGenerator();
+		}
+	}
+
+	/**
+	 * Wilson's algorithm with one walker per thread of the common {@link ForkJoinPool},
+	 * whose mazes depend on the timing of the threads and not only on the seed. It is not marked as
+	 * parallel, and its time is the one measured on one core, since how it scales with the cores has not
+	 * been measured, so {@code auto} never picks it over "Wilson".
+	 */
+	public static final class WilsonParallel implements MazeGeneratorProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("WilsonParallel", 8,
+				450, false, false);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeGenerator create() {
+			return new WilsonMazeGenerator(ForkJoinPool.getCommonPoolParallelism(), ForkJoinPool.commonPool());
+		}
+	}
+
+	/**
+	 * The Sidewinder algorithm, which carves the rows in parallel. Only a maze with observers needs the buffer
+	 * of one byte per cell, and is carved on one thread. The cost was measured on one core.
+	 */
+	public static final class Sidewinder implements MazeGeneratorProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("Sidewinder", 1, 170,
+				true, false);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeGenerator create() {
+			return new SidewinderMazeGenerator();
+		}
+	}
+
+	/**
+	 * The binary tree algorithm, which carves the rows in parallel like "Sidewinder".
+	 */
+	public static final class BinaryTree implements MazeGeneratorProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("BinaryTree", 1, 150,
+				true, false);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeGenerator create() {
+			return new BinaryTreeMazeGenerator();
+		}
+	}
+
+	/**
+	 * Prim's algorithm where {@link MazeGeneratorFactory#BRAID_DEAD_END_FRACTION} of the dead ends are
+	 * removed, which also lists the dead ends.
+	 */
+	public static final class Braid implements MazeGeneratorProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("Braid", 12, 900, false, false);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeGenerator create() {
+			return new BraidMazeGenerator(new PrimMazeGenerator(), MazeGeneratorFactory.BRAID_DEAD_END_FRACTION, 0);
+		}
+	}
+}
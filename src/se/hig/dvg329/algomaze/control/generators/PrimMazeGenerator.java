@@ -1,7 +1,7 @@
 package se.hig.dvg329.algomaze.control.generators;
 
 import java.util.ArrayList;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Random;
 
 import se.hig.dvg329.algomaze.model.Cell;
 import se.hig.dvg329.algomaze.model.Maze;
@@ -29,18 +29,18 @@ class PrimMazeGenerator implements MazeGenerator {
 	 * {@link CellValue#CANDIDATE}.
 	 * 
 	 * @param maze An empty {@link Maze} object.
+	 * @param random the source of the random choices.
 	 */
 	@Override
-	public void generate(Maze maze) {
+	public void generate(Maze maze, Random random) {
 		this.maze = maze;
 
-		markCell(ThreadLocalRandom.current().nextInt(0, maze.getWidth()),
-				ThreadLocalRandom.current().nextInt(0, maze.getHeight()), CellValue.MARKED);
+		markCell(random.nextInt(maze.getWidth()), random.nextInt(maze.getHeight()), CellValue.MARKED);
 
 		while (!candidateCells.isEmpty()) {
-			Cell markedCell = candidateCells.remove(ThreadLocalRandom.current().nextInt(0, candidateCells.size()));
+			Cell markedCell = candidateCells.remove(random.nextInt(candidateCells.size()));
 			ArrayList<Cell> markedNeighbors = getMarkedNeighbors(markedCell);
-			Cell neighbor = markedNeighbors.remove(ThreadLocalRandom.current().nextInt(0, markedNeighbors.size()));
+			Cell neighbor = markedNeighbors.remove(random.nextInt(markedNeighbors.size()));
 
 			setDirections(markedCell, neighbor);
 
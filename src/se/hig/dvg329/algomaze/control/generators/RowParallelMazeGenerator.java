@@ -0,0 +1,113 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code RowParallelMazeGenerator} class is the base of the generators that decide every row of a
+ * {@link Maze} on its own, only carving passages east within the row and north into the row above. The
+ * rows are split among the threads of a {@link ForkJoinPool}. Every row draws its choices from its own
+ * {@link SplittableRandom}, seeded from one number drawn from the {@link Random} and the index of the row,
+ * so the generated maze depends only on the {@link Random} and not on how the rows are split.
+ * <p>
+ * If no {@link Cell} of the {@link Maze} has observers, each task carves its rows straight into the
+ * {@link Maze} without any locks: a passage north writes the south wall of a {@link Cell} in the row
+ * above, which is owned by another task, but no other task writes that wall. Otherwise the tasks record
+ * the passages of their rows in a buffer of one byte per {@link Cell}, and the buffer is carved into the
+ * {@link Maze} on the calling thread, so the observers, which need not be thread-safe, are only called
+ * from there. The buffer is kept for the next observed {@link Maze} of the same size or smaller.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+abstract class RowParallelMazeGenerator implements MazeGenerator {
+
+	/**
+	 * The bits of a buffer that mark a passage north and a passage east from a {@link Cell}.
+	 */
+	static final byte NORTH = 1, EAST = 2;
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private final ForkJoinPool pool;
+	private byte[] passages = new byte[0];
+
+	/**
+	 * Constructs a {@code RowParallelMazeGenerator}.
+	 * @param pool the pool to generate the rows on.
+	 */
+	RowParallelMazeGenerator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void generate(Maze maze, Random random) {
+		int width = maze.getWidth();
+		int height = maze.getHeight();
+		long seed = random.nextLong();
+		if (!isObserved(maze)) {
+			pool.submit(() -> IntStream.range(0, height).parallel().forEach(y -> {
+				byte[] row = new byte[width];
+				generateRow(row, 0, width, y, new SplittableRandom(seed + y * GOLDEN_GAMMA));
+				carveRow(maze, row, 0, y);
+			})).join();
+			return;
+		}
+		int cells = width * height;
+		if (passages.length < cells) {
+			passages = new byte[cells];
+		}
+		else {
+			Arrays.fill(passages, 0, cells, (byte) 0);
+		}
+		byte[] passages = this.passages;
+		pool.submit(() -> IntStream.range(0, height).parallel()
+				.forEach(y -> generateRow(passages, y * width, width, y, new SplittableRandom(seed + y * GOLDEN_GAMMA))))
+				.join();
+		for (int y = 0; y < height; y++) {
+			carveRow(maze, passages, y * width, y);
+		}
+	}
+
+	private static boolean isObserved(Maze maze) {
+		for (int y = 0; y < maze.getHeight(); y++) {
+			for (int x = 0; x < maze.getWidth(); x++) {
+				if (maze.getCell(x, y).countObservers() > 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static void carveRow(Maze maze, byte[] passages, int offset, int y) {
+		for (int x = 0; x < maze.getWidth(); x++) {
+			int passage = passages[offset + x];
+			if ((passage & NORTH) != 0) {
+				maze.getCell(x, y).setNorth(true);
+				maze.getCell(x, y - 1).setSouth(true);
+			}
+			if ((passage & EAST) != 0) {
+				maze.getCell(x, y).setEast(true);
+				maze.getCell(x + 1, y).setWest(true);
+			}
+		}
+	}
+
+	/**
+	 * Decides the passages of one row, east within the row and north into the row above, by setting the
+	 * bits {@link #NORTH} and {@link #EAST} of its {@link Cell}s in a buffer.
+	 * @param passages the buffer, where the {@link Cell} at x has the index {@code offset + x}.
+	 * @param offset the index of the first {@link Cell} of the row in the buffer.
+	 * @param width the width of the {@link Maze}.
+	 * @param y the row to decide.
+	 * @param random the source of the random choices of the row.
+	 */
+	abstract void generateRow(byte[] passages, int offset, int width, int y, SplittableRandom random);
+}
@@ -0,0 +1,60 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import se.hig.dvg329.algomaze.model.Cell;
+
+/**
+ * The {@code SidewinderMazeGenerator} class generates a perfect random maze with the Sidewinder
+ * algorithm. The top row is one corridor. Every other row is split at random into runs of
+ * {@link Cell}s joined by passages east, and each run is joined to the row above by a passage north from
+ * one random {@link Cell} of the run. The mazes have a long corridor along the top, and a path can always
+ * be found by heading north, but they are less biased than those of the binary tree algorithm. The rows
+ * are decided in parallel, and carved in parallel too unless the {@link Cell}s have observers, see
+ * {@link RowParallelMazeGenerator}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class SidewinderMazeGenerator extends RowParallelMazeGenerator {
+
+	/**
+	 * Constructs a {@code SidewinderMazeGenerator} that runs on the common {@link ForkJoinPool}.
+	 */
+	SidewinderMazeGenerator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs a {@code SidewinderMazeGenerator}.
+	 * @param pool the pool to generate the rows on.
+	 */
+	SidewinderMazeGenerator(ForkJoinPool pool) {
+		super(pool);
+	}
+
+	@Override
+	void generateRow(byte[] passages, int offset, int width, int y, SplittableRandom random) {
+		int last = width - 1;
+		int runStart = 0;
+		for (int x = 0; x <= last; x++) {
+			if (y > 0 && (x == last || random.nextBoolean())) {
+				passages[offset + random.nextInt(runStart, x + 1)] |= NORTH;
+				runStart = x + 1;
+			}
+			else if (x < last) {
+				passages[offset + x] |= EAST;
+			}
+		}
+	}
+
+	/**
+	 * Returns the name of the algorithm used by this MazeGenerator.
+	 * @return String the name of the algorithm used by this MazeGenerator.
+	 */
+	@Override
+	public String toString() {
+		return "Sidewinder algorithm";
+	}
+}
@@ -0,0 +1,112 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import java.util.stream.IntStream;
+
+/**
+ * The {@code TerrainGenerator} class generates the cost of entering each cell of a
+ * {@link se.hig.dvg329.algomaze.model.Maze} from seeded value noise, see
+ * {@link se.hig.dvg329.algomaze.model.Maze#setTerrain(short[])}. Random values are placed on a lattice
+ * with a spacing of the feature size and smoothly interpolated in between, and a few octaves with
+ * halved spacing and amplitude are added on top. This gives hills and valleys of cheap and expensive
+ * cells rather than independent costs, so the cheapest path through a {@link se.hig.dvg329.algomaze.model.Maze}
+ * with loops is not simply the shortest one.
+ * <p>
+ * The lattice values are hashed from the seed and their coordinates instead of being stored, so rows
+ * are generated in parallel and the same seed always gives the same terrain.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class TerrainGenerator {
+
+	public static final int DEFAULT_FEATURE_SIZE = 16, DEFAULT_MAX_COST = 9, DEFAULT_OCTAVES = 3;
+
+	private final int featureSize, maxCost, octaves;
+
+	/**
+	 * Constructs a {@code TerrainGenerator} with costs from one to {@link #DEFAULT_MAX_COST}.
+	 */
+	public TerrainGenerator() {
+		this(DEFAULT_FEATURE_SIZE, DEFAULT_MAX_COST, DEFAULT_OCTAVES);
+	}
+
+	/**
+	 * Constructs a {@code TerrainGenerator}.
+	 * @param featureSize the spacing, in cells, of the coarsest lattice of random values.
+	 * @param maxCost the highest cost of a cell. The lowest is always one.
+	 * @param octaves the number of layers of noise, each with half the spacing of the one before.
+	 * @throws IllegalArgumentException if the feature size or the number of octaves is smaller than one,
+	 * or if the highest cost is not between one and {@link Short#MAX_VALUE}.
+	 */
+	public TerrainGenerator(int featureSize, int maxCost, int octaves) throws IllegalArgumentException {
+		if (featureSize < 1 || octaves < 1) {
+			throw new IllegalArgumentException("The feature size and the number of octaves must be positive.");
+		}
+		if (maxCost < 1 || maxCost > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("The highest cost must be between 1 and " + Short.MAX_VALUE + ".");
+		}
+		this.featureSize = featureSize;
+		this.maxCost = maxCost;
+		this.octaves = octaves;
+	}
+
+	/**
+	 * Generates the costs of a {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @param width the width of the {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @param height the height of the {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @param seed the seed of the noise.
+	 * @return the costs in row-major order.
+	 * @throws IllegalArgumentException if the width or height is negative, or if there are more cells than
+	 * an array can hold.
+	 */
+	public short[] generate(int width, int height, long seed) throws IllegalArgumentException {
+		long cells = (long) width * height;
+		if (width < 0 || height < 0 || cells > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Cannot generate a terrain of " + width + "x" + height + " cells.");
+		}
+		short[] terrain = new short[(int) cells];
+		IntStream.range(0, height).parallel().forEach(y -> {
+			for (int x = 0; x < width; x++) {
+				int cost = 1 + (int) (noise(x, y, seed) * maxCost);
+				terrain[y * width + x] = (short) Math.min(maxCost, cost);
+			}
+		});
+		return terrain;
+	}
+
+	/**
+	 * Returns the noise at a cell, between zero (inclusive) and one (exclusive).
+	 */
+	private double noise(int x, int y, long seed) {
+		double sum = 0, amplitudes = 0, amplitude = 1;
+		for (int octave = 0; octave < octaves; octave++) {
+			int size = Math.max(1, featureSize >> octave);
+			int cellX = Math.floorDiv(x, size);
+			int cellY = Math.floorDiv(y, size);
+			double fx = smooth((double) (x - cellX * size) / size);
+			double fy = smooth((double) (y - cellY * size) / size);
+			double top = lerp(lattice(cellX, cellY, octave, seed), lattice(cellX + 1, cellY, octave, seed), fx);
+			double bottom = lerp(lattice(cellX, cellY + 1, octave, seed), lattice(cellX + 1, cellY + 1, octave, seed), fx);
+			sum += amplitude * lerp(top, bottom, fy);
+			amplitudes += amplitude;
+			amplitude /= 2;
+		}
+		return sum / amplitudes;
+	}
+
+	private static double lattice(int x, int y, int octave, long seed) {
+		long hash = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (y * 0xC2B2AE3D27D4EB4FL) ^ (octave * 0x165667B19E3779F9L);
+		hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+		hash ^= hash >>> 31;
+		return (hash >>> 11) * 0x1.0p-53;
+	}
+
+	private static double smooth(double t) {
+		return t * t * (3 - 2 * t);
+	}
+
+	private static double lerp(double a, double b, double t) {
+		return a + (b - a) * t;
+	}
+}
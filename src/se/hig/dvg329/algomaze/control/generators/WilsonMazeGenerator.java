@@ -0,0 +1,267 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code WilsonMazeGenerator} class implements the {@link MazeGenerator} interface. It generates a
+ * perfect random maze with Wilson's algorithm, which, unlike Prim's algorithm, picks every spanning tree
+ * of the {@link Maze} with the same probability. The tree starts as one random {@link Cell}. From a
+ * {@link Cell} outside the tree, a random walk is taken until it reaches the tree, remembering for every
+ * {@link Cell} the direction in which it was last left. Following these directions from the start of the
+ * walk gives the walk with its loops erased, which is added to the tree. This is repeated until every
+ * {@link Cell} is in the tree.
+ * <p>
+ * The first walks are long, since the tree is small, so several walkers take walks at the same time,
+ * each from the {@link Cell}s of its own share of the {@link Maze}. The state of every {@link Cell} is
+ * packed into one {@code int} of an {@link AtomicIntegerArray}: free, in the tree with the direction of
+ * its parent, or claimed by a walker with the direction in which that walker last left it. A walker
+ * claims every free {@link Cell} it enters with compare-and-set, so no two walks ever share a
+ * {@link Cell}. A walk that runs into a {@link Cell} claimed by another walker gives back its
+ * {@link Cell}s and is retried from the same start. A walk that reaches the tree moves the {@link Cell}s
+ * of its loop-erased path into the tree and gives back the rest. Once all walkers are done, the walls
+ * between every {@link Cell} and its parent are torn down on the calling thread, so the {@link Maze}
+ * and its observers are only touched from there.
+ * <p>
+ * With one walker the generated maze is uniform and depends only on the {@link Random}, so one walker is
+ * the default. With several walkers it depends on the timing of the threads, and the retried walks make it
+ * only close to uniform, so the same seed does not give the same maze.
+ * The state takes four bytes per {@link Cell}, and every walker remembers the {@link Cell}s it has
+ * claimed in its current walk.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class WilsonMazeGenerator implements MazeGenerator {
+
+	private static final int NORTH = 0, WEST = 1, SOUTH = 2, EAST = 3;
+	/**
+	 * The states of a {@link Cell}: free, in the tree with the direction of its parent in the lowest two
+	 * bits, the root of the tree, or claimed by walker {@code w} as {@code (w + 1) << OWNER_SHIFT} with the
+	 * direction in the lowest two bits.
+	 */
+	private static final int FREE = 0, TREE = 4, ROOT = 8, OWNER_SHIFT = 4;
+
+	private final int walkers;
+	private final ForkJoinPool pool;
+	private int width, height;
+	private AtomicIntegerArray states = new AtomicIntegerArray(0);
+
+	/**
+	 * Constructs a {@code WilsonMazeGenerator} with one walker, whose mazes only depend on the {@link Random}.
+	 */
+	WilsonMazeGenerator() {
+		this(1, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs a {@code WilsonMazeGenerator}.
+	 * @param walkers the number of walks taken at the same time.
+	 * @param pool the pool to take the walks on.
+	 * @throws IllegalArgumentException if the number of walkers is smaller than one.
+	 */
+	WilsonMazeGenerator(int walkers, ForkJoinPool pool) throws IllegalArgumentException {
+		if (walkers < 1) {
+			throw new IllegalArgumentException("A maze must be generated by at least one walker.");
+		}
+		this.walkers = walkers;
+		this.pool = pool;
+	}
+
+	/**
+	 * Turns an empty {@link Maze} object into a perfect random maze using Wilson's algorithm.
+	 * @param maze an empty {@link Maze} object.
+	 * @param random the source of the random choices.
+	 */
+	@Override
+	public void generate(Maze maze, Random random) {
+		width = maze.getWidth();
+		height = maze.getHeight();
+		int cells = width * height;
+		if (states.length() < cells) {
+			states = new AtomicIntegerArray(cells);
+		}
+		else {
+			for (int i = 0; i < cells; i++) {
+				states.set(i, FREE);
+			}
+		}
+		states.set(random.nextInt(cells), ROOT);
+		long[] seeds = new long[walkers];
+		for (int walker = 0; walker < walkers; walker++) {
+			seeds[walker] = random.nextLong();
+		}
+		if (walkers == 1) {
+			new Walker(0, seeds[0]).addToTree(0, cells);
+		}
+		else {
+			pool.submit(() -> IntStream.range(0, walkers).parallel()
+					.forEach(walker -> new Walker(walker, seeds[walker]).addToTree((int) ((long) cells * walker / walkers),
+							(int) ((long) cells * (walker + 1) / walkers))))
+					.join();
+		}
+
+		for (int index = 0; index < cells; index++) {
+			int state = states.get(index);
+			if (state != ROOT) {
+				openWall(maze, index, state & 3);
+			}
+		}
+	}
+
+	private int randomDirection(int index, SplittableRandom random) {
+		int x = index % width;
+		int y = index / width;
+		while (true) {
+			int direction = random.nextInt(4);
+			if (direction == NORTH && y > 0 || direction == WEST && x > 0 || direction == SOUTH && y < height - 1
+					|| direction == EAST && x < width - 1) {
+				return direction;
+			}
+		}
+	}
+
+	private int neighborOf(int index, int direction) {
+		switch (direction) {
+		case NORTH:
+			return index - width;
+		case WEST:
+			return index - 1;
+		case SOUTH:
+			return index + width;
+		default:
+			return index + 1;
+		}
+	}
+
+	private void openWall(Maze maze, int index, int direction) {
+		int x = index % width;
+		int y = index / width;
+		Cell cell = maze.getCell(x, y);
+		switch (direction) {
+		case NORTH:
+			cell.setNorth(true);
+			maze.getCell(x, y - 1).setSouth(true);
+			break;
+		case WEST:
+			cell.setWest(true);
+			maze.getCell(x - 1, y).setEast(true);
+			break;
+		case SOUTH:
+			cell.setSouth(true);
+			maze.getCell(x, y + 1).setNorth(true);
+			break;
+		default:
+			cell.setEast(true);
+			maze.getCell(x + 1, y).setWest(true);
+			break;
+		}
+	}
+
+	private static boolean isInTree(int state) {
+		return state >= TREE && state <= ROOT;
+	}
+
+	/**
+	 * A walker, which claims the {@link Cell}s of its walks in the states as {@code owner}.
+	 */
+	private final class Walker {
+
+		private final int owner;
+		private final SplittableRandom random;
+		private int[] claimed = new int[64];
+		private int size;
+
+		Walker(int walker, long seed) {
+			owner = (walker + 1) << OWNER_SHIFT;
+			random = new SplittableRandom(seed);
+		}
+
+		/**
+		 * Adds all {@link Cell}s of a share of the {@link Maze} to the tree.
+		 */
+		void addToTree(int first, int end) {
+			for (int start = first; start < end; start++) {
+				while (!isInTree(states.get(start))) {
+					if (!walkFrom(start)) {
+						// The walk ran into another walk, which will soon end.
+						Thread.yield();
+					}
+				}
+			}
+		}
+
+		/**
+		 * Takes one walk from a free {@link Cell} until it reaches the tree.
+		 * @return false if the walk ran into a {@link Cell} claimed by another walker.
+		 */
+		private boolean walkFrom(int start) {
+			if (!claim(start)) {
+				return isInTree(states.get(start));
+			}
+			int index = start;
+			while (true) {
+				int direction = randomDirection(index, random);
+				states.set(index, owner | direction);
+				int next = neighborOf(index, direction);
+				int state = states.get(next);
+				if (isInTree(state)) {
+					break;
+				}
+				if ((state & ~3) != owner && !claim(next)) {
+					release();
+					return false;
+				}
+				// A cell entered again closes a loop, which is erased by leaving it in the new direction.
+				index = next;
+			}
+
+			for (index = start; !isInTree(states.get(index));) {
+				int direction = states.get(index) & 3;
+				states.set(index, TREE | direction);
+				index = neighborOf(index, direction);
+			}
+			release();
+			return true;
+		}
+
+		private boolean claim(int index) {
+			if (!states.compareAndSet(index, FREE, owner)) {
+				return false;
+			}
+			if (size == claimed.length) {
+				claimed = Arrays.copyOf(claimed, 2 * size);
+			}
+			claimed[size++] = index;
+			return true;
+		}
+
+		/**
+		 * Frees the claimed {@link Cell}s that were not added to the tree.
+		 */
+		private void release() {
+			for (int i = 0; i < size; i++) {
+				if ((states.get(claimed[i]) & ~3) == owner) {
+					states.set(claimed[i], FREE);
+				}
+			}
+			size = 0;
+		}
+	}
+
+	/**
+	 * Returns the name of the algorithm used by this MazeGenerator.
+	 * @return String the name of the algorithm used by this MazeGenerator.
+	 */
+	@Override
+	public String toString() {
+		return "Wilson's algorithm";
+	}
+}
@@ -0,0 +1,72 @@
+package se.hig.dvg329.algomaze.control.metrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+
+/**
+ * The {@code AllocationCounter} class reads the number of bytes allocated by the current thread from
+ * the {@link com.sun.management.ThreadMXBean} of the JVM. JVMs that do not support this report zero
+ * allocated bytes.
+ * <p>
+ * The count is read with {@code getCurrentThreadAllocatedBytes()} where the JVM has it, i.e. from Java 14,
+ * and by the id of the current thread otherwise. The JVM may not count the allocations of a virtual thread,
+ * so on a virtual thread, e.g. a job of the {@code MazeJobExecutor}, zero bytes may be reported.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class AllocationCounter {
+
+	private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+	private static final MethodHandle CURRENT_THREAD_ALLOCATED_BYTES = currentThreadAllocatedBytesHandle();
+
+	private AllocationCounter() {}
+
+	/**
+	 * Returns the total number of bytes allocated by the current thread so far.
+	 * @return the number of bytes allocated by the current thread, or zero if this is not supported or
+	 * the current thread is a virtual thread.
+	 */
+	public static long currentThreadAllocatedBytes() {
+		if (THREAD_BEAN == null) {
+			return 0;
+		}
+		if (CURRENT_THREAD_ALLOCATED_BYTES == null) {
+			return Math.max(0, THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()));
+		}
+		try {
+			return Math.max(0, (long) CURRENT_THREAD_ALLOCATED_BYTES.invokeExact(THREAD_BEAN));
+		}
+		catch (Throwable e) {
+			return 0;
+		}
+	}
+
+	private static com.sun.management.ThreadMXBean threadBean() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (sunBean.isThreadAllocatedMemorySupported()) {
+				sunBean.setThreadAllocatedMemoryEnabled(true);
+				return sunBean;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Looks up {@code getCurrentThreadAllocatedBytes()}, which is not there before Java 14.
+	 * @return the handle, or null if there is no such method.
+	 */
+	private static MethodHandle currentThreadAllocatedBytesHandle() {
+		try {
+			return MethodHandles.publicLookup().findVirtual(com.sun.management.ThreadMXBean.class,
+					"getCurrentThreadAllocatedBytes", MethodType.methodType(long.class));
+		}
+		catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package se.hig.dvg329.algomaze.control.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code LatencyHistogram} class records durations in nanoseconds into logarithmic buckets.
+ * Each power of two is split into 16 sub-buckets, so a reported percentile is within about 6 % of
+ * the recorded value. Recording is lock-free and may be done from any number of threads.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a duration.
+	 * @param nanos the duration in nanoseconds. Negative durations are recorded as zero.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(indexOf(value));
+		count.increment();
+		sum.add(value);
+		long current;
+		while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+			// Retry until the maximum is at least the recorded value.
+		}
+	}
+
+	/**
+	 * Returns the number of recorded durations.
+	 * @return the number of recorded durations.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the mean of the recorded durations in nanoseconds.
+	 * @return the mean duration, or zero if nothing has been recorded.
+	 */
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * Returns the longest recorded duration in nanoseconds.
+	 * @return the longest recorded duration.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns an upper bound of the given percentile of the recorded durations.
+	 * @param percent the percentile, between 0 and 100.
+	 * @return the upper bound of the bucket holding the percentile in nanoseconds, or zero if nothing
+	 * has been recorded.
+	 */
+	public long getPercentile(double percent) {
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = buckets.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Clears all recorded durations.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> exponent) & (SUB_BUCKETS - 1);
+		return (exponent + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBoundOf(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKETS - 1;
+		long subBucket = index % SUB_BUCKETS;
+		long lowest = (SUB_BUCKETS + subBucket) << exponent;
+		return lowest + (1L << exponent) - 1;
+	}
+}
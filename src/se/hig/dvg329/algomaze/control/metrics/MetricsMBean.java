@@ -0,0 +1,84 @@
+package se.hig.dvg329.algomaze.control.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+
+/**
+ * The {@code MetricsMBean} class publishes the metrics of a {@link MetricsRegistry} over JMX. Since
+ * metrics are created as they are first used, the attributes are read from
+ * {@link MetricsRegistry#snapshot()} each time the MBean is inspected. The MBean is read-only and has
+ * one operation, {@code reset}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class MetricsMBean implements DynamicMBean {
+
+	private final MetricsRegistry registry;
+
+	MetricsMBean(MetricsRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		Number value = registry.snapshot().get(attribute);
+		if (value == null) {
+			throw new AttributeNotFoundException("No metric named " + attribute + ".");
+		}
+		return value;
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		Map<String, Number> snapshot = registry.snapshot();
+		AttributeList list = new AttributeList();
+		for (String attribute : attributes) {
+			if (snapshot.containsKey(attribute)) {
+				list.add(new Attribute(attribute, snapshot.get(attribute)));
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("The metrics are read-only.");
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature) {
+		if ("reset".equals(actionName)) {
+			registry.reset();
+			return null;
+		}
+		throw new UnsupportedOperationException("Unknown operation " + actionName + ".");
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		List<MBeanAttributeInfo> attributes = new ArrayList<>();
+		for (Map.Entry<String, Number> entry : registry.snapshot().entrySet()) {
+			String type = entry.getValue() instanceof Double ? Double.class.getName() : Long.class.getName();
+			attributes.add(new MBeanAttributeInfo(entry.getKey(), type, entry.getKey(), true, false, false));
+		}
+		MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Clears all metrics.", null, "void",
+				MBeanOperationInfo.ACTION);
+		return new MBeanInfo(MetricsRegistry.class.getName(), "AlgoMaze metrics",
+				attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[] { reset }, null);
+	}
+}
@@ -0,0 +1,119 @@
+package se.hig.dvg329.algomaze.control.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The {@code MetricsRegistry} class holds the named counters and {@link LatencyHistogram}s of the
+ * application. A metric is created the first time its name is asked for. The registry can be
+ * published as an MBean through {@link #registerMBean()}, which makes every metric readable as an
+ * attribute over JMX.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class MetricsRegistry {
+
+	/**
+	 * The name under which the registry is published over JMX.
+	 */
+	public static final String OBJECT_NAME = "se.hig.dvg329.algomaze:type=Metrics";
+
+	private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	private MetricsRegistry() {}
+
+	public static MetricsRegistry getInstance() {
+		return SingletonHelper.getInstance();
+	}
+
+	private static class SingletonHelper {
+
+		private final static MetricsRegistry INSTANCE = new MetricsRegistry();
+
+		public static MetricsRegistry getInstance() {
+			return INSTANCE;
+		}
+	}
+
+	/**
+	 * Returns the counter with the given name, creating it if needed.
+	 * @param name the name of the counter.
+	 * @return the counter with the given name.
+	 */
+	public LongAdder counter(String name) {
+		return counters.computeIfAbsent(name, key -> new LongAdder());
+	}
+
+	/**
+	 * Returns the {@link LatencyHistogram} with the given name, creating it if needed.
+	 * @param name the name of the histogram.
+	 * @return the histogram with the given name.
+	 */
+	public LatencyHistogram histogram(String name) {
+		return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+	}
+
+	/**
+	 * Returns the current value of every metric, sorted by name. Each counter is returned under its
+	 * own name. Each histogram is returned as its count, mean, p50, p95, p99 and max under its name
+	 * followed by {@code .count}, {@code .mean} and so on. Durations are in nanoseconds.
+	 * @return the current value of every metric.
+	 */
+	public Map<String, Number> snapshot() {
+		Map<String, Number> snapshot = new TreeMap<>();
+		for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+			snapshot.put(entry.getKey(), entry.getValue().sum());
+		}
+		for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+			String name = entry.getKey();
+			LatencyHistogram histogram = entry.getValue();
+			snapshot.put(name + ".count", histogram.getCount());
+			snapshot.put(name + ".mean", histogram.getMean());
+			snapshot.put(name + ".p50", histogram.getPercentile(50));
+			snapshot.put(name + ".p95", histogram.getPercentile(95));
+			snapshot.put(name + ".p99", histogram.getPercentile(99));
+			snapshot.put(name + ".max", histogram.getMax());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Clears all metrics.
+	 */
+	public void reset() {
+		for (LongAdder counter : counters.values()) {
+			counter.reset();
+		}
+		for (LatencyHistogram histogram : histograms.values()) {
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * Publishes this registry on the platform MBean server under {@link #OBJECT_NAME}. Calling this
+	 * method more than once has no further effect.
+	 * @throws IllegalStateException if the MBean cannot be registered.
+	 */
+	public synchronized void registerMBean() throws IllegalStateException {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new MetricsMBean(this), name);
+			}
+		}
+		catch (JMException e) {
+			throw new IllegalStateException("Could not register the metrics MBean.", e);
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package se.hig.dvg329.algomaze.control.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+
+/**
+ * The {@code StepLog} class holds the steps of a recorded run as a growable array of packed
+ * {@code int}s. Each step is one change of one {@link se.hig.dvg329.algomaze.model.Cell}: the
+ * upper bits hold the index {@code y * width + x} of the {@link se.hig.dvg329.algomaze.model.Cell}
+ * and the lowest {@value #OP_BITS} bits the operation, see {@link #encode(int, int)}.
+ * <p>
+ * A log is saved as a header of seven {@code int}s (magic number, version, width, height, index of
+ * the start, index of the end and number of steps) followed by the steps, all big-endian.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class StepLog {
+
+	/**
+	 * The number of low bits of a step that hold the operation.
+	 */
+	public static final int OP_BITS = 4;
+
+	/**
+	 * The largest number of cells a recorded {@link se.hig.dvg329.algomaze.model.Maze} may have.
+	 */
+	public static final int MAX_CELLS = 1 << (Integer.SIZE - 1 - OP_BITS);
+
+	/**
+	 * The operations from 0 to 4 set the value of a cell to the {@link se.hig.dvg329.algomaze.model.Cell.CellValue}
+	 * with that ordinal. {@code OPEN + direction} tears down a wall and {@code CLOSE + direction} erects it,
+	 * where the direction is one of {@link #NORTH}, {@link #WEST}, {@link #SOUTH} and {@link #EAST}.
+	 */
+	public static final int OPEN = 8, CLOSE = 12;
+	public static final int NORTH = 0, WEST = 1, SOUTH = 2, EAST = 3;
+
+	private static final int VALUE_OPS = CellValue.values().length;
+	private static final int MAGIC = 0x414D5A52, VERSION = 1, HEADER_INTS = 7;
+	private static final int IO_BUFFER_BYTES = 1 << 16;
+
+	private final int width, height;
+	private int start = -1, end = -1;
+	private int[] steps = new int[1024];
+	private int size;
+
+	/**
+	 * Constructs an empty {@code StepLog} for a {@link se.hig.dvg329.algomaze.model.Maze} of the given size.
+	 * @param width the width of the {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @param height the height of the {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @throws IllegalArgumentException if the {@link se.hig.dvg329.algomaze.model.Maze} has more than
+	 * {@link #MAX_CELLS} cells.
+	 */
+	public StepLog(int width, int height) throws IllegalArgumentException {
+		if ((long) width * height > MAX_CELLS) {
+			throw new IllegalArgumentException("Cannot record a maze of more than " + MAX_CELLS + " cells.");
+		}
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Packs a step into an {@code int}.
+	 * @param index the index {@code y * width + x} of the changed cell.
+	 * @param op the operation.
+	 * @return the packed step.
+	 */
+	public static int encode(int index, int op) {
+		return (index << OP_BITS) | op;
+	}
+
+	public static int indexOf(int step) {
+		return step >>> OP_BITS;
+	}
+
+	public static int opOf(int step) {
+		return step & ((1 << OP_BITS) - 1);
+	}
+
+	/**
+	 * Checks whether a step has a known operation on a cell of the recorded
+	 * {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @param step a packed step.
+	 * @param cells the number of cells of the {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @return true if the step can be replayed.
+	 */
+	static boolean isValid(int step, int cells) {
+		int op = opOf(step);
+		return indexOf(step) < cells && (op < VALUE_OPS || op >= OPEN);
+	}
+
+	/**
+	 * Checks whether a start or end read from a log is a cell of the
+	 * {@link se.hig.dvg329.algomaze.model.Maze}, or -1 for one that is not known.
+	 */
+	static boolean isValidCell(int index, int cells) {
+		return index >= -1 && index < cells;
+	}
+
+	/**
+	 * Appends a step to the log.
+	 * @param step a step packed by {@link #encode(int, int)}.
+	 */
+	public void add(int step) {
+		if (size == steps.length) {
+			steps = Arrays.copyOf(steps, steps.length + (steps.length >> 1));
+		}
+		steps[size++] = step;
+	}
+
+	public int get(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("No step " + position + " in a log of " + size + " steps.");
+		}
+		return steps[position];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the index of the start of the recorded {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @return the index of the start, or -1 if it is not known.
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the index of the end of the recorded {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @return the index of the end, or -1 if it is not known.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	void setStartAndEnd(int start, int end) {
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Saves the log to a file, replacing the file if it exists.
+	 * @param path the file to write.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void writeTo(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).putInt(start).putInt(end).putInt(size);
+			IntBuffer ints = buffer.asIntBuffer();
+			int written = 0;
+			while (true) {
+				int count = Math.min(ints.remaining(), size - written);
+				ints.put(steps, written, count);
+				written += count;
+				buffer.position(buffer.position() + count * Integer.BYTES);
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				if (written == size) {
+					return;
+				}
+				buffer.clear();
+				ints = buffer.asIntBuffer();
+			}
+		}
+	}
+
+	/**
+	 * Reads a log saved by {@link #writeTo(Path)}.
+	 * @param path the file to read.
+	 * @return the read log.
+	 * @throws IOException if the file cannot be read or is not a complete step log.
+	 */
+	public static StepLog readFrom(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+			fill(channel, buffer, HEADER_INTS * Integer.BYTES);
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException(path + " is not a step log.");
+			}
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			int start = buffer.getInt();
+			int end = buffer.getInt();
+			int size = buffer.getInt();
+			if (width < 0 || height < 0 || size < 0) {
+				throw new IOException(path + " has an invalid header.");
+			}
+			// The steps are allocated up front, so a corrupt size must not allocate more than the file holds.
+			long remaining = channel.size() - channel.position() + buffer.remaining();
+			if ((long) size * Integer.BYTES > remaining) {
+				throw new IOException(path + " is truncated: its header counts " + size + " steps but only "
+						+ remaining / Integer.BYTES + " follow.");
+			}
+			StepLog log = new StepLog(width, height);
+			int cells = width * height;
+			if (!isValidCell(start, cells) || !isValidCell(end, cells)) {
+				throw new IOException(path + " has an invalid header.");
+			}
+			log.setStartAndEnd(start, end);
+			log.steps = new int[Math.max(1, size)];
+			while (log.size < size) {
+				buffer.clear();
+				int count = Math.min(IO_BUFFER_BYTES / Integer.BYTES, size - log.size);
+				fill(channel, buffer, count * Integer.BYTES);
+				buffer.asIntBuffer().get(log.steps, log.size, count);
+				log.size += count;
+			}
+			for (int i = 0; i < size; i++) {
+				if (!isValid(log.steps[i], cells)) {
+					throw new IOException(path + " has an invalid step " + i + ".");
+				}
+			}
+			return log;
+		}
+		catch (IllegalArgumentException e) {
+			throw new IOException(path + " has an invalid header.", e);
+		}
+	}
+
+	/**
+	 * Checks whether a file starts like a saved step log.
+	 * @param path the file to check.
+	 * @return true if the file starts with the magic number of a step log.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static boolean isStepLog(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// Read until the magic number is complete or the file ends.
+			}
+			return !buffer.hasRemaining() && buffer.getInt(0) == MAGIC;
+		}
+	}
+
+	private static void fill(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+		buffer.limit(bytes);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new IOException("The step log ends early.");
+			}
+		}
+		buffer.flip();
+	}
+}
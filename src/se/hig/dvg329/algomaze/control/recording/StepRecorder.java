@@ -0,0 +1,125 @@
+package se.hig.dvg329.algomaze.control.recording;
+
+import java.util.Observable;
+import java.util.Observer;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code StepRecorder} class records every change of the {@link Cell}s of a {@link Maze} into a
+ * {@link StepLog}, e.g. while a {@link Maze} is generated and solved. It is registered as an
+ * {@link Observer} of the {@link Cell}s like any other view, through
+ * {@link se.hig.dvg329.algomaze.control.MazeController#registerObserver(Observer)}.
+ * <p>
+ * A notification does not tell what changed, so the recorder keeps the last known state of every
+ * {@link Cell} in one byte and only records the value and walls that differ from it. A log always
+ * starts from an empty {@link Maze}: the state of the {@link Maze} when the recorder is created is
+ * recorded as its first steps.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class StepRecorder implements Observer {
+
+	private static final int VALUE_MASK = 0x7, WALLS_SHIFT = 3;
+
+	private final Maze maze;
+	private final StepLog log;
+	private final byte[] states;
+
+	/**
+	 * Constructs a {@code StepRecorder} for a {@link Maze}.
+	 * @param maze the {@link Maze} whose changes should be recorded.
+	 * @throws IllegalArgumentException if the {@link Maze} has more than {@link StepLog#MAX_CELLS} cells.
+	 */
+	public StepRecorder(Maze maze) throws IllegalArgumentException {
+		this.maze = maze;
+		log = new StepLog(maze.getWidth(), maze.getHeight());
+		states = new byte[maze.getWidth() * maze.getHeight()];
+		for (int y = 0; y < maze.getHeight(); y++) {
+			for (int x = 0; x < maze.getWidth(); x++) {
+				record(maze.getCell(x, y));
+			}
+		}
+	}
+
+	@Override
+	public void update(Observable o, Object arg) {
+		record((Cell) o);
+	}
+
+	/**
+	 * Returns the recorded steps together with the current start and end of the {@link Maze}.
+	 * @return the log of this recorder.
+	 */
+	public StepLog getLog() {
+		int start = -1, end = -1;
+		if (!maze.isEmpty()) {
+			start = indexOf(maze.getStart());
+			end = indexOf(maze.getEnd());
+		}
+		log.setStartAndEnd(start, end);
+		return log;
+	}
+
+	private void record(Cell cell) {
+		int index = indexOf(cell);
+		int state = stateOf(cell);
+		int previous = states[index];
+		if (state == previous) {
+			return;
+		}
+		if ((state & VALUE_MASK) != (previous & VALUE_MASK)) {
+			log.add(StepLog.encode(index, state & VALUE_MASK));
+		}
+		int changedWalls = (state ^ previous) >>> WALLS_SHIFT;
+		for (int direction = StepLog.NORTH; direction <= StepLog.EAST; direction++) {
+			if ((changedWalls & (1 << direction)) != 0) {
+				boolean open = (state & (1 << (WALLS_SHIFT + direction))) != 0;
+				log.add(StepLog.encode(index, (open ? StepLog.OPEN : StepLog.CLOSE) + direction));
+			}
+		}
+		states[index] = (byte) state;
+	}
+
+	private int indexOf(Cell cell) {
+		return cell.getY() * maze.getWidth() + cell.getX();
+	}
+
+	/**
+	 * Packs the value and walls of a {@link Cell} the way {@link StepReplayer} keeps them: the ordinal of
+	 * the value in the lowest three bits, followed by one bit per open wall in the order north, west,
+	 * south, east.
+	 */
+	static int stateOf(Cell cell) {
+		return cell.getValue().ordinal()
+				| (cell.hasNorth() ? 1 << (WALLS_SHIFT + StepLog.NORTH) : 0)
+				| (cell.hasWest() ? 1 << (WALLS_SHIFT + StepLog.WEST) : 0)
+				| (cell.hasSouth() ? 1 << (WALLS_SHIFT + StepLog.SOUTH) : 0)
+				| (cell.hasEast() ? 1 << (WALLS_SHIFT + StepLog.EAST) : 0);
+	}
+
+	/**
+	 * Applies a step to a packed state made by {@link #stateOf(Cell)}.
+	 */
+	static int apply(int state, int op) {
+		if (op < StepLog.OPEN) {
+			return (state & ~VALUE_MASK) | op;
+		}
+		else if (op < StepLog.CLOSE) {
+			return state | (1 << (WALLS_SHIFT + op - StepLog.OPEN));
+		}
+		else {
+			return state & ~(1 << (WALLS_SHIFT + op - StepLog.CLOSE));
+		}
+	}
+
+	static int valueOf(int state) {
+		return state & VALUE_MASK;
+	}
+
+	static boolean isOpen(int state, int direction) {
+		return (state & (1 << (WALLS_SHIFT + direction))) != 0;
+	}
+}
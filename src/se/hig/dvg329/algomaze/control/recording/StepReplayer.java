@@ -0,0 +1,177 @@
+package se.hig.dvg329.algomaze.control.recording;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code StepReplayer} class plays a {@link StepLog} back onto a new {@link Maze}, so that a
+ * recorded run can be shown again without running its algorithms. The {@link Cell}s of the
+ * {@link Maze} notify their {@link java.util.Observer}s for every replayed step, exactly as during
+ * the recorded run.
+ * <p>
+ * The replayer can step, play at a given speed and seek to any step. Seeking forward replays the
+ * steps in between. Seeking backward restores the closest earlier checkpoint, a copy of the state of
+ * every {@link Cell} taken every {@link #getCheckpointInterval()} steps, and replays from there.
+ * Checkpoints are taken the first time their step is passed, and the interval is at least the number
+ * of cells, so they never take more memory than the log itself.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class StepReplayer {
+
+	private static final int MIN_CHECKPOINT_INTERVAL = 1 << 12;
+	private static final CellValue[] VALUES = CellValue.values();
+
+	private final StepLog log;
+	private final Maze maze;
+	private final byte[] states;
+	private final List<byte[]> checkpoints = new ArrayList<>();
+	private final int checkpointInterval;
+	private int position;
+
+	/**
+	 * Constructs a {@code StepReplayer} positioned before the first step of a log.
+	 * @param log the log to replay.
+	 * @throws IllegalArgumentException if the size of the log is not a valid size of a {@link Maze}, or
+	 * its start or end is outside the {@link Maze}.
+	 */
+	public StepReplayer(StepLog log) throws IllegalArgumentException {
+		this.log = log;
+		int width = log.getWidth();
+		maze = new Maze(width, log.getHeight());
+		int cells = width * log.getHeight();
+		if (!StepLog.isValidCell(log.getStart(), cells) || !StepLog.isValidCell(log.getEnd(), cells)) {
+			throw new IllegalArgumentException("The start or end of the log is outside the maze.");
+		}
+		if (log.getStart() >= 0 && log.getEnd() >= 0) {
+			maze.setStart(maze.getCell(log.getStart() % width, log.getStart() / width));
+			maze.setEnd(maze.getCell(log.getEnd() % width, log.getEnd() / width));
+			maze.setEmpty(false);
+		}
+		states = new byte[cells];
+		checkpointInterval = Math.max(MIN_CHECKPOINT_INTERVAL, states.length);
+		checkpoints.add(states.clone());
+	}
+
+	/**
+	 * Returns the {@link Maze} the steps are played onto.
+	 * @return the replayed {@link Maze}.
+	 */
+	public Maze getMaze() {
+		return maze;
+	}
+
+	/**
+	 * Returns the number of steps that have been played.
+	 * @return the current position, between zero and the number of steps in the log.
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	public int getStepCount() {
+		return log.size();
+	}
+
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	/**
+	 * Plays the next step.
+	 * @return false if all steps have already been played.
+	 * @throws IllegalArgumentException if the step is not a known operation on a {@link Cell} of the
+	 * {@link Maze}.
+	 */
+	public boolean step() throws IllegalArgumentException {
+		if (position == log.size()) {
+			return false;
+		}
+		int step = log.get(position);
+		if (!StepLog.isValid(step, states.length)) {
+			throw new IllegalArgumentException("Step " + position + " of the log is invalid.");
+		}
+		position++;
+		int index = StepLog.indexOf(step);
+		setState(index, StepRecorder.apply(states[index], StepLog.opOf(step)));
+		if (position % checkpointInterval == 0 && position / checkpointInterval == checkpoints.size()) {
+			checkpoints.add(states.clone());
+		}
+		return true;
+	}
+
+	/**
+	 * Moves to a step, so that exactly the steps before it have been played.
+	 * @param target the number of steps that should have been played.
+	 * @throws IllegalArgumentException if the target is negative or larger than the number of steps.
+	 */
+	public void seek(int target) throws IllegalArgumentException {
+		if (target < 0 || target > log.size()) {
+			throw new IllegalArgumentException("Cannot seek to step " + target + " of " + log.size() + ".");
+		}
+		if (target < position) {
+			int checkpoint = Math.min(target / checkpointInterval, checkpoints.size() - 1);
+			byte[] restored = checkpoints.get(checkpoint);
+			for (int index = 0; index < states.length; index++) {
+				if (states[index] != restored[index]) {
+					setState(index, restored[index]);
+				}
+			}
+			position = checkpoint * checkpointInterval;
+		}
+		while (position < target) {
+			step();
+		}
+	}
+
+	/**
+	 * Plays the remaining steps at a fixed speed on the calling thread. Returns early if the thread is
+	 * interrupted, with the interrupt status set.
+	 * @param stepsPerSecond the speed, {@link Double#POSITIVE_INFINITY} to play as fast as possible.
+	 * @throws IllegalArgumentException if the speed is not positive.
+	 */
+	public void play(double stepsPerSecond) throws IllegalArgumentException {
+		if (!(stepsPerSecond > 0)) {
+			throw new IllegalArgumentException("The speed must be positive.");
+		}
+		long begin = System.nanoTime();
+		int first = position;
+		while (position < log.size()) {
+			long wait = begin + (long) ((position - first) / stepsPerSecond * 1e9) - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			step();
+		}
+	}
+
+	private void setState(int index, int state) {
+		int previous = states[index];
+		states[index] = (byte) state;
+		Cell cell = maze.getCell(index % maze.getWidth(), index / maze.getWidth());
+		if (StepRecorder.valueOf(state) != StepRecorder.valueOf(previous)) {
+			cell.setValue(VALUES[StepRecorder.valueOf(state)]);
+		}
+		if (StepRecorder.isOpen(state, StepLog.NORTH) != StepRecorder.isOpen(previous, StepLog.NORTH)) {
+			cell.setNorth(StepRecorder.isOpen(state, StepLog.NORTH));
+		}
+		if (StepRecorder.isOpen(state, StepLog.WEST) != StepRecorder.isOpen(previous, StepLog.WEST)) {
+			cell.setWest(StepRecorder.isOpen(state, StepLog.WEST));
+		}
+		if (StepRecorder.isOpen(state, StepLog.SOUTH) != StepRecorder.isOpen(previous, StepLog.SOUTH)) {
+			cell.setSouth(StepRecorder.isOpen(state, StepLog.SOUTH));
+		}
+		if (StepRecorder.isOpen(state, StepLog.EAST) != StepRecorder.isOpen(previous, StepLog.EAST)) {
+			cell.setEast(StepRecorder.isOpen(state, StepLog.EAST));
+		}
+	}
+}
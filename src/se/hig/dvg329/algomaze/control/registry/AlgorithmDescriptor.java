@@ -0,0 +1,109 @@
+package se.hig.dvg329.algomaze.control.registry;
+
+/**
+ * An {@code AlgorithmDescriptor} holds the name of an algorithm and what is known about its cost, which
+ * {@link AlgorithmRegistry} uses to pick an algorithm for a size of maze. The costs are rough estimates
+ * for comparing the algorithms with each other, not guarantees.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class AlgorithmDescriptor {
+
+	private final String name;
+	private final double bytesPerCell, nanosPerCell;
+	private final boolean parallel, offHeap, weighted;
+
+	/**
+	 * Constructs an {@code AlgorithmDescriptor} of an algorithm that is not weighted.
+	 * @param name the name the algorithm is created by.
+	 * @param bytesPerCell the heap the algorithm needs per cell, on top of the maze itself.
+	 * @param nanosPerCell the time the algorithm takes per cell on one core.
+	 * @param parallel whether the algorithm spreads its work over all cores.
+	 * @param offHeap whether the algorithm keeps its data, or the maze it works on, outside the heap, so
+	 * that it can handle mazes larger than the heap. This also marks the algorithms that stream the maze
+	 * from a file instead of holding it, since so far those are the same.
+	 * @throws IllegalArgumentException if the name is empty or a cost is negative.
+	 */
+	public AlgorithmDescriptor(String name, double bytesPerCell, double nanosPerCell, boolean parallel,
+			boolean offHeap) throws IllegalArgumentException {
+		this(name, bytesPerCell, nanosPerCell, parallel, offHeap, false);
+	}
+
+	/**
+	 * Constructs an {@code AlgorithmDescriptor}.
+	 * @param name the name the algorithm is created by.
+	 * @param bytesPerCell the heap the algorithm needs per cell, on top of the maze itself.
+	 * @param nanosPerCell the time the algorithm takes per cell on one core.
+	 * @param parallel whether the algorithm spreads its work over all cores.
+	 * @param offHeap whether the algorithm keeps its data, or the maze it works on, outside the heap, see
+	 * {@link #AlgorithmDescriptor(String, double, double, boolean, boolean)}.
+	 * @param weighted whether the solutions of the algorithm are exact for mazes with a terrain, i.e. the
+	 * shortest paths by the traversal costs and not only by the number of cells.
+	 * @throws IllegalArgumentException if the name is empty or a cost is negative.
+	 */
+	public AlgorithmDescriptor(String name, double bytesPerCell, double nanosPerCell, boolean parallel,
+			boolean offHeap, boolean weighted) throws IllegalArgumentException {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("An algorithm must have a name.");
+		}
+		if (!(bytesPerCell >= 0) || !(nanosPerCell >= 0)) {
+			throw new IllegalArgumentException("The costs of an algorithm must not be negative.");
+		}
+		this.name = name;
+		this.bytesPerCell = bytesPerCell;
+		this.nanosPerCell = nanosPerCell;
+		this.parallel = parallel;
+		this.offHeap = offHeap;
+		this.weighted = weighted;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getBytesPerCell() {
+		return bytesPerCell;
+	}
+
+	public double getNanosPerCell() {
+		return nanosPerCell;
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	public boolean isOffHeap() {
+		return offHeap;
+	}
+
+	public boolean isWeighted() {
+		return weighted;
+	}
+
+	/**
+	 * Returns the estimated time of the algorithm for a number of cells.
+	 * @param cells the number of cells of the maze.
+	 * @param cores the number of cores the algorithm may use.
+	 * @return the estimated time in nanoseconds.
+	 */
+	public double estimateNanos(long cells, int cores) {
+		return nanosPerCell * cells / (parallel ? Math.max(1, cores) : 1);
+	}
+
+	/**
+	 * Returns the estimated heap the algorithm needs for a number of cells.
+	 * @param cells the number of cells of the maze.
+	 * @return the estimated number of bytes.
+	 */
+	public double estimateBytes(long cells) {
+		return bytesPerCell * cells;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + bytesPerCell + " bytes/cell, " + nanosPerCell + " ns/cell"
+				+ (parallel ? ", parallel" : "") + (offHeap ? ", off-heap" : "") + (weighted ? ", weighted" : "") + ")";
+	}
+}
@@ -0,0 +1,21 @@
+package se.hig.dvg329.algomaze.control.registry;
+
+/**
+ * An {@code AlgorithmProvider} describes an algorithm and creates instances of it. The providers of
+ * each kind of algorithm are found with a {@link java.util.ServiceLoader} through an interface that
+ * extends this one, and must have a public constructor without parameters.
+ * @param <T> the kind of algorithm, e.g. a generator or a solver.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public interface AlgorithmProvider<T> {
+
+	AlgorithmDescriptor getDescriptor();
+
+	/**
+	 * Creates a new instance of the algorithm.
+	 * @return the created algorithm.
+	 */
+	T create();
+}
@@ -0,0 +1,154 @@
+package se.hig.dvg329.algomaze.control.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * The {@code AlgorithmRegistry} class holds the {@link AlgorithmProvider}s of one kind of algorithm by
+ * name. Besides the names of the algorithms, {@link #AUTO} picks an algorithm for the size of the maze:
+ * the one estimated to be fastest, counting the cores for parallel algorithms, among those whose heap
+ * fits in what is free of the heap. If none fits, the one that needs the least heap is picked. A registry
+ * may require the picked algorithm to be weighted, see {@link AlgorithmDescriptor#isWeighted()}, e.g. so
+ * that a solver picked for a maze with a terrain does not return a path that is only shortest by the
+ * number of cells.
+ * <p>
+ * A registry is immutable once it has been loaded, so it may be shared between threads.
+ * @param <T> the kind of algorithm, e.g. a generator or a solver.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class AlgorithmRegistry<T> {
+
+	/**
+	 * The name that picks an algorithm for the size of the maze.
+	 */
+	public static final String AUTO = "auto";
+
+	private final Map<String, AlgorithmProvider<? extends T>> providers = new LinkedHashMap<>();
+	private final boolean weighted;
+
+	/**
+	 * Constructs an {@code AlgorithmRegistry} whose {@link #AUTO} picks among all algorithms. If two
+	 * providers have the same name, the first is kept.
+	 * @param providers the providers to hold.
+	 */
+	public AlgorithmRegistry(Iterable<? extends AlgorithmProvider<? extends T>> providers) {
+		this(providers, false);
+	}
+
+	/**
+	 * Constructs an {@code AlgorithmRegistry}. If two providers have the same name, the first is kept.
+	 * @param providers the providers to hold.
+	 * @param weighted whether {@link #AUTO} only picks weighted algorithms.
+	 */
+	public AlgorithmRegistry(Iterable<? extends AlgorithmProvider<? extends T>> providers, boolean weighted) {
+		this.weighted = weighted;
+		for (AlgorithmProvider<? extends T> provider : providers) {
+			this.providers.putIfAbsent(provider.getDescriptor().getName(), provider);
+		}
+	}
+
+	/**
+	 * Loads the providers of a service interface from the class path with a {@link ServiceLoader}.
+	 * @param service the interface that the providers implement.
+	 * @return the registry of the found providers, whose {@link #AUTO} picks among all of them.
+	 */
+	public static <T, P extends AlgorithmProvider<? extends T>> AlgorithmRegistry<T> load(Class<P> service) {
+		return load(service, false);
+	}
+
+	/**
+	 * Loads the providers of a service interface from the class path with a {@link ServiceLoader}.
+	 * @param service the interface that the providers implement.
+	 * @param weighted whether {@link #AUTO} only picks weighted algorithms.
+	 * @return the registry of the found providers.
+	 */
+	public static <T, P extends AlgorithmProvider<? extends T>> AlgorithmRegistry<T> load(Class<P> service,
+			boolean weighted) {
+		return new AlgorithmRegistry<T>(ServiceLoader.load(service, service.getClassLoader()), weighted);
+	}
+
+	/**
+	 * Creates an algorithm.
+	 * @param name the name of the algorithm, or {@link #AUTO} to pick one for the size of the maze.
+	 * @param width the width of the maze.
+	 * @param height the height of the maze.
+	 * @return the created algorithm, or null if there is no algorithm with the name.
+	 */
+	public T create(String name, int width, int height) {
+		AlgorithmProvider<? extends T> provider = providers.get(resolve(name, width, height));
+		return provider == null ? null : provider.create();
+	}
+
+	/**
+	 * Returns the name of the algorithm that {@link #create(String, int, int)} would create.
+	 * @param name the name of an algorithm, or {@link #AUTO}.
+	 * @param width the width of the maze.
+	 * @param height the height of the maze.
+	 * @return the picked name if the name is {@link #AUTO} and there are algorithms, and the name otherwise.
+	 */
+	public String resolve(String name, int width, int height) {
+		if (AUTO.equals(name) && !providers.isEmpty()) {
+			Runtime runtime = Runtime.getRuntime();
+			long freeHeap = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+			return select((long) width * height, freeHeap, runtime.availableProcessors()).getName();
+		}
+		return name;
+	}
+
+	/**
+	 * Picks an algorithm, see {@link AlgorithmRegistry}.
+	 * @param cells the number of cells of the maze.
+	 * @param freeHeap the number of bytes of the heap that the algorithm may use.
+	 * @param cores the number of cores that the algorithm may use.
+	 * @return the picked algorithm.
+	 * @throws IllegalStateException if there are no algorithms to pick from.
+	 */
+	public AlgorithmDescriptor select(long cells, long freeHeap, int cores) throws IllegalStateException {
+		AlgorithmDescriptor fastest = null, smallest = null;
+		for (AlgorithmProvider<? extends T> provider : providers.values()) {
+			AlgorithmDescriptor descriptor = provider.getDescriptor();
+			if (weighted && !descriptor.isWeighted()) {
+				continue;
+			}
+			if (descriptor.estimateBytes(cells) <= freeHeap
+					&& (fastest == null || descriptor.estimateNanos(cells, cores) < fastest.estimateNanos(cells, cores))) {
+				fastest = descriptor;
+			}
+			if (smallest == null || descriptor.getBytesPerCell() < smallest.getBytesPerCell()) {
+				smallest = descriptor;
+			}
+		}
+		if (smallest == null) {
+			throw new IllegalStateException("There are no algorithms to pick from.");
+		}
+		return fastest != null ? fastest : smallest;
+	}
+
+	/**
+	 * Returns the descriptor of an algorithm.
+	 * @param name the name of the algorithm.
+	 * @return the descriptor, or null if there is no algorithm with the name.
+	 */
+	public AlgorithmDescriptor getDescriptor(String name) {
+		AlgorithmProvider<? extends T> provider = providers.get(name);
+		return provider == null ? null : provider.getDescriptor();
+	}
+
+	/**
+	 * Returns the descriptors of all algorithms in the order they were found.
+	 * @return the descriptors of all algorithms.
+	 */
+	public List<AlgorithmDescriptor> getDescriptors() {
+		List<AlgorithmDescriptor> descriptors = new ArrayList<>();
+		for (AlgorithmProvider<? extends T> provider : providers.values()) {
+			descriptors.add(provider.getDescriptor());
+		}
+		return Collections.unmodifiableList(descriptors);
+	}
+}
@@ -0,0 +1,320 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code BatchMazeSolver} class answers many shortest path queries, pairs of a source and a target
+ * cell, on the same {@link Maze}. The queries are split into tasks that run on a work-stealing
+ * {@link ForkJoinPool}, and each query is a Dijkstra search over a snapshot of the walls that stops when
+ * the target is reached. Cells are given by their index {@code y * width + x}.
+ * <p>
+ * Each task checks out a workspace of primitive arrays from the solver for its queries and returns it
+ * when it is done, so the solver keeps at most one workspace per task that ran at the same time, and
+ * nothing of the solver is left behind in the threads of the pool. Instead of clearing the
+ * arrays before every query, each query gets a new epoch number and an entry of an array only counts if
+ * its stamp equals the current epoch, so a query costs nothing for the cells it never reaches. The
+ * priority queue is a binary heap in two arrays that may hold outdated entries for a cell, which are
+ * skipped when they are removed, so no decrease-key is needed. A query only allocates its result.
+ * <p>
+ * Unlike the other {@link MazeSolver}s, this class does not change the values of the {@link Cell}s, so
+ * any number of batches may run at the same time. The walls and the terrain are copied when the solver
+ * is constructed and when {@link #refresh()} is called.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class BatchMazeSolver {
+
+	private static final int NORTH = 0, WEST = 1, SOUTH = 2, EAST = 3;
+	private static final int QUERIES_PER_TASK = 16;
+
+	private final Maze maze;
+	private final int width, cells;
+	private final ForkJoinPool pool;
+	private final byte[] passages;
+	private final short[] costs;
+	private final Queue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Constructs a {@code BatchMazeSolver} for a {@link Maze} that runs on the common {@link ForkJoinPool}.
+	 * @param maze the {@link Maze} to answer queries on.
+	 */
+	public BatchMazeSolver(Maze maze) {
+		this(maze, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs a {@code BatchMazeSolver} for a {@link Maze}.
+	 * @param maze the {@link Maze} to answer queries on.
+	 * @param pool the pool to run the queries on.
+	 */
+	public BatchMazeSolver(Maze maze, ForkJoinPool pool) {
+		this.maze = maze;
+		this.pool = pool;
+		width = maze.getWidth();
+		cells = width * maze.getHeight();
+		passages = new byte[cells];
+		costs = new short[cells];
+		copyWalls();
+	}
+
+	/**
+	 * Copies the walls and the terrain of the {@link Maze} again. Must not be called while a batch is running.
+	 */
+	public void refresh() {
+		copyWalls();
+	}
+
+	private void copyWalls() {
+		for (int y = 0; y < maze.getHeight(); y++) {
+			for (int x = 0; x < width; x++) {
+				Cell cell = maze.getCell(x, y);
+				// A passage only counts if both cells are open towards each other.
+				int open = 0;
+				if (cell.hasNorth() && y > 0 && maze.getCell(x, y - 1).hasSouth()) {
+					open |= 1 << NORTH;
+				}
+				if (cell.hasWest() && x > 0 && maze.getCell(x - 1, y).hasEast()) {
+					open |= 1 << WEST;
+				}
+				if (cell.hasSouth() && y < maze.getHeight() - 1 && maze.getCell(x, y + 1).hasNorth()) {
+					open |= 1 << SOUTH;
+				}
+				if (cell.hasEast() && x < width - 1 && maze.getCell(x + 1, y).hasWest()) {
+					open |= 1 << EAST;
+				}
+				passages[y * width + x] = (byte) open;
+				costs[y * width + x] = (short) maze.getTraversalCost(x, y);
+			}
+		}
+	}
+
+	/**
+	 * Returns the length of the shortest path of each query, where a step costs the traversal cost of the
+	 * cell it enters.
+	 * @param sources the index of the source cell of each query.
+	 * @param targets the index of the target cell of each query.
+	 * @return the length of each shortest path, or -1 where the target cannot be reached.
+	 * @throws IllegalArgumentException if the arrays differ in length or an index is outside the {@link Maze}.
+	 */
+	public long[] solveDistances(int[] sources, int[] targets) throws IllegalArgumentException {
+		checkQueries(sources, targets);
+		long[] distances = new long[sources.length];
+		pool.invoke(new QueryTask(sources, targets, distances, null, 0, sources.length));
+		return distances;
+	}
+
+	/**
+	 * Returns the shortest path of each query.
+	 * @param sources the index of the source cell of each query.
+	 * @param targets the index of the target cell of each query.
+	 * @return the indices of the cells of each shortest path from the source to the target, or an empty
+	 * array where the target cannot be reached.
+	 * @throws IllegalArgumentException if the arrays differ in length or an index is outside the {@link Maze}.
+	 */
+	public int[][] solvePaths(int[] sources, int[] targets) throws IllegalArgumentException {
+		checkQueries(sources, targets);
+		int[][] paths = new int[sources.length][];
+		pool.invoke(new QueryTask(sources, targets, new long[sources.length], paths, 0, sources.length));
+		return paths;
+	}
+
+	private void checkQueries(int[] sources, int[] targets) throws IllegalArgumentException {
+		if (sources.length != targets.length) {
+			throw new IllegalArgumentException("Every query must have one source and one target.");
+		}
+		for (int i = 0; i < sources.length; i++) {
+			if (sources[i] < 0 || sources[i] >= cells || targets[i] < 0 || targets[i] >= cells) {
+				throw new IllegalArgumentException("Query " + i + " is outside the maze.");
+			}
+		}
+	}
+
+	private class QueryTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 6419536431095724763L;
+
+		private final int[] sources, targets;
+		private final long[] distances;
+		private final int[][] paths;
+		private final int from, to;
+
+		QueryTask(int[] sources, int[] targets, long[] distances, int[][] paths, int from, int to) {
+			this.sources = sources;
+			this.targets = targets;
+			this.distances = distances;
+			this.paths = paths;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= QUERIES_PER_TASK) {
+				Workspace workspace = workspaces.poll();
+				if (workspace == null) {
+					workspace = new Workspace(passages, costs, width);
+				}
+				try {
+					for (int i = from; i < to; i++) {
+						distances[i] = workspace.search(sources[i], targets[i]);
+						if (paths != null) {
+							paths[i] = distances[i] < 0 ? new int[0] : workspace.pathTo(sources[i], targets[i]);
+						}
+					}
+				}
+				finally {
+					workspaces.offer(workspace);
+				}
+			}
+			else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new QueryTask(sources, targets, distances, paths, from, middle),
+						new QueryTask(sources, targets, distances, paths, middle, to));
+			}
+		}
+	}
+
+	/**
+	 * The arrays of one task at a time. An entry of {@code distances} and {@code parents} is only valid if
+	 * its {@code reached} stamp is the current epoch, and a cell is settled if its {@code settled} stamp is.
+	 */
+	private static final class Workspace {
+
+		private final byte[] passages;
+		private final short[] costs;
+		private final int width;
+		private final long[] distances;
+		private final int[] parents, reached, settled;
+		private int[] heapCells = new int[64];
+		private long[] heapKeys = new long[64];
+		private int heapSize, epoch;
+
+		Workspace(byte[] passages, short[] costs, int width) {
+			this.passages = passages;
+			this.costs = costs;
+			this.width = width;
+			int cells = passages.length;
+			distances = new long[cells];
+			parents = new int[cells];
+			reached = new int[cells];
+			settled = new int[cells];
+		}
+
+		long search(int source, int target) {
+			if (++epoch == 0) {
+				// After four billion queries the stamps wrap around and must be cleared once.
+				Arrays.fill(reached, 0);
+				Arrays.fill(settled, 0);
+				epoch = 1;
+			}
+			heapSize = 0;
+			reach(source, 0, source);
+			while (heapSize > 0) {
+				int cell = heapCells[0];
+				long distance = heapKeys[0];
+				pop();
+				if (settled[cell] == epoch || distance > distances[cell]) {
+					continue;
+				}
+				settled[cell] = epoch;
+				if (cell == target) {
+					return distance;
+				}
+				int open = passages[cell];
+				if ((open & (1 << NORTH)) != 0) {
+					relax(cell, cell - width, distance);
+				}
+				if ((open & (1 << WEST)) != 0) {
+					relax(cell, cell - 1, distance);
+				}
+				if ((open & (1 << SOUTH)) != 0) {
+					relax(cell, cell + width, distance);
+				}
+				if ((open & (1 << EAST)) != 0) {
+					relax(cell, cell + 1, distance);
+				}
+			}
+			return -1;
+		}
+
+		int[] pathTo(int source, int target) {
+			int length = 1;
+			for (int cell = target; cell != source; cell = parents[cell]) {
+				length++;
+			}
+			int[] path = new int[length];
+			int cell = target;
+			for (int i = length - 1; i >= 0; i--) {
+				path[i] = cell;
+				cell = parents[cell];
+			}
+			return path;
+		}
+
+		private void relax(int from, int to, long distance) {
+			if (settled[to] != epoch) {
+				long next = distance + costs[to];
+				if (reached[to] != epoch || next < distances[to]) {
+					reach(to, next, from);
+				}
+			}
+		}
+
+		private void reach(int cell, long distance, int parent) {
+			reached[cell] = epoch;
+			distances[cell] = distance;
+			parents[cell] = parent;
+			push(cell, distance);
+		}
+
+		private void push(int cell, long key) {
+			if (heapSize == heapCells.length) {
+				heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+				heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+			}
+			int i = heapSize++;
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (heapKeys[parent] <= key) {
+					break;
+				}
+				heapCells[i] = heapCells[parent];
+				heapKeys[i] = heapKeys[parent];
+				i = parent;
+			}
+			heapCells[i] = cell;
+			heapKeys[i] = key;
+		}
+
+		private void pop() {
+			int cell = heapCells[--heapSize];
+			long key = heapKeys[heapSize];
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= heapSize) {
+					break;
+				}
+				if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+					child++;
+				}
+				if (key <= heapKeys[child]) {
+					break;
+				}
+				heapCells[i] = heapCells[child];
+				heapKeys[i] = heapKeys[child];
+				i = child;
+			}
+			heapCells[i] = cell;
+			heapKeys[i] = key;
+		}
+	}
+}
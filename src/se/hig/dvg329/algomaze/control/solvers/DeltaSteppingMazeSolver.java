@@ -0,0 +1,359 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * Solves a {@link Maze} with delta-stepping, a parallel variant of Dijkstra's algorithm that settles
+ * many cells at once instead of one at a time. Cells are kept in buckets of distances that are
+ * {@code delta} wide, and the buckets are processed in order in phases:
+ * <ol>
+ * <li>The cells of the lowest bucket relax their light passages, those into cells that cost at most
+ * {@code delta}, in parallel. Cells that get a shorter distance are put into the bucket of that
+ * distance, which may be the current one, and this is repeated until the current bucket stays empty.</li>
+ * <li>All cells removed from the bucket then relax their heavy passages in parallel. These can only
+ * reach later buckets, so each is relaxed once.</li>
+ * </ol>
+ * The distances are an {@link AtomicLongArray} that the workers lower with compare-and-set, so two
+ * workers relaxing the same cell keep the smaller distance. The buckets are filled on the calling
+ * thread between the parallel steps, where cells that appear twice or were moved to an earlier bucket
+ * are skipped. Since a passage leads at most {@code maxCost / delta} buckets ahead, the buckets form a
+ * ring of that many lists. The search stops when the bucket of the end has been processed.
+ * <p>
+ * A small delta makes the search close to Dijkstra's algorithm, with little parallel work per step,
+ * and a large delta gives each step more cells but relaxes some cells more than once. The walls and
+ * the terrain are copied before the search, so the {@link Maze} is only touched on the calling thread.
+ * Like {@link DijkstraMazeSolver}, the cost of a step is the cost of entering the next {@link Cell}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class DeltaSteppingMazeSolver implements MazeSolver {
+
+	public static final int DEFAULT_DELTA = 32;
+
+	private static final long INFINITY = Long.MAX_VALUE;
+	private static final int NORTH = 0, WEST = 1, SOUTH = 2, EAST = 3;
+	/**
+	 * The smallest number of cells of a step worth splitting among the workers.
+	 */
+	private static final int PARALLEL_THRESHOLD = 2048;
+	private static final int CELLS_PER_TASK = 1024;
+
+	private final int delta;
+	private final ForkJoinPool pool;
+	private int width;
+	private byte[] passages = new byte[0];
+	private short[] costs = new short[0];
+	private AtomicLongArray distances = new AtomicLongArray(0);
+	private int[] roundStamps = new int[0], bucketStamps = new int[0];
+	private int round, bucketStamp;
+	private IntList[] buckets;
+	private long distance = -1;
+	private SolverStatistics statistics = SolverStatistics.NONE;
+
+	/**
+	 * Constructs a {@code DeltaSteppingMazeSolver} with a delta of {@link #DEFAULT_DELTA} that runs on the
+	 * common {@link ForkJoinPool}.
+	 */
+	public DeltaSteppingMazeSolver() {
+		this(DEFAULT_DELTA, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs a {@code DeltaSteppingMazeSolver}.
+	 * @param delta the width of a bucket.
+	 * @param pool the pool to relax the passages on.
+	 * @throws IllegalArgumentException if delta is smaller than one.
+	 */
+	public DeltaSteppingMazeSolver(int delta, ForkJoinPool pool) throws IllegalArgumentException {
+		if (delta < 1) {
+			throw new IllegalArgumentException("The width of a bucket must be at least one.");
+		}
+		this.delta = delta;
+		this.pool = pool;
+	}
+
+	/**
+	 * Solves a {@link Maze}. Sets the value of every {@link Cell} that was given a distance to
+	 * {@link CellValue#VISITED} and of the cells of the shortest path to {@link CellValue#SOLUTION}.
+	 * @param maze the {@link Maze} to solve.
+	 */
+	@Override
+	public void solve(Maze maze) {
+		width = maze.getWidth();
+		int cells = width * maze.getHeight();
+		int start = maze.getStart().getY() * width + maze.getStart().getX();
+		int end = maze.getEnd().getY() * width + maze.getEnd().getX();
+		int maxCost = snapshot(maze, cells);
+
+		buckets = new IntList[maxCost / delta + 2];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new IntList();
+		}
+		LongAdder enqueued = new LongAdder(), decreased = new LongAdder();
+		long dequeued = 0, settled = 0;
+		distances.set(start, 0);
+		buckets[0].add(start);
+		enqueued.increment();
+		long pending = 1;
+		IntList removed = new IntList();
+
+		for (long bucket = 0; pending > 0 && distances.get(end) / delta >= bucket; bucket++) {
+			IntList current = buckets[(int) (bucket % buckets.length)];
+			if (current.size == 0) {
+				continue;
+			}
+			removed.size = 0;
+			if (++bucketStamp == 0) {
+				Arrays.fill(bucketStamps, 0);
+				bucketStamp = 1;
+			}
+			while (current.size > 0) {
+				IntList frontier = current;
+				current = new IntList();
+				buckets[(int) (bucket % buckets.length)] = current;
+				pending -= frontier.size;
+				dequeued += frontier.size;
+				frontier = live(frontier, bucket, removed);
+				pending += distribute(relax(frontier, true, enqueued, decreased));
+			}
+			settled += removed.size;
+			pending += distribute(relax(removed, false, enqueued, decreased));
+		}
+
+		distance = distances.get(end) == INFINITY ? -1 : distances.get(end);
+		statistics = new SolverStatistics(settled, enqueued.sum(), dequeued, decreased.sum());
+		buckets = null;
+		mark(maze, cells, start, end);
+	}
+
+	/**
+	 * Copies the passages and costs of a {@link Maze} and resets the distances.
+	 * @return the highest cost of a cell.
+	 */
+	private int snapshot(Maze maze, int cells) {
+		if (passages.length < cells) {
+			passages = new byte[cells];
+			costs = new short[cells];
+			distances = new AtomicLongArray(cells);
+			roundStamps = new int[cells];
+			bucketStamps = new int[cells];
+			round = 0;
+			bucketStamp = 0;
+		}
+		int height = maze.getHeight();
+		int maxCost = 1;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Cell cell = maze.getCell(x, y);
+				// A passage only counts if both cells are open towards each other.
+				int open = 0;
+				if (cell.hasNorth() && y > 0 && maze.getCell(x, y - 1).hasSouth()) {
+					open |= 1 << NORTH;
+				}
+				if (cell.hasWest() && x > 0 && maze.getCell(x - 1, y).hasEast()) {
+					open |= 1 << WEST;
+				}
+				if (cell.hasSouth() && y < height - 1 && maze.getCell(x, y + 1).hasNorth()) {
+					open |= 1 << SOUTH;
+				}
+				if (cell.hasEast() && x < width - 1 && maze.getCell(x + 1, y).hasWest()) {
+					open |= 1 << EAST;
+				}
+				int index = y * width + x;
+				passages[index] = (byte) open;
+				costs[index] = (short) maze.getTraversalCost(x, y);
+				maxCost = Math.max(maxCost, costs[index]);
+				distances.set(index, INFINITY);
+			}
+		}
+		return maxCost;
+	}
+
+	/**
+	 * Removes the cells of a bucket that have moved to an earlier bucket or appear more than once in this
+	 * round, and adds the rest to the cells removed from the bucket unless they already are.
+	 */
+	private IntList live(IntList frontier, long bucket, IntList removed) {
+		if (++round == 0) {
+			Arrays.fill(roundStamps, 0);
+			round = 1;
+		}
+		int size = 0;
+		for (int i = 0; i < frontier.size; i++) {
+			int cell = frontier.values[i];
+			if (roundStamps[cell] != round && distances.get(cell) / delta == bucket) {
+				roundStamps[cell] = round;
+				frontier.values[size++] = cell;
+				if (bucketStamps[cell] != bucketStamp) {
+					bucketStamps[cell] = bucketStamp;
+					removed.add(cell);
+				}
+			}
+		}
+		frontier.size = size;
+		return frontier;
+	}
+
+	/**
+	 * Relaxes the light or heavy passages out of some cells, in parallel if there are many of them.
+	 * @return the cells whose distance was lowered, one list per task.
+	 */
+	private IntList[] relax(IntList cells, boolean light, LongAdder enqueued, LongAdder decreased) {
+		if (cells.size < PARALLEL_THRESHOLD) {
+			IntList improved = new IntList();
+			relax(cells, 0, cells.size, light, improved, decreased);
+			enqueued.add(improved.size);
+			return new IntList[] { improved };
+		}
+		int tasks = (cells.size + CELLS_PER_TASK - 1) / CELLS_PER_TASK;
+		IntList[] improved = new IntList[tasks];
+		pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(task -> {
+			improved[task] = new IntList();
+			relax(cells, task * CELLS_PER_TASK, Math.min(cells.size, (task + 1) * CELLS_PER_TASK), light,
+					improved[task], decreased);
+			enqueued.add(improved[task].size);
+		})).join();
+		return improved;
+	}
+
+	private void relax(IntList cells, int from, int to, boolean light, IntList improved, LongAdder decreased) {
+		for (int i = from; i < to; i++) {
+			int cell = cells.values[i];
+			long distance = distances.get(cell);
+			int open = passages[cell];
+			for (int direction = NORTH; direction <= EAST; direction++) {
+				if ((open & (1 << direction)) == 0) {
+					continue;
+				}
+				int neighbor = neighborOf(cell, direction);
+				int cost = costs[neighbor];
+				if ((cost <= delta) == light && lower(neighbor, distance + cost, decreased)) {
+					improved.add(neighbor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Lowers the distance of a cell with compare-and-set unless another worker got there first with a
+	 * distance that is at least as short.
+	 * @return true if the distance was lowered.
+	 */
+	private boolean lower(int cell, long distance, LongAdder decreased) {
+		long old;
+		do {
+			old = distances.get(cell);
+			if (distance >= old) {
+				return false;
+			}
+		} while (!distances.compareAndSet(cell, old, distance));
+		if (old != INFINITY) {
+			decreased.increment();
+		}
+		return true;
+	}
+
+	/**
+	 * Puts cells into the buckets of their distances.
+	 * @return the number of cells put into buckets.
+	 */
+	private long distribute(IntList[] improved) {
+		long count = 0;
+		for (IntList list : improved) {
+			for (int i = 0; i < list.size; i++) {
+				int cell = list.values[i];
+				buckets[(int) (distances.get(cell) / delta % buckets.length)].add(cell);
+			}
+			count += list.size;
+		}
+		return count;
+	}
+
+	/**
+	 * Marks the reached cells and follows the shortest distances back from the end to mark the solution.
+	 */
+	private void mark(Maze maze, int cells, int start, int end) {
+		for (int i = 0; i < cells; i++) {
+			if (distances.get(i) != INFINITY) {
+				maze.getCell(i % width, i / width).setValue(CellValue.VISITED);
+			}
+		}
+		if (distance < 0) {
+			return;
+		}
+		int cell = end;
+		markAsSolution(maze.getCell(cell % width, cell / width));
+		while (cell != start) {
+			int next = -1;
+			for (int direction = NORTH; direction <= EAST && next < 0; direction++) {
+				int neighbor = neighborOf(cell, direction);
+				if ((passages[cell] & (1 << direction)) != 0
+						&& distances.get(neighbor) + costs[cell] == distances.get(cell)) {
+					next = neighbor;
+				}
+			}
+			cell = next;
+			markAsSolution(maze.getCell(cell % width, cell / width));
+		}
+	}
+
+	private int neighborOf(int cell, int direction) {
+		switch (direction) {
+		case NORTH:
+			return cell - width;
+		case WEST:
+			return cell - 1;
+		case SOUTH:
+			return cell + width;
+		default:
+			return cell + 1;
+		}
+	}
+
+	/**
+	 * Returns the length of the shortest path found by the last call to {@link #solve(Maze)}.
+	 * @return the sum of the costs of entering each cell of the path after the start, or -1 if the end
+	 * cannot be reached.
+	 */
+	public long getDistance() {
+		return distance;
+	}
+
+	@Override
+	public SolverStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * A growable list of {@code int}s.
+	 */
+	private static class IntList {
+
+		private int[] values = new int[16];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+	}
+
+	/**
+	 * Returns the name of the algorithm used in this {@link MazeSolver}.
+	 * @return the name of the algorithm used in this {@link MazeSolver}.
+	 */
+	public String toString() {
+		return "Delta-stepping";
+	}
+}
@@ -1,6 +1,5 @@
 package se.hig.dvg329.algomaze.control.solvers;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 
 import se.hig.dvg329.algomaze.model.Cell;
@@ -18,13 +17,26 @@ import se.hig.dvg329.algomaze.model.Cell.CellValue;
  */
 class DijkstraMazeSolver implements MazeSolver {
 	
+	private int[] reached = new int[0], visited = new int[0];
+	private int[] previous = new int[0];
+	private long[] distances = new long[0];
+	private FibonacciHeap.Node<?>[] nodeIndex = new FibonacciHeap.Node<?>[0];
+	private int epoch;
+	private SolverStatistics statistics = SolverStatistics.NONE;
+	
 	/**
-	 * Constructs a {@code DijkstraMazeSolver}.
+	 * Constructs a {@code DijkstraMazeSolver}. The scratch arrays of the solver are kept between calls
+	 * to {@link #solve(Maze)} and only reallocated when a larger {@link Maze} is solved. Instead of being
+	 * cleared, each call gets a new epoch: the distance, index of the previous cell and heap node of a {@link Cell} are
+	 * only valid if its {@code reached} stamp is the current epoch, and it is visited if its
+	 * {@code visited} stamp is. The heap nodes hold the {@link Cell}s, so they are cleared at the end of
+	 * each call to keep the solver from holding on to the last {@link Maze}.
 	 */
 	public DijkstraMazeSolver() {}
 	
 	/**
-	 * Solves a given {@link Maze} using Dijkstra's shortest path algorithm.
+	 * Solves a given {@link Maze} using Dijkstra's shortest path algorithm. The length of a step is the
+	 * cost of entering the next {@link Cell}, see {@link Maze#getTraversalCost(int, int)}.
 	 * Sets the value of each {@link Cell} it visits to {@link CellValue#VISITED} and set the value
 	 * of each {@link Cell} in the solution set to {@link CellValue#SOLUTION}.
 	 * @param maze The {@link Maze} to solve.
@@ -35,92 +47,108 @@ class DijkstraMazeSolver implements MazeSolver {
 		int width = maze.getWidth();
 		int height = maze.getHeight();
 		int total = width * height;
-		Cell start = maze.getStart();
-		Cell end = maze.getEnd();
-		
-		boolean[] visited = new boolean[total];
-		
-		Cell[] previous = new Cell[total];
-		
-		int[] distances = new int[total];
-		Arrays.fill(distances, Integer.MAX_VALUE);
-		
-		FibonacciHeap<Cell> unvisited = new FibonacciHeap<>();
 		
-		ArrayList<FibonacciHeap.Node<Cell>> nodeIndex = new ArrayList<>(total);
+		if (visited.length < total) {
+			reached = new int[total];
+			visited = new int[total];
+			previous = new int[total];
+			distances = new long[total];
+			nodeIndex = new FibonacciHeap.Node<?>[total];
+			epoch = 0;
+		}
+		if (++epoch == 0) {
+			Arrays.fill(reached, 0);
+			Arrays.fill(visited, 0);
+			epoch = 1;
+		}
 		
-		for (int i = 0; i <= total; i++) {
-			nodeIndex.add(null);
+		try {
+			search(maze, width, total);
 		}
+		finally {
+			Arrays.fill(nodeIndex, 0, total, null);
+		}
+	}
+
+	private void search(Maze maze, int width, int total) {
+		Cell start = maze.getStart();
+		Cell end = maze.getEnd();
+		FibonacciHeap<Cell> unvisited = new FibonacciHeap<>();
+		long visitedCells = 0;
 		
-		distances[start.getX() * width + start.getY()] = 0;
-		FibonacciHeap.Node<Cell> startNode = unvisited.enqueue(start, 0);
-		nodeIndex.set(start.getX() * width + start.getY(), startNode);
+		int startIndex = start.getY() * width + start.getX();
+		reached[startIndex] = epoch;
+		distances[startIndex] = 0;
+		previous[startIndex] = -1;
+		nodeIndex[startIndex] = unvisited.enqueue(start, 0);
 		
 		// Dijkstras algoritm
 		while(unvisited.size() > 0) {
 			FibonacciHeap.Node<Cell> n = unvisited.dequeueMin();
 			
 			Cell u = n.getValue();
-			int uPosIndex = u.getX() * width + u.getY();
+			int uPosIndex = u.getY() * width + u.getX();
 			
-			if (distances[uPosIndex] == Integer.MAX_VALUE) {
-				break;
-			}
 			if (u.getX() == end.getX() && u.getY() == end.getY()) {
 				break;
 			}
 			for (int i = 0; i < 4; i++) {
 				int vPosIndex = 0;
-				Cell v = new Cell(0, 0, CellValue.NONE);
+				Cell v = null;
 				if (u.hasNorth() && i == 0) {
-					vPosIndex = uPosIndex - 1;
+					vPosIndex = uPosIndex - width;
 					v = maze.getNorthNeighborOf(u);
 				}
 				else if (u.hasWest() && i == 1) {
-					vPosIndex = uPosIndex - width;
+					vPosIndex = uPosIndex - 1;
 					v = maze.getWestNeighborOf(u);
 				}
 				else if (u.hasSouth() && i == 2) {
-					vPosIndex = uPosIndex + 1;
+					vPosIndex = uPosIndex + width;
 					v = maze.getSouthNeighborOf(u);
 				}
 				else if (u.hasEast() && i == 3) {
-					vPosIndex = uPosIndex + width;
+					vPosIndex = uPosIndex + 1;
 					v = maze.getEastNeighborOf(u);
 				}
 				
-				if (visited[vPosIndex] == false) {
-					int d = Math.abs(v.getX() - u.getX()) + Math.abs(v.getY() - u.getY());
+				if (v != null && visited[vPosIndex] != epoch) {
+					int d = maze.getTraversalCost(v.getX(), v.getY());
 					
-					int newDistance = distances[uPosIndex] + d;
+					long newDistance = distances[uPosIndex] + d;
 					
-					if (newDistance < distances[vPosIndex]) {
-						FibonacciHeap.Node<Cell> vNode = nodeIndex.get(vPosIndex);
-						if (vNode == null) {
-							vNode = unvisited.enqueue(v, newDistance);
-							nodeIndex.set(vPosIndex, vNode);
-							distances[vPosIndex] = newDistance;
-							previous[vPosIndex] = u;
-						}
-						else {
-							unvisited.decreaseKey(vNode, newDistance);
-							distances[vPosIndex] = newDistance;
-							previous[vPosIndex] = u;
-						}
+					if (reached[vPosIndex] != epoch) {
+						reached[vPosIndex] = epoch;
+						nodeIndex[vPosIndex] = unvisited.enqueue(v, newDistance);
+						distances[vPosIndex] = newDistance;
+						previous[vPosIndex] = uPosIndex;
+					}
+					else if (newDistance < distances[vPosIndex]) {
+						@SuppressWarnings("unchecked")
+						FibonacciHeap.Node<Cell> vNode = (FibonacciHeap.Node<Cell>) nodeIndex[vPosIndex];
+						unvisited.decreaseKey(vNode, newDistance);
+						distances[vPosIndex] = newDistance;
+						previous[vPosIndex] = uPosIndex;
 					}
 				}
 			}
-			visited[uPosIndex] = true;
+			visited[uPosIndex] = epoch;
+			visitedCells++;
 			u.setValue(CellValue.VISITED);
 		}
-		Cell current = end;
-		while (current != null) {
-			markAsSolution(current);
-			current = previous[current.getX() * width + current.getY()];
+		statistics = new SolverStatistics(visitedCells, unvisited.getEnqueueCount(), unvisited.getDequeueCount(),
+				unvisited.getDecreaseKeyCount());
+		int endIndex = end.getY() * width + end.getX();
+		for (int i = reached[endIndex] == epoch ? endIndex : -1; i >= 0; i = previous[i]) {
+			markAsSolution(maze.getCell(i % width, i / width));
 		}
  	}
 
+	@Override
+	public SolverStatistics getStatistics() {
+		return statistics;
+	}
+	
 	/**
 	 * Returns the name of the algorithm used in this {@link MazeSolver}.
 	 * @return the name of the algorithm used in this {@link MazeSolver}. 
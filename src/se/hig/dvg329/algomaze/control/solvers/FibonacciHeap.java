@@ -18,6 +18,7 @@ public class FibonacciHeap<E> {
 	
 	private Node<E> min;
 	private int size;
+	private long enqueueCount, dequeueCount, decreaseKeyCount;
 	
 	/**
 	 * Constructs an empty {@code FibonacciHeap}.
@@ -37,6 +38,7 @@ public class FibonacciHeap<E> {
 		min = mergeLists(min, newNode);
 		
 		size++;
+		enqueueCount++;
 		return newNode;
 	}
 	
@@ -64,6 +66,7 @@ public class FibonacciHeap<E> {
 		}
 		Node<E> minElement = min;
 		size--;
+		dequeueCount++;
 		
 		if (min.next == min) {
 			min = null;
@@ -166,6 +169,7 @@ public class FibonacciHeap<E> {
 			throw new IllegalArgumentException("Cannot decrease key to a greater value.");
 		}
 		node.priority = newPriority;
+		decreaseKeyCount++;
 		
 		if (node.parent != null && node.priority <= node.parent.priority) {
 			cutNode(node);
@@ -202,6 +206,33 @@ public class FibonacciHeap<E> {
 		return size;
 	}
 	
+	/**
+	 * Returns the number of times {@link #enqueue(Object, double)} has been called on this
+	 * {@code FibonacciHeap}.
+	 * @return the number of enqueue operations.
+	 */
+	public long getEnqueueCount() {
+		return enqueueCount;
+	}
+	
+	/**
+	 * Returns the number of times {@link #dequeueMin()} has removed an element from this
+	 * {@code FibonacciHeap}.
+	 * @return the number of dequeueMin operations.
+	 */
+	public long getDequeueCount() {
+		return dequeueCount;
+	}
+	
+	/**
+	 * Returns the number of times {@link #decreaseKey(Node, double)} has changed a priority in this
+	 * {@code FibonacciHeap}.
+	 * @return the number of decreaseKey operations.
+	 */
+	public long getDecreaseKeyCount() {
+		return decreaseKeyCount;
+	}
+	
 	private void cutNode(Node<E> cutNode) {
 		cutNode.isMarked = false;
 		
@@ -0,0 +1,358 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import java.util.Arrays;
+import java.util.Observable;
+import java.util.Observer;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * Solves a {@link Maze} with Lifelong Planning A* (LPA*), keeping the search between calls to
+ * {@link #solve(Maze)} so that a {@link Maze} whose walls have changed is solved again by repairing
+ * only the part of the search the changes affect.
+ * <p>
+ * The solver observes every {@link Cell} of the {@link Maze} it last solved and keeps a snapshot of
+ * their walls. When a notification shows that a wall has changed, the two cells on either side are
+ * remembered, and the next call to {@link #solve(Maze)} updates their {@code rhs} values (the best
+ * distance through a neighbour) and expands only cells whose distance is no longer consistent. The
+ * first call, a call with another {@link Maze}, start or end, or a call after the {@link Maze} has been
+ * cleared, starts a new search.
+ * <p>
+ * Like {@link DijkstraMazeSolver}, the cost of a step is the cost of entering the next {@link Cell}.
+ * Changes of the terrain are not observed, so {@link #reset()} must be called after changing it. The
+ * Manhattan distance to the end is used as the heuristic, which is admissible since every step costs at
+ * least one. The two parts of an LPA* key are packed into one priority of the {@link FibonacciHeap}, so
+ * distances must stay below 2<sup>32</sup> for the priorities to be exact.
+ * <p>
+ * The solver is not thread-safe: the walls must be changed on the thread that calls {@link #solve(Maze)},
+ * or with other synchronisation between them.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class IncrementalMazeSolver implements MazeSolver, Observer {
+
+	private static final long INFINITY = Long.MAX_VALUE / 4;
+	private static final int HEURISTIC_BITS = 21;
+	private static final long HEURISTIC_MASK = (1L << HEURISTIC_BITS) - 1;
+	private static final int NORTH = 0, WEST = 1, SOUTH = 2, EAST = 3;
+
+	private Maze maze;
+	private Cell firstCell;
+	private int width, height, start, goal;
+	private long[] g = new long[0], rhs = new long[0], keys = new long[0];
+	private byte[] walls = new byte[0];
+	private FibonacciHeap.Node<?>[] nodes = new FibonacciHeap.Node<?>[0];
+	private FibonacciHeap<Integer> queue = new FibonacciHeap<>();
+	private int[] pending = new int[16];
+	private boolean[] isPending = new boolean[0];
+	private int pendingCount;
+	private int[] solution = new int[0];
+	private int solutionLength;
+	private long expanded;
+	private SolverStatistics statistics = SolverStatistics.NONE;
+
+	/**
+	 * Constructs an {@code IncrementalMazeSolver} without a search.
+	 */
+	public IncrementalMazeSolver() {}
+
+	/**
+	 * Solves a {@link Maze}, reusing the search of the previous call if it was for the same {@link Maze}.
+	 * Sets the value of each {@link Cell} expanded by this call to {@link CellValue#VISITED}, the cells of
+	 * the previous solution to {@link CellValue#VISITED} and the cells of the new solution to
+	 * {@link CellValue#SOLUTION}.
+	 * @param maze the {@link Maze} to solve.
+	 * @throws IllegalArgumentException if the {@link Maze} is so wide and high that the heuristic does
+	 * not fit in its part of a key.
+	 */
+	@Override
+	public void solve(Maze maze) throws IllegalArgumentException {
+		int startIndex = indexOf(maze, maze.getStart());
+		int goalIndex = indexOf(maze, maze.getEnd());
+		if (maze != this.maze || maze.getCell(0, 0) != firstCell || startIndex != start || goalIndex != goal) {
+			attach(maze, startIndex, goalIndex);
+		}
+		else {
+			for (int i = 0; i < pendingCount; i++) {
+				isPending[pending[i]] = false;
+				updateVertex(pending[i]);
+			}
+		}
+		pendingCount = 0;
+
+		long enqueued = queue.getEnqueueCount();
+		long dequeued = queue.getDequeueCount();
+		long decreased = queue.getDecreaseKeyCount();
+		expanded = 0;
+		computeShortestPath();
+		statistics = new SolverStatistics(expanded, queue.getEnqueueCount() - enqueued,
+				queue.getDequeueCount() - dequeued, queue.getDecreaseKeyCount() - decreased);
+		markSolution();
+	}
+
+	/**
+	 * Records the walls of a {@link Cell} that have changed since the last notification.
+	 */
+	@Override
+	public void update(Observable o, Object arg) {
+		Cell cell = (Cell) o;
+		int index = indexOf(maze, cell);
+		int state = wallsOf(cell);
+		int changed = state ^ walls[index];
+		if (changed == 0) {
+			return;
+		}
+		walls[index] = (byte) state;
+		addPending(index);
+		for (int direction = NORTH; direction <= EAST; direction++) {
+			int neighbor = neighborOf(index, direction);
+			if ((changed & (1 << direction)) != 0 && neighbor >= 0) {
+				addPending(neighbor);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the search and stops observing the {@link Cell}s of the last {@link Maze}, so that the next
+	 * call to {@link #solve(Maze)} starts from scratch.
+	 */
+	@Override
+	public void reset() {
+		detach();
+	}
+
+	/**
+	 * Returns the length of the shortest path found by the last call to {@link #solve(Maze)}.
+	 * @return the sum of the costs of entering each cell of the path after the start, or -1 if the end
+	 * cannot be reached.
+	 */
+	public long getDistance() {
+		return maze == null || g[goal] >= INFINITY ? -1 : g[goal];
+	}
+
+	@Override
+	public SolverStatistics getStatistics() {
+		return statistics;
+	}
+
+	private void attach(Maze maze, int startIndex, int goalIndex) {
+		if ((long) maze.getWidth() + maze.getHeight() > HEURISTIC_MASK) {
+			throw new IllegalArgumentException("The maze is too large for the incremental solver.");
+		}
+		detach();
+		this.maze = maze;
+		firstCell = maze.getCell(0, 0);
+		width = maze.getWidth();
+		height = maze.getHeight();
+		start = startIndex;
+		goal = goalIndex;
+		int cells = width * height;
+		if (g.length < cells) {
+			g = new long[cells];
+			rhs = new long[cells];
+			keys = new long[cells];
+			walls = new byte[cells];
+			nodes = new FibonacciHeap.Node<?>[cells];
+			isPending = new boolean[cells];
+		}
+		else {
+			Arrays.fill(nodes, 0, cells, null);
+			Arrays.fill(isPending, 0, cells, false);
+		}
+		Arrays.fill(g, 0, cells, INFINITY);
+		Arrays.fill(rhs, 0, cells, INFINITY);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Cell cell = maze.getCell(x, y);
+				walls[y * width + x] = (byte) wallsOf(cell);
+				cell.addObserver(this);
+			}
+		}
+		queue = new FibonacciHeap<>();
+		rhs[start] = 0;
+		insert(start);
+	}
+
+	private void detach() {
+		if (maze != null) {
+			for (int y = 0; y < maze.getHeight(); y++) {
+				for (int x = 0; x < maze.getWidth(); x++) {
+					maze.getCell(x, y).deleteObserver(this);
+				}
+			}
+		}
+		maze = null;
+		firstCell = null;
+		pendingCount = 0;
+		solutionLength = 0;
+	}
+
+	private void computeShortestPath() {
+		while (!queue.isEmpty()) {
+			int top = queue.getMin().getValue();
+			if (keys[top] >= keyOf(goal) && rhs[goal] == g[goal]) {
+				return;
+			}
+			queue.dequeueMin();
+			nodes[top] = null;
+			expanded++;
+			if (g[top] > rhs[top]) {
+				g[top] = rhs[top];
+				cellOf(top).setValue(CellValue.VISITED);
+			}
+			else {
+				g[top] = INFINITY;
+				updateVertex(top);
+			}
+			for (int direction = NORTH; direction <= EAST; direction++) {
+				if (isPassage(top, direction)) {
+					updateVertex(neighborOf(top, direction));
+				}
+			}
+		}
+	}
+
+	private void updateVertex(int index) {
+		if (index != start) {
+			long best = INFINITY;
+			for (int direction = NORTH; direction <= EAST; direction++) {
+				if (isPassage(index, direction)) {
+					long distance = g[neighborOf(index, direction)];
+					if (distance < best) {
+						best = distance;
+					}
+				}
+			}
+			rhs[index] = best >= INFINITY ? INFINITY : best + maze.getTraversalCost(index % width, index / width);
+		}
+		@SuppressWarnings("unchecked")
+		FibonacciHeap.Node<Integer> node = (FibonacciHeap.Node<Integer>) nodes[index];
+		if (node != null) {
+			if (g[index] == rhs[index]) {
+				queue.delete(node);
+				nodes[index] = null;
+			}
+			else {
+				long key = keyOf(index);
+				if (key < keys[index]) {
+					queue.decreaseKey(node, key);
+					keys[index] = key;
+				}
+				else if (key > keys[index]) {
+					queue.delete(node);
+					insert(index);
+				}
+			}
+		}
+		else if (g[index] != rhs[index]) {
+			insert(index);
+		}
+	}
+
+	private void insert(int index) {
+		keys[index] = keyOf(index);
+		nodes[index] = queue.enqueue(index, keys[index]);
+	}
+
+	/**
+	 * Packs the LPA* key [min(g, rhs) + h; min(g, rhs)] into one long. Since the second part is the first
+	 * minus h, ordering by it is ordering by h in reverse, which needs far fewer bits.
+	 */
+	private long keyOf(int index) {
+		long distance = Math.min(g[index], rhs[index]);
+		if (distance >= INFINITY) {
+			return Long.MAX_VALUE;
+		}
+		long heuristic = Math.abs(index % width - goal % width) + Math.abs(index / width - goal / width);
+		return ((distance + heuristic) << HEURISTIC_BITS) | (HEURISTIC_MASK - heuristic);
+	}
+
+	private void markSolution() {
+		for (int i = 0; i < solutionLength; i++) {
+			Cell cell = cellOf(solution[i]);
+			if (cell.getValue() == CellValue.SOLUTION) {
+				cell.setValue(CellValue.VISITED);
+			}
+		}
+		solutionLength = 0;
+		if (g[goal] >= INFINITY) {
+			return;
+		}
+		if (solution.length < width * height) {
+			solution = new int[width * height];
+		}
+		int current = goal;
+		solution[solutionLength++] = current;
+		while (current != start && solutionLength < width * height) {
+			int next = -1;
+			for (int direction = NORTH; direction <= EAST; direction++) {
+				if (isPassage(current, direction)) {
+					int neighbor = neighborOf(current, direction);
+					if (next < 0 || g[neighbor] < g[next]) {
+						next = neighbor;
+					}
+				}
+			}
+			current = next;
+			solution[solutionLength++] = current;
+		}
+		for (int i = 0; i < solutionLength; i++) {
+			markAsSolution(cellOf(solution[i]));
+		}
+	}
+
+	private void addPending(int index) {
+		if (!isPending[index]) {
+			isPending[index] = true;
+			if (pendingCount == pending.length) {
+				pending = Arrays.copyOf(pending, pending.length * 2);
+			}
+			pending[pendingCount++] = index;
+		}
+	}
+
+	private boolean isPassage(int index, int direction) {
+		int neighbor = neighborOf(index, direction);
+		return neighbor >= 0 && (walls[index] & (1 << direction)) != 0
+				&& (walls[neighbor] & (1 << ((direction + 2) % 4))) != 0;
+	}
+
+	private int neighborOf(int index, int direction) {
+		int x = index % width;
+		int y = index / width;
+		switch (direction) {
+		case NORTH:
+			return y > 0 ? index - width : -1;
+		case WEST:
+			return x > 0 ? index - 1 : -1;
+		case SOUTH:
+			return y < height - 1 ? index + width : -1;
+		default:
+			return x < width - 1 ? index + 1 : -1;
+		}
+	}
+
+	private Cell cellOf(int index) {
+		return maze.getCell(index % width, index / width);
+	}
+
+	private static int indexOf(Maze maze, Cell cell) {
+		return cell.getY() * maze.getWidth() + cell.getX();
+	}
+
+	private static int wallsOf(Cell cell) {
+		return (cell.hasNorth() ? 1 << NORTH : 0) | (cell.hasWest() ? 1 << WEST : 0)
+				| (cell.hasSouth() ? 1 << SOUTH : 0) | (cell.hasEast() ? 1 << EAST : 0);
+	}
+
+	/**
+	 * Returns the name of the algorithm used in this {@link MazeSolver}.
+	 * @return the name of the algorithm used in this {@link MazeSolver}.
+	 */
+	public String toString() {
+		return "Lifelong Planning A*";
+	}
+}
@@ -29,4 +29,20 @@ public interface MazeSolver {
 		cell.setValue(CellValue.SOLUTION);
 	};
 	
+	/**
+	 * Returns the amount of work done by the last call to {@link #solve(Maze)}.
+	 * @return the statistics of the last solve, or {@link SolverStatistics#NONE} if this
+	 * {@code MazeSolver} does not record any.
+	 */
+	default SolverStatistics getStatistics() {
+		return SolverStatistics.NONE;
+	}
+	
+	/**
+	 * Forgets what this {@code MazeSolver} keeps between calls to {@link #solve(Maze)}, e.g. the
+	 * observers it has registered on the {@link Cell}s of the last {@link Maze}. Called when the
+	 * {@code MazeSolver} is replaced or its {@link Maze} is.
+	 */
+	default void reset() {}
+	
 }
@@ -1,28 +1,55 @@
 package se.hig.dvg329.algomaze.control.solvers;
 
+import se.hig.dvg329.algomaze.control.registry.AlgorithmRegistry;
+
 /**
- * The {@code MazeSolverFactory} class generates {@link MazeSolver} objects.
+ * The {@code MazeSolverFactory} class generates {@link MazeSolver} objects. The solvers are found as
+ * {@link MazeSolverProvider}s with a {@link java.util.ServiceLoader} once, when the class is loaded.
  * @author Thomas Lundgren
  * @version 1.0.0
  * @since 1.0.0
  */
 public class MazeSolverFactory {
 
+	private static final AlgorithmRegistry<MazeSolver> REGISTRY = AlgorithmRegistry.load(MazeSolverProvider.class, true);
+
 	/**
 	 * Creates and returns a {@link MazeSolver} by taking in a {@link String} that should
 	 * hold the name of a {@link MazeSolver} that has been implemented. If the name does
 	 * not correspond to an implemented algorithm, this method will return {@code null}.
+	 * The implemented algorithms are "Dijkstra", "Incremental", see {@link IncrementalMazeSolver},
+	 * "OutOfCore", see {@link OutOfCoreMazeSolver}, and "DeltaStepping", see {@link DeltaSteppingMazeSolver},
+	 * as well as those of other registered {@link MazeSolverProvider}s. {@link AlgorithmRegistry#AUTO}
+	 * picks the fastest weighted one, so "OutOfCore", which ignores the terrain, is only used by name.
 	 * @param algorithm the name of the {@link MazeSolver} to be returned.
 	 * @return the {@link MazeSolver} that corresponds to the given {@link String}. If
 	 * an invalid name has been passed in, this method returns null.
 	 */
 	public MazeSolver createMazeSolver(String algorithm) {
-		if (algorithm.equals("Dijkstra")) {
-			return new DijkstraMazeSolver();
-		}
-		else {
-			return null;
-		}
+		return REGISTRY.create(algorithm, 0, 0);
+	}
+	
+	/**
+	 * Creates a {@link MazeSolver} for a size of maze, see {@link #createMazeSolver(String)}.
+	 * {@link AlgorithmRegistry#AUTO} picks the fastest weighted solver that fits in the free heap and falls
+	 * back to the weighted one that needs the least heap.
+	 * @param algorithm the name of the {@link MazeSolver}.
+	 * @param width the width of the maze.
+	 * @param height the height of the maze.
+	 * @return the created {@link MazeSolver}, or null if the algorithm is unknown.
+	 * @since 1.1.0
+	 */
+	public MazeSolver createMazeSolver(String algorithm, int width, int height) {
+		return REGISTRY.create(algorithm, width, height);
+	}
+	
+	/**
+	 * Returns the registry of all known solvers.
+	 * @return the registry of all known solvers.
+	 * @since 1.1.0
+	 */
+	public static AlgorithmRegistry<MazeSolver> getRegistry() {
+		return REGISTRY;
 	}
 	
 }
@@ -0,0 +1,13 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import se.hig.dvg329.algomaze.control.registry.AlgorithmProvider;
+
+/**
+ * The service interface of {@link MazeSolver}s. Implementations are listed in
+ * {@code META-INF/services/se.hig.dvg329.algomaze.control.solvers.MazeSolverProvider} and found by
+ * {@link MazeSolverFactory}, so a solver can be added from another jar without changing the factory.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public interface MazeSolverProvider extends AlgorithmProvider<MazeSolver> {}
@@ -0,0 +1,95 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import se.hig.dvg329.algomaze.control.registry.AlgorithmDescriptor;
+
+/**
+ * Holds the {@link MazeSolverProvider}s of the solvers of AlgoMaze. The time per cell is measured on a
+ * braided 1000 by 1000 maze with terrain and without observers, and the heap per cell counts the arrays
+ * and heap nodes that grow with the maze. Only the weighted solvers find the shortest paths by the
+ * traversal costs of a terrain.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public final class MazeSolverProviders {
+
+	private MazeSolverProviders() {}
+
+	/**
+	 * Dijkstra's algorithm, with four scratch arrays and a {@link FibonacciHeap} node per reached cell.
+	 */
+	public static final class Dijkstra implements MazeSolverProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("Dijkstra", 80, 1100, false, false,
+				true);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeSolver create() {
+			return new DijkstraMazeSolver();
+		}
+	}
+
+	/**
+	 * Lifelong Planning A*, which also observes every cell to repair its search later.
+	 */
+	public static final class Incremental implements MazeSolverProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("Incremental", 130, 900, false,
+				false, true);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeSolver create() {
+			return new IncrementalMazeSolver();
+		}
+	}
+
+	/**
+	 * Breadth-first search over a tiled file, whose arrays move to mapped files beyond their budget. It
+	 * ignores the terrain, so it is not weighted and {@code auto} never picks it.
+	 */
+	public static final class OutOfCore implements MazeSolverProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("OutOfCore", 0, 1500, false, true);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeSolver create() {
+			return new OutOfCoreMazeSolver();
+		}
+	}
+
+	/**
+	 * Delta-stepping, which relaxes the cells of large buckets on all cores. It is not marked as parallel,
+	 * and its time is the one measured on one core, since how it scales with the cores has not been
+	 * measured and the buckets of a maze seldom grow large enough to be split.
+	 */
+	public static final class DeltaStepping implements MazeSolverProvider {
+
+		private static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor("DeltaStepping", 27, 400, false,
+				false, true);
+
+		@Override
+		public AlgorithmDescriptor getDescriptor() {
+			return DESCRIPTOR;
+		}
+
+		@Override
+		public MazeSolver create() {
+			return new DeltaSteppingMazeSolver();
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongConsumer;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.storage.TileCache;
+import se.hig.dvg329.algomaze.storage.TiledMazeFile;
+
+/**
+ * The {@code OutOfCoreMazeSolver} class solves mazes that are stored in a {@link TiledMazeFile} and may
+ * be larger than the heap. It is a breadth-first search, so every step costs one and the terrain of a
+ * {@link Maze} is ignored. The walls are read through a {@link TileCache} of a bounded number of tiles,
+ * and the search keeps only two arrays, both in a {@link SpillableArray} that moves to a mapped file
+ * when it exceeds the memory budget:
+ * <ul>
+ * <li>the direction back to the parent of every cell, half a byte per cell, where zero means that the
+ * cell has not been reached, and</li>
+ * <li>the frontier, a ring of cell indices that starts small and doubles when it is full.</li>
+ * </ul>
+ * The path is found by following the directions back from the end, so no distances are stored.
+ * <p>
+ * As a {@link MazeSolver}, it writes the {@link Maze} to a temporary {@link TiledMazeFile} and solves
+ * that, which is mainly useful for comparing it with the other solvers.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class OutOfCoreMazeSolver implements MazeSolver {
+
+	public static final int DEFAULT_TILE_SIZE = 256, DEFAULT_MAX_TILES = 64;
+	public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+	private static final int NORTH = TiledMazeFile.NORTH, WEST = TiledMazeFile.WEST,
+			SOUTH = TiledMazeFile.SOUTH, EAST = TiledMazeFile.EAST;
+	private static final int SOURCE = 5;
+	private static final int INITIAL_FRONTIER = 1024;
+
+	private final int tileSize, maxTiles;
+	private final long memoryBudget;
+	private SolverStatistics statistics = SolverStatistics.NONE;
+	private long cacheMisses;
+	private boolean spilled;
+
+	/**
+	 * Constructs an {@code OutOfCoreMazeSolver} with the default tile size, cache size and memory budget.
+	 */
+	public OutOfCoreMazeSolver() {
+		this(DEFAULT_TILE_SIZE, DEFAULT_MAX_TILES, DEFAULT_MEMORY_BUDGET);
+	}
+
+	/**
+	 * Constructs an {@code OutOfCoreMazeSolver}.
+	 * @param tileSize the tile size used when a {@link Maze} is written to a {@link TiledMazeFile}.
+	 * @param maxTiles the largest number of tiles to keep in memory.
+	 * @param memoryBudget the largest number of bytes of each array of the search to keep on the heap.
+	 * @throws IllegalArgumentException if the tile size is not between one and
+	 * {@link TiledMazeFile#MAX_TILE_SIZE}, the number of tiles is smaller than one or the budget is negative.
+	 */
+	public OutOfCoreMazeSolver(int tileSize, int maxTiles, long memoryBudget) throws IllegalArgumentException {
+		if (tileSize < 1 || tileSize > TiledMazeFile.MAX_TILE_SIZE || maxTiles < 1 || memoryBudget < 0) {
+			throw new IllegalArgumentException("Invalid tile size, number of tiles or memory budget.");
+		}
+		this.tileSize = tileSize;
+		this.maxTiles = maxTiles;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Solves a {@link Maze} through a temporary {@link TiledMazeFile}. Sets the value of every reached
+	 * {@link Cell} to {@link CellValue#VISITED} and of the cells of the shortest path to
+	 * {@link CellValue#SOLUTION}.
+	 * @param maze the {@link Maze} to solve.
+	 * @throws UncheckedIOException if the temporary files cannot be written.
+	 */
+	@Override
+	public void solve(Maze maze) throws UncheckedIOException {
+		int width = maze.getWidth();
+		Path path = null;
+		try {
+			path = Files.createTempFile("algomaze", ".tiles");
+			try (TiledMazeFile file = TiledMazeFile.write(maze, path, tileSize)) {
+				search(file, cell -> maze.getCell((int) (cell % width), (int) (cell / width)).setValue(CellValue.VISITED),
+						cell -> markAsSolution(maze.getCell((int) (cell % width), (int) (cell / width))));
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		finally {
+			if (path != null) {
+				path.toFile().delete();
+			}
+		}
+	}
+
+	/**
+	 * Solves a {@link TiledMazeFile} from its start to its end.
+	 * @param file the maze to solve.
+	 * @param path receives the indices {@code y * width + x} of the cells of the shortest path, from the
+	 * end back to the start.
+	 * @return the number of steps of the shortest path, or -1 if the end cannot be reached.
+	 * @throws IOException if the file or the spilled arrays cannot be read or written.
+	 * @throws IllegalArgumentException if the start or the end of the file has not been set.
+	 */
+	public long solve(TiledMazeFile file, LongConsumer path) throws IOException, IllegalArgumentException {
+		return search(file, cell -> {}, path);
+	}
+
+	private long search(TiledMazeFile file, LongConsumer visit, LongConsumer path) throws IOException {
+		long width = file.getWidth();
+		long height = file.getHeight();
+		long cells = width * height;
+		long start = file.getStart();
+		long end = file.getEnd();
+		if (start < 0 || start >= cells || end < 0 || end >= cells) {
+			throw new IllegalArgumentException("The start and end of the maze must be set.");
+		}
+		TileCache cache = new TileCache(file, maxTiles);
+		long enqueued = 0, dequeued = 0;
+		try (SpillableArray parents = new SpillableArray((cells + 1) >>> 1, memoryBudget);
+				Frontier frontier = new Frontier(cells)) {
+			setParent(parents, start, SOURCE);
+			frontier.add(start);
+			enqueued++;
+			visit.accept(start);
+			boolean found = false;
+			while (!frontier.isEmpty()) {
+				long cell = frontier.remove();
+				dequeued++;
+				if (cell == end) {
+					found = true;
+					break;
+				}
+				int x = (int) (cell % width);
+				int y = (int) (cell / width);
+				int walls = cache.wallsAt(x, y);
+				for (int direction = NORTH; direction <= EAST; direction++) {
+					if ((walls & (1 << direction)) == 0) {
+						continue;
+					}
+					int neighborX = x + (direction == WEST ? -1 : direction == EAST ? 1 : 0);
+					int neighborY = y + (direction == NORTH ? -1 : direction == SOUTH ? 1 : 0);
+					if (neighborX < 0 || neighborY < 0 || neighborX >= width || neighborY >= height) {
+						continue;
+					}
+					int back = (direction + 2) % 4;
+					long neighbor = neighborY * width + neighborX;
+					// A passage only counts if both cells are open towards each other.
+					if (parentOf(parents, neighbor) == 0 && (cache.wallsAt(neighborX, neighborY) & (1 << back)) != 0) {
+						setParent(parents, neighbor, 1 + back);
+						frontier.add(neighbor);
+						enqueued++;
+						visit.accept(neighbor);
+					}
+				}
+			}
+			statistics = new SolverStatistics(dequeued, enqueued, dequeued, 0);
+			cacheMisses = cache.getMisses();
+			spilled = parents.isSpilled() || frontier.isSpilled();
+			return found ? tracePath(parents, width, end, path) : -1;
+		}
+	}
+
+	private static long tracePath(SpillableArray parents, long width, long end, LongConsumer path) {
+		long steps = 0;
+		long cell = end;
+		int parent;
+		while ((parent = parentOf(parents, cell)) != SOURCE) {
+			path.accept(cell);
+			switch (parent - 1) {
+			case NORTH:
+				cell -= width;
+				break;
+			case WEST:
+				cell--;
+				break;
+			case SOUTH:
+				cell += width;
+				break;
+			default:
+				cell++;
+				break;
+			}
+			steps++;
+		}
+		path.accept(cell);
+		return steps;
+	}
+
+	private static int parentOf(SpillableArray parents, long cell) {
+		int both = parents.getByte(cell >>> 1);
+		return (cell & 1) == 0 ? both & 0xF : (both >>> 4) & 0xF;
+	}
+
+	private static void setParent(SpillableArray parents, long cell, int parent) {
+		int both = parents.getByte(cell >>> 1);
+		both = (cell & 1) == 0 ? (both & 0xF0) | parent : (both & 0x0F) | (parent << 4);
+		parents.putByte(cell >>> 1, (byte) both);
+	}
+
+	/**
+	 * The frontier of the search, a ring of cell indices in a {@link SpillableArray}. Every cell is added
+	 * at most once, so the ring never needs to hold more than all cells.
+	 */
+	private class Frontier implements AutoCloseable {
+
+		private final long maxCapacity;
+		private SpillableArray ring;
+		private long capacity, head, size;
+
+		Frontier(long cells) throws IOException {
+			maxCapacity = cells;
+			capacity = Math.min(INITIAL_FRONTIER, cells);
+			ring = new SpillableArray(capacity * Long.BYTES, memoryBudget);
+		}
+
+		void add(long cell) throws IOException {
+			if (size == capacity) {
+				grow();
+			}
+			ring.putLong(((head + size) % capacity) * Long.BYTES, cell);
+			size++;
+		}
+
+		long remove() {
+			long cell = ring.getLong(head * Long.BYTES);
+			head = (head + 1) % capacity;
+			size--;
+			return cell;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		boolean isSpilled() {
+			return ring.isSpilled();
+		}
+
+		private void grow() throws IOException {
+			long newCapacity = Math.min(maxCapacity, capacity * 2);
+			SpillableArray grown = new SpillableArray(newCapacity * Long.BYTES, memoryBudget);
+			for (long i = 0; i < size; i++) {
+				grown.putLong(i * Long.BYTES, ring.getLong(((head + i) % capacity) * Long.BYTES));
+			}
+			ring.close();
+			ring = grown;
+			capacity = newCapacity;
+			head = 0;
+		}
+
+		@Override
+		public void close() {
+			ring.close();
+		}
+	}
+
+	@Override
+	public SolverStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Returns the number of tiles read from the file by the last search.
+	 * @return the number of misses of the {@link TileCache}.
+	 */
+	public long getCacheMisses() {
+		return cacheMisses;
+	}
+
+	/**
+	 * Returns whether an array of the last search exceeded the memory budget and was moved to a file.
+	 * @return true if the last search spilled to disk.
+	 */
+	public boolean hasSpilled() {
+		return spilled;
+	}
+
+	/**
+	 * Returns the name of the algorithm used in this {@link MazeSolver}.
+	 * @return the name of the algorithm used in this {@link MazeSolver}.
+	 */
+	public String toString() {
+		return "Out-of-core breadth-first search";
+	}
+}
@@ -0,0 +1,49 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+/**
+ * A {@code SolverStatistics} object holds the amount of work a {@link MazeSolver} did during its
+ * last call to {@link MazeSolver#solve(se.hig.dvg329.algomaze.model.Maze)}: the number of visited
+ * cells and the number of operations on its priority queue.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class SolverStatistics {
+
+	/**
+	 * The statistics of a {@link MazeSolver} that does not record any.
+	 */
+	public static final SolverStatistics NONE = new SolverStatistics(0, 0, 0, 0);
+
+	private final long visitedCells, enqueueCount, dequeueCount, decreaseKeyCount;
+
+	/**
+	 * Constructs a {@code SolverStatistics} object.
+	 * @param visitedCells the number of cells visited.
+	 * @param enqueueCount the number of enqueue operations on the priority queue.
+	 * @param dequeueCount the number of dequeueMin operations on the priority queue.
+	 * @param decreaseKeyCount the number of decreaseKey operations on the priority queue.
+	 */
+	public SolverStatistics(long visitedCells, long enqueueCount, long dequeueCount, long decreaseKeyCount) {
+		this.visitedCells = visitedCells;
+		this.enqueueCount = enqueueCount;
+		this.dequeueCount = dequeueCount;
+		this.decreaseKeyCount = decreaseKeyCount;
+	}
+
+	public long getVisitedCells() {
+		return visitedCells;
+	}
+
+	public long getEnqueueCount() {
+		return enqueueCount;
+	}
+
+	public long getDequeueCount() {
+		return dequeueCount;
+	}
+
+	public long getDecreaseKeyCount() {
+		return decreaseKeyCount;
+	}
+}
@@ -0,0 +1,102 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@code SpillableArray} is a fixed-length array of bytes that lives on the heap while it fits in a
+ * memory budget and in a memory-mapped temporary file otherwise. A mapped array is split into chunks of
+ * {@value #CHUNK_BITS} bits of address, so it may be longer than a Java array, and the operating system
+ * pages it in and out as it is used. The file is created sparse and deleted when the array is closed.
+ * <p>
+ * {@code long}s must be placed at indices that are multiples of eight, so that none of them crosses
+ * the border between two chunks.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class SpillableArray implements Closeable {
+
+	private static final int CHUNK_BITS = 30;
+	private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+	private final long length;
+	private final ByteBuffer[] chunks;
+	private final Path file;
+
+	/**
+	 * Constructs a {@code SpillableArray} of zeroes.
+	 * @param length the number of bytes of the array.
+	 * @param memoryBudget the largest number of bytes to keep on the heap.
+	 * @throws IOException if the temporary file cannot be created or mapped.
+	 */
+	SpillableArray(long length, long memoryBudget) throws IOException {
+		this.length = length;
+		if (length <= memoryBudget && length <= CHUNK_MASK + 1) {
+			chunks = new ByteBuffer[] { ByteBuffer.allocate((int) Math.max(1, length)) };
+			file = null;
+			return;
+		}
+		file = Files.createTempFile("algomaze", ".spill");
+		chunks = new ByteBuffer[(int) ((length + CHUNK_MASK) >>> CHUNK_BITS)];
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			for (int i = 0; i < chunks.length; i++) {
+				long offset = (long) i << CHUNK_BITS;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset, Math.min(CHUNK_MASK + 1, length - offset));
+			}
+		}
+		catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	byte getByte(long index) {
+		return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+	}
+
+	void putByte(long index, byte value) {
+		chunks[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), value);
+	}
+
+	long getLong(long index) {
+		return chunks[(int) (index >>> CHUNK_BITS)].getLong((int) (index & CHUNK_MASK));
+	}
+
+	void putLong(long index, long value) {
+		chunks[(int) (index >>> CHUNK_BITS)].putLong((int) (index & CHUNK_MASK), value);
+	}
+
+	long length() {
+		return length;
+	}
+
+	/**
+	 * Returns whether the array lives in a file rather than on the heap.
+	 * @return true if the array is mapped from a file.
+	 */
+	boolean isSpilled() {
+		return file != null;
+	}
+
+	/**
+	 * Deletes the file of a spilled array. The mapping itself is released when the array is collected,
+	 * so on systems that cannot delete a mapped file it is deleted when the JVM exits instead.
+	 */
+	@Override
+	public void close() {
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			}
+			catch (IOException e) {
+				file.toFile().deleteOnExit();
+			}
+		}
+	}
+}
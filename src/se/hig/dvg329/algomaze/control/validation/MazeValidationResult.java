@@ -0,0 +1,85 @@
+package se.hig.dvg329.algomaze.control.validation;
+
+/**
+ * The {@code MazeValidationResult} class holds what a {@link PerfectMazeValidator} found in a
+ * {@link se.hig.dvg329.algomaze.model.Maze}. A {@link se.hig.dvg329.algomaze.model.Maze} is perfect when
+ * the walls of all neighbours agree, no passage leads out of the {@link se.hig.dvg329.algomaze.model.Maze},
+ * and its passages form a spanning tree: one component without loops, i.e. exactly one less passage than
+ * there are cells.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class MazeValidationResult {
+
+	private final long cells, passages, components, loops, inconsistentWalls, openBoundaries;
+
+	MazeValidationResult(long cells, long passages, long components, long loops, long inconsistentWalls,
+			long openBoundaries) {
+		this.cells = cells;
+		this.passages = passages;
+		this.components = components;
+		this.loops = loops;
+		this.inconsistentWalls = inconsistentWalls;
+		this.openBoundaries = openBoundaries;
+	}
+
+	/**
+	 * Returns whether the {@link se.hig.dvg329.algomaze.model.Maze} is perfect.
+	 * @return true if the walls are consistent and the passages form a spanning tree.
+	 */
+	public boolean isPerfect() {
+		return inconsistentWalls == 0 && openBoundaries == 0 && loops == 0 && components == 1;
+	}
+
+	public long getCells() {
+		return cells;
+	}
+
+	/**
+	 * Returns the number of passages between neighbouring cells that are open on both sides.
+	 * @return the number of passages.
+	 */
+	public long getPassages() {
+		return passages;
+	}
+
+	/**
+	 * Returns the number of connected components the passages divide the cells into.
+	 * @return the number of components, one for a connected maze.
+	 */
+	public long getComponents() {
+		return components;
+	}
+
+	/**
+	 * Returns the number of passages that close a loop, i.e. that join two cells that were already connected.
+	 * @return the number of passages that would have to be walled up to remove all loops.
+	 */
+	public long getLoops() {
+		return loops;
+	}
+
+	/**
+	 * Returns the number of pairs of neighbours where one cell is open towards the other but not the other way.
+	 * @return the number of inconsistent walls.
+	 */
+	public long getInconsistentWalls() {
+		return inconsistentWalls;
+	}
+
+	/**
+	 * Returns the number of openings in the outer wall of the {@link se.hig.dvg329.algomaze.model.Maze}.
+	 * @return the number of open boundary walls.
+	 */
+	public long getOpenBoundaries() {
+		return openBoundaries;
+	}
+
+	@Override
+	public String toString() {
+		return (isPerfect() ? "Perfect" : "Not perfect") + ": " + cells + " cells, " + passages + " passages, "
+				+ components + " components, " + loops + " loops, " + inconsistentWalls + " inconsistent walls, "
+				+ openBoundaries + " open boundaries";
+	}
+}
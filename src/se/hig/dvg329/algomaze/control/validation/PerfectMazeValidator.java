@@ -0,0 +1,162 @@
+package se.hig.dvg329.algomaze.control.validation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code PerfectMazeValidator} class checks whether a {@link Maze} is perfect, see
+ * {@link MazeValidationResult}. The {@link Maze} is split into stripes of rows that are checked in
+ * parallel. Within its stripe, each task checks that the walls of neighbouring cells agree and that no
+ * passage leads out of the {@link Maze}, counts the passages, and joins the cells of every passage in a
+ * union-find forest, where a passage between cells that are already joined closes a loop. Every stripe
+ * only touches the forest entries of its own cells, so the tasks need no synchronisation. The passages
+ * that cross from one stripe to the next are joined afterwards on the calling thread.
+ * <p>
+ * The forest is one {@code int} per cell, i.e. about 400 MB for a {@link Maze} of 10000 by 10000 cells.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class PerfectMazeValidator {
+
+	private static final int STRIPES_PER_THREAD = 4;
+
+	private final int stripes;
+
+	/**
+	 * Constructs a {@code PerfectMazeValidator} that uses a few stripes per thread of the common
+	 * {@link ForkJoinPool}.
+	 */
+	public PerfectMazeValidator() {
+		this(ForkJoinPool.getCommonPoolParallelism() * STRIPES_PER_THREAD);
+	}
+
+	/**
+	 * Constructs a {@code PerfectMazeValidator}.
+	 * @param stripes the largest number of stripes to split a {@link Maze} into.
+	 * @throws IllegalArgumentException if stripes is smaller than one.
+	 */
+	public PerfectMazeValidator(int stripes) throws IllegalArgumentException {
+		if (stripes < 1) {
+			throw new IllegalArgumentException("A maze must be validated in at least one stripe.");
+		}
+		this.stripes = stripes;
+	}
+
+	/**
+	 * Validates a {@link Maze}.
+	 * @param maze the {@link Maze} to validate.
+	 * @return what was found in the {@link Maze}.
+	 * @throws IllegalArgumentException if the {@link Maze} has too many cells to fit the forest in an array.
+	 */
+	public MazeValidationResult validate(Maze maze) throws IllegalArgumentException {
+		int width = maze.getWidth();
+		int height = maze.getHeight();
+		long cells = (long) width * height;
+		if (cells > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Cannot validate a maze of more than " + (Integer.MAX_VALUE - 8) + " cells.");
+		}
+		int[] parents = new int[(int) cells];
+		int rowsPerStripe = (height + stripes - 1) / stripes;
+		int stripeCount = (height + rowsPerStripe - 1) / rowsPerStripe;
+
+		// Each stripe returns its passages, loops, inconsistent walls and open boundaries.
+		long[] counts = IntStream.range(0, stripeCount).parallel()
+				.mapToObj(stripe -> validateStripe(maze, parents, stripe * rowsPerStripe,
+						Math.min(height, (stripe + 1) * rowsPerStripe)))
+				.reduce(new long[4], (a, b) -> new long[] { a[0] + b[0], a[1] + b[1], a[2] + b[2], a[3] + b[3] });
+		long passages = counts[0], loops = counts[1];
+
+		for (int y = rowsPerStripe - 1; y < height - 1; y += rowsPerStripe) {
+			for (int x = 0; x < width; x++) {
+				if (maze.getCell(x, y).hasSouth() && maze.getCell(x, y + 1).hasNorth()
+						&& !union(parents, y * width + x, (y + 1) * width + x)) {
+					loops++;
+				}
+			}
+		}
+		long components = cells - (passages - loops);
+		return new MazeValidationResult(cells, passages, components, loops, counts[2], counts[3]);
+	}
+
+	private static long[] validateStripe(Maze maze, int[] parents, int firstRow, int endRow) {
+		int width = maze.getWidth();
+		int height = maze.getHeight();
+		for (int i = firstRow * width; i < endRow * width; i++) {
+			parents[i] = i;
+		}
+		long passages = 0, loops = 0, inconsistentWalls = 0, openBoundaries = 0;
+		for (int y = firstRow; y < endRow; y++) {
+			for (int x = 0; x < width; x++) {
+				Cell cell = maze.getCell(x, y);
+				int index = y * width + x;
+				if (y == 0 && cell.hasNorth()) {
+					openBoundaries++;
+				}
+				if (x == 0 && cell.hasWest()) {
+					openBoundaries++;
+				}
+				if (x == width - 1) {
+					if (cell.hasEast()) {
+						openBoundaries++;
+					}
+				}
+				else if (cell.hasEast() != maze.getCell(x + 1, y).hasWest()) {
+					inconsistentWalls++;
+				}
+				else if (cell.hasEast()) {
+					passages++;
+					if (!union(parents, index, index + 1)) {
+						loops++;
+					}
+				}
+				if (y == height - 1) {
+					if (cell.hasSouth()) {
+						openBoundaries++;
+					}
+				}
+				else if (cell.hasSouth() != maze.getCell(x, y + 1).hasNorth()) {
+					inconsistentWalls++;
+				}
+				else if (cell.hasSouth()) {
+					passages++;
+					// A passage into the next stripe is joined once all stripes are done.
+					if (y + 1 < endRow && !union(parents, index, index + width)) {
+						loops++;
+					}
+				}
+			}
+		}
+		return new long[] { passages, loops, inconsistentWalls, openBoundaries };
+	}
+
+	/**
+	 * Joins the trees of two cells.
+	 * @return false if the cells were already in the same tree.
+	 */
+	private static boolean union(int[] parents, int a, int b) {
+		int rootA = find(parents, a);
+		int rootB = find(parents, b);
+		if (rootA == rootB) {
+			return false;
+		}
+		if (rootA < rootB) {
+			parents[rootB] = rootA;
+		}
+		else {
+			parents[rootA] = rootB;
+		}
+		return true;
+	}
+
+	private static int find(int[] parents, int i) {
+		while (parents[i] != i) {
+			parents[i] = parents[parents[i]];
+			i = parents[i];
+		}
+		return i;
+	}
+}
@@ -8,6 +8,9 @@ import java.util.Observable;
  * about which of its wall are tore down and which are still erect. Each {@code Cell} can be marked
  * with a value that can be used by other classes to assign specific values to represent some state
  * of the {@code Cell}.
+ * <p>
+ * A {@code Cell} created by a {@link Maze} tells the {@link Maze} about every wall that is torn down or
+ * erected, so that the {@link Maze} can keep its content hash up to date, see {@link Maze#getContentHash()}.
  * @author Thomas Lundgren
  * @version 1.0.0
  * @since 1.0.0
@@ -18,15 +21,21 @@ public class Cell extends Observable {
 	private int x, y;
 	private CellValue value;
 	private boolean north, west, south, east;
+	private final Maze owner;
 	
 	public enum CellValue {
 		NONE, SOLUTION, MARKED, CANDIDATE, VISITED;
 	}
 	
 	public Cell(int x, int y, CellValue value) {
+		this(x, y, value, null);
+	}
+	
+	Cell(int x, int y, CellValue value, Maze owner) {
 		this.x = x;
 		this.y = y;
 		this.value = value;
+		this.owner = owner;
 	}
 	
 	public void setValue(CellValue value) {
@@ -53,6 +62,9 @@ public class Cell extends Observable {
 	}
 
 	public void setNorth(boolean north) {
+		if (north != this.north && owner != null) {
+			owner.wallToggled(x, y, Maze.NORTH);
+		}
 		if (north) {
 			this.north = true;
 		}
@@ -64,6 +76,9 @@ public class Cell extends Observable {
 	}
 	
 	public void setWest(boolean west) {
+		if (west != this.west && owner != null) {
+			owner.wallToggled(x, y, Maze.WEST);
+		}
 		if (west) {
 			this.west = true;
 		}
@@ -75,6 +90,9 @@ public class Cell extends Observable {
 	}
 	
 	public void setSouth(boolean south) {
+		if (south != this.south && owner != null) {
+			owner.wallToggled(x, y, Maze.SOUTH);
+		}
 		if (south) {
 			this.south = true;
 		}
@@ -86,6 +104,9 @@ public class Cell extends Observable {
 	}
 	
 	public void setEast(boolean east) {
+		if (east != this.east && owner != null) {
+			owner.wallToggled(x, y, Maze.EAST);
+		}
 		if (east) {
 			this.east = true;
 		}
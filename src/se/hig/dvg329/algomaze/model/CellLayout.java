@@ -0,0 +1,75 @@
+package se.hig.dvg329.algomaze.model;
+
+/**
+ * A {@code CellLayout} decides in which order the {@link Cell}s of a {@link Maze} are stored. A
+ * {@link Maze} keeps its {@link Cell}s in one array in the order of its layout and also creates them
+ * in that order, so that {@link Cell}s that are close in the layout usually end up close in memory.
+ * <p>
+ * The row-major layout stores whole rows after each other, so a step north or south jumps a full row.
+ * The space-filling curve layouts, {@link MortonLayout} and {@link HilbertLayout}, keep the {@link Cell}s
+ * of small squares together, so that steps in every direction mostly stay within the same cache lines
+ * and pages. They may leave unused slots in the array, see {@link #size()}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public interface CellLayout {
+
+	/**
+	 * Returns the index of a {@link Cell} in the layout.
+	 * @param x the x coordinate, which must be inside the {@link Maze}.
+	 * @param y the y coordinate, which must be inside the {@link Maze}.
+	 * @return the index of the {@link Cell}.
+	 */
+	int indexOf(int x, int y);
+
+	/**
+	 * Returns the x coordinate of the {@link Cell} at an index.
+	 * @param index an index of the layout.
+	 * @return the x coordinate, which is at least the width of the {@link Maze} for an unused slot.
+	 */
+	int xOf(int index);
+
+	/**
+	 * Returns the y coordinate of the {@link Cell} at an index.
+	 * @param index an index of the layout.
+	 * @return the y coordinate, which is at least the height of the {@link Maze} for an unused slot.
+	 */
+	int yOf(int index);
+
+	/**
+	 * Returns the length of the array needed for the layout, which is the number of {@link Cell}s plus
+	 * the number of unused slots.
+	 * @return the number of indices of the layout.
+	 */
+	int size();
+
+	int getWidth();
+
+	int getHeight();
+
+	/**
+	 * Returns the index of the north neighbour of a {@link Cell}.
+	 * @param index the index of the {@link Cell}.
+	 * @return the index of the neighbour, or -1 if the {@link Cell} is on the north edge.
+	 */
+	default int northOf(int index) {
+		int y = yOf(index);
+		return y > 0 ? indexOf(xOf(index), y - 1) : -1;
+	}
+
+	default int westOf(int index) {
+		int x = xOf(index);
+		return x > 0 ? indexOf(x - 1, yOf(index)) : -1;
+	}
+
+	default int southOf(int index) {
+		int y = yOf(index);
+		return y < getHeight() - 1 ? indexOf(xOf(index), y + 1) : -1;
+	}
+
+	default int eastOf(int index) {
+		int x = xOf(index);
+		return x < getWidth() - 1 ? indexOf(x + 1, yOf(index)) : -1;
+	}
+}
@@ -0,0 +1,83 @@
+package se.hig.dvg329.algomaze.model;
+
+/**
+ * The {@code HilbertLayout} class orders the {@link Cell}s of each tile along a Hilbert curve. Unlike
+ * the Z-order curve, consecutive indices are always neighbours, which keeps even more steps within the
+ * same cache lines, but converting between coordinates and indices takes one round of bit operations
+ * per bit of the tile side.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class HilbertLayout extends TiledLayout {
+
+	/**
+	 * Constructs a {@code HilbertLayout}.
+	 * @param width the width of the {@link Maze}.
+	 * @param height the height of the {@link Maze}.
+	 * @throws IllegalArgumentException if the layout needs more slots than an array can hold.
+	 */
+	public HilbertLayout(int width, int height) throws IllegalArgumentException {
+		super(width, height);
+	}
+
+	@Override
+	int indexInTile(int x, int y) {
+		int index = 0;
+		for (int s = (1 << tileBits) >> 1; s > 0; s >>= 1) {
+			int rx = (x & s) != 0 ? 1 : 0;
+			int ry = (y & s) != 0 ? 1 : 0;
+			index += s * s * ((3 * rx) ^ ry);
+			// Rotates the quadrant so that the curve within it starts and ends at the right corners.
+			if (ry == 0) {
+				if (rx == 1) {
+					x = s - 1 - (x & (s - 1));
+					y = s - 1 - (y & (s - 1));
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+		return index;
+	}
+
+	@Override
+	int xInTile(int index) {
+		return coordinatesInTile(index) >>> 16;
+	}
+
+	@Override
+	int yInTile(int index) {
+		return coordinatesInTile(index) & 0xFFFF;
+	}
+
+	/**
+	 * Returns the coordinates of an index within a tile, x in the upper and y in the lower 16 bits.
+	 */
+	private int coordinatesInTile(int index) {
+		int x = 0, y = 0;
+		for (int s = 1; s < (1 << tileBits); s <<= 1) {
+			int rx = 1 & (index >>> 1);
+			int ry = 1 & (index ^ rx);
+			if (ry == 0) {
+				if (rx == 1) {
+					x = s - 1 - x;
+					y = s - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+			x += s * rx;
+			y += s * ry;
+			index >>>= 2;
+		}
+		return (x << 16) | y;
+	}
+
+	@Override
+	public String toString() {
+		return "Hilbert";
+	}
+}
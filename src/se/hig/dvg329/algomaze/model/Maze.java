@@ -1,23 +1,35 @@
 package se.hig.dvg329.algomaze.model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAccumulator;
 
 import se.hig.dvg329.algomaze.model.Cell.CellValue;
 
 /**
  * The {@code Maze} class is used to represent a maze. It holds {@link Cell}s that describe each cell (square)
  * of the maze. An important method of this class is the {@link Maze#toString()} method. 
+ * <p>
+ * Besides its random id, a {@code Maze} has a content hash of its size, walls, start and end, see
+ * {@link #getContentHash()}, so that equal {@code Maze}s can be recognised, e.g. to store them once.
  * @author Thomas Lundgren
  * @version 1.0.0
  * @since 1.0.0
  */
 public class Maze {
 	
-	private Cell[][] grid;
+	static final int NORTH = 0, WEST = 1, SOUTH = 2, EAST = 3;
+	
+	private final CellLayout layout;
+	private final Cell[] cells;
 	private Cell start, end;
-	private UUID id;
+	private final UUID id;
 	private final int width, height;
 	private boolean empty = true;
+	private short[] terrain;
+	// Walls may be set from many threads at once, and XOR gives the same hash in any order.
+	private final LongAccumulator wallHash = new LongAccumulator((a, b) -> a ^ b, 0);
 	
 	/**
 	 * Constructs a {@code Maze} with the provided width and height.
@@ -29,23 +41,65 @@ public class Maze {
 	 * than three.
 	 */
 	public Maze(int width, int height) throws IllegalArgumentException {
+		this(width, height, new RowMajorLayout(width, height));
+	}
+	
+	/**
+	 * Constructs a {@code Maze} whose {@link Cell}s are stored in the order of a {@link CellLayout}.
+	 * @param width the width of the {@code Maze}. Must be greater than three.
+	 * @param height the height of the {@code Maze}. Must be greater than three.
+	 * @param layout the order to store the {@link Cell}s in. Its width and height must be those of the
+	 * {@code Maze}.
+	 * @throws IllegalArgumentException if the width or height is smaller than three or differs from
+	 * the layout.
+	 * @since 1.1.0
+	 */
+	public Maze(int width, int height, CellLayout layout) throws IllegalArgumentException {
+		this(width, height, layout, UUID.randomUUID());
+	}
+	
+	/**
+	 * Constructs a {@code Maze} with a given id, e.g. to restore a stored {@code Maze}.
+	 * @param width the width of the {@code Maze}. Must be greater than three.
+	 * @param height the height of the {@code Maze}. Must be greater than three.
+	 * @param layout the order to store the {@link Cell}s in. Its width and height must be those of the
+	 * {@code Maze}.
+	 * @param id the id of the {@code Maze}.
+	 * @throws IllegalArgumentException if the width or height is smaller than three or differs from
+	 * the layout.
+	 * @since 1.1.0
+	 */
+	public Maze(int width, int height, CellLayout layout, UUID id) throws IllegalArgumentException {
 		if (width < 3 || height < 3) {
 			throw new IllegalArgumentException("A maze must have width and height greater than 3.");
 		}
-		id = UUID.randomUUID();
+		if (layout.getWidth() != width || layout.getHeight() != height) {
+			throw new IllegalArgumentException("The layout must have the width and height of the maze.");
+		}
+		this.id = id;
 		this.width = width;
 		this.height = height;
+		this.layout = layout;
 		
-		grid = new Cell[height][width];
+		cells = new Cell[layout.size()];
 		clear();
 	}
 
 	public void setCell(int x, int y, CellValue value) {
-		grid[y][x].setValue(value);
+		cells[layout.indexOf(x, y)].setValue(value);
 	}
 	
 	public Cell getCell(int x, int y) {
-		return grid[y][x];
+		return cells[layout.indexOf(x, y)];
+	}
+	
+	/**
+	 * Returns the {@link CellLayout} that the {@link Cell}s of the {@code Maze} are stored in.
+	 * @return the layout of the {@code Maze}.
+	 * @since 1.1.0
+	 */
+	public CellLayout getLayout() {
+		return layout;
 	}
 	
 	public void setStart(Cell start) {
@@ -71,11 +125,15 @@ public class Maze {
 	}
 	
 	public void clear() {
-		for (int y = 0; y < height; y ++) {
-			for (int x = 0; x < width; x++) {
-				grid[y][x] = new Cell(x, y, CellValue.NONE);
-			}	
+		// Allocating the Cells in the order of the layout keeps them in that order on the heap too.
+		for (int i = 0; i < cells.length; i++) {
+			int x = layout.xOf(i);
+			int y = layout.yOf(i);
+			if (x < width && y < height) {
+				cells[i] = new Cell(x, y, CellValue.NONE, this);
+			}
 		}
+		wallHash.reset();
 		empty = true;
 	}
 	
@@ -89,7 +147,7 @@ public class Maze {
 	
 	public Cell getNorthNeighborOf(Cell cell) {
 		if (cell.getY() > 0) {
-			return grid[cell.getY() - 1][cell.getX()];
+			return cells[layout.indexOf(cell.getX(), cell.getY() - 1)];
 		}
 		else {
 			return null;
@@ -98,7 +156,7 @@ public class Maze {
 	
 	public Cell getWestNeighborOf(Cell cell) {
 		if (cell.getX() > 0) {
-			return grid[cell.getY()][cell.getX() - 1];
+			return cells[layout.indexOf(cell.getX() - 1, cell.getY())];
 		}
 		else {
 			return null;
@@ -107,7 +165,7 @@ public class Maze {
 	
 	public Cell getSouthNeighborOf(Cell cell) {
 		if (cell.getY() + 1 < height) {
-			return grid[cell.getY() + 1][cell.getX()];
+			return cells[layout.indexOf(cell.getX(), cell.getY() + 1)];
 		}
 		else {
 			return null;
@@ -116,7 +174,7 @@ public class Maze {
 	
 	public Cell getEastNeighborOf(Cell cell) {
 		if (cell.getX() + 1 < width) {
-			return grid[cell.getY()][cell.getX() + 1];
+			return cells[layout.indexOf(cell.getX() + 1, cell.getY())];
 		}
 		else {
 			return null;
@@ -128,7 +186,25 @@ public class Maze {
 	 * @return a {@link String} representation of a {@code Maze}.
 	 */
 	public String toString() {
-		String str = "";
+		StringBuilder str = new StringBuilder();
+		try {
+			writeTo(str);
+		}
+		catch (IOException e) {
+			// A StringBuilder never throws.
+			throw new UncheckedIOException(e);
+		}
+		return str.toString();
+	}
+	
+	/**
+	 * Writes the {@link String} representation of the {@code Maze}, see {@link #toString()}, one row at
+	 * a time, so that a large {@code Maze} can be written to a stream without building the whole text.
+	 * @param out where to write the text.
+	 * @throws IOException if the text cannot be written.
+	 * @since 1.1.0
+	 */
+	public void writeTo(Appendable out) throws IOException {
 		/*
 		 * We will be writing two lines of the maze in each iteration of the inner for-loop
 		 * below. This is because a Cell two rows high, example of a cell with west and south wall:
@@ -138,99 +214,137 @@ public class Maze {
 		 *    |
 		 * ---|
 		 */
-		String firstLine = "";
-		String secondLine = "";
+		StringBuilder firstLine = new StringBuilder(4 * width + 2);
+		StringBuilder secondLine = new StringBuilder(4 * width + 2);
 		
 		// Write top row, "ceiling"
 		for (int x = 0; x < width; x++) {
 			if (x == 0) {
-				str += ",";
+				firstLine.append(",");
 			}
 			if (x == start.getX()) {
-				str += " #S ";
+				firstLine.append(" #S ");
 			}
 			else if (x == width - 1) {
-				str += "---.";
+				firstLine.append("---.");
 			}
 			else {
-				str += "----";
+				firstLine.append("----");
 			}
 		}
 		
-		str += "\n";
+		firstLine.append("\n");
+		out.append(firstLine);
 		
 		for (int y = 0; y < height; y++) {
-			firstLine = "";
-			secondLine = "";
+			firstLine.setLength(0);
+			secondLine.setLength(0);
 			for (int x = 0; x < width; x++) {
 				// West wall of the Maze
 				if (x == 0) {
 					if (y == height - 1) {
-						firstLine += "|";
-						secondLine += "'";
+						firstLine.append("|");
+						secondLine.append("'");
 					}
 					else {
-						firstLine += "|";
-						secondLine += "|";
+						firstLine.append("|");
+						secondLine.append("|");
 					}
 					
 				}
 				/* Scan the maze from top left to bottom right
 				 * and only look for and write east and south walls/openings. */
 				
-				Cell curr = grid[y][x];
+				Cell curr = getCell(x, y);
 				if (curr.getValue() == CellValue.SOLUTION) {
-					firstLine += " # ";
+					firstLine.append(" # ");
 				}
 				else {
-					firstLine += "   ";
+					firstLine.append("   ");
 				}
 				// Write east wall/opening
 				if (curr.hasEast()) {
-					firstLine += " ";
+					firstLine.append(" ");
 				}
 				else {
-					firstLine += "|";
+					firstLine.append("|");
 				}
 				
 				// Write
 				if (curr == end) {
-					secondLine += " #E ";
+					secondLine.append(" #E ");
 				}
 				else if (y == height - 1) {
 					if (x < width - 1) {
-						secondLine += "----";
+						secondLine.append("----");
 					}
 					else {
-						secondLine += "---'";
+						secondLine.append("---'");
 					}
 				}
 				else {
 					if (curr.hasSouth()) {
 						if (!curr.hasEast()) {
-							secondLine += "   |";
+							secondLine.append("   |");
 						}
 						else {
-							secondLine += "    ";
+							secondLine.append("    ");
 						}
 					}
 					else {
 						if (!curr.hasEast()) {
-							secondLine += "---|";
+							secondLine.append("---|");
 						}
 						else {
-							secondLine += "----";
+							secondLine.append("----");
 						}
 					}
 				}
 			}
-			firstLine += "\n";
-			secondLine += "\n";
-			str += firstLine + secondLine;
+			firstLine.append("\n");
+			secondLine.append("\n");
+			out.append(firstLine).append(secondLine);
 		}
-		return str;
 	}
 
+	/**
+	 * Sets the cost of entering each {@link Cell} of the {@code Maze}. The terrain is kept when the
+	 * {@code Maze} is cleared.
+	 * @param terrain the costs in row-major order, i.e. the cost of the {@link Cell} at (x, y) at index
+	 * {@code y * width + x}, or null to make every {@link Cell} cost one.
+	 * @throws IllegalArgumentException if the terrain does not hold one cost per {@link Cell}, which it
+	 * cannot if there are more {@link Cell}s than an array can hold, or if a cost is smaller than one.
+	 * @since 1.1.0
+	 */
+	public void setTerrain(short[] terrain) throws IllegalArgumentException {
+		if (terrain != null) {
+			if (terrain.length != (long) width * height) {
+				throw new IllegalArgumentException("The terrain must hold one cost per cell.");
+			}
+			for (short cost : terrain) {
+				if (cost < 1) {
+					throw new IllegalArgumentException("Every cell must cost at least one to enter.");
+				}
+			}
+		}
+		this.terrain = terrain;
+	}
+	
+	public boolean hasTerrain() {
+		return terrain != null;
+	}
+	
+	/**
+	 * Returns the cost of entering a {@link Cell}.
+	 * @param x the x coordinate of the {@link Cell}.
+	 * @param y the y coordinate of the {@link Cell}.
+	 * @return the cost from the terrain, or one if the {@code Maze} has no terrain.
+	 * @since 1.1.0
+	 */
+	public int getTraversalCost(int x, int y) {
+		return terrain == null ? 1 : terrain[y * width + x];
+	}
+	
 	public boolean isEmpty() {
 		return empty;
 	}
@@ -242,5 +356,76 @@ public class Maze {
 	public UUID getId() {
 		return id;
 	}
+	
+	/**
+	 * Returns a Zobrist hash of the content of the {@code Maze}: its width and height, the open walls of
+	 * its {@link Cell}s and the positions of its start and end. Every wall of every {@link Cell} has its
+	 * own random key, and the hash of the walls is the XOR of the keys of the open walls. It is updated
+	 * each time a wall is torn down or erected, so this method takes constant time. The values of the
+	 * {@link Cell}s are not part of the content, so a {@code Maze} has the same hash before and after it
+	 * is solved. {@code Maze}s with the same content have the same hash regardless of their
+	 * {@link CellLayout}s, while different {@code Maze}s have the same hash with a probability of about
+	 * {@code 2^-64}, see {@link #hasSameContent(Maze)}.
+	 * @return the content hash.
+	 * @since 1.1.0
+	 */
+	public long getContentHash() {
+		long cellCount = (long) width * height;
+		long hash = wallHash.get() ^ keyOf(-((long) width << 32 | height));
+		if (start != null) {
+			hash ^= keyOf(4 * cellCount + indexOf(start));
+		}
+		if (end != null) {
+			hash ^= keyOf(5 * cellCount + indexOf(end));
+		}
+		return hash;
+	}
+	
+	/**
+	 * Returns whether another {@code Maze} has the same size, walls, start and end as this one, e.g.
+	 * to rule out that two {@code Maze}s with the same content hash are different.
+	 * @param other the {@code Maze} to compare with.
+	 * @return true if the content of the {@code Maze}s is the same.
+	 * @since 1.1.0
+	 */
+	public boolean hasSameContent(Maze other) {
+		if (other.width != width || other.height != height || indexOf(start) != other.indexOf(other.start)
+				|| indexOf(end) != other.indexOf(other.end)) {
+			return false;
+		}
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Cell cell = getCell(x, y);
+				Cell otherCell = other.getCell(x, y);
+				if (cell.hasNorth() != otherCell.hasNorth() || cell.hasWest() != otherCell.hasWest()
+						|| cell.hasSouth() != otherCell.hasSouth() || cell.hasEast() != otherCell.hasEast()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Updates the content hash when a wall of a {@link Cell} of this {@code Maze} is torn down or erected.
+	 */
+	void wallToggled(int x, int y, int wall) {
+		wallHash.accumulate(keyOf(4 * ((long) y * width + x) + wall));
+	}
+	
+	private long indexOf(Cell cell) {
+		return cell == null ? -1 : (long) cell.getY() * width + cell.getX();
+	}
+	
+	/**
+	 * Returns the random key of a position with the SplitMix64 mixing function, so that no table of
+	 * keys has to be kept.
+	 */
+	private static long keyOf(long position) {
+		long z = position + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
 }
 
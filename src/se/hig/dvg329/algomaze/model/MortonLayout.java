@@ -0,0 +1,64 @@
+package se.hig.dvg329.algomaze.model;
+
+/**
+ * The {@code MortonLayout} class orders the {@link Cell}s of each tile along a Z-order (Morton) curve:
+ * the index of a {@link Cell} interleaves the bits of its coordinates, with x in the even bits and y in
+ * the odd bits. Converting between coordinates and indices takes a few shifts and masks.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class MortonLayout extends TiledLayout {
+
+	/**
+	 * Constructs a {@code MortonLayout}.
+	 * @param width the width of the {@link Maze}.
+	 * @param height the height of the {@link Maze}.
+	 * @throws IllegalArgumentException if the layout needs more slots than an array can hold.
+	 */
+	public MortonLayout(int width, int height) throws IllegalArgumentException {
+		super(width, height);
+	}
+
+	@Override
+	int indexInTile(int x, int y) {
+		return spread(x) | (spread(y) << 1);
+	}
+
+	@Override
+	int xInTile(int index) {
+		return compact(index);
+	}
+
+	@Override
+	int yInTile(int index) {
+		return compact(index >>> 1);
+	}
+
+	/**
+	 * Moves the lowest 16 bits of a value to the even bits.
+	 */
+	private static int spread(int value) {
+		value &= 0xFFFF;
+		value = (value | (value << 8)) & 0x00FF00FF;
+		value = (value | (value << 4)) & 0x0F0F0F0F;
+		value = (value | (value << 2)) & 0x33333333;
+		return (value | (value << 1)) & 0x55555555;
+	}
+
+	/**
+	 * Moves the even bits of a value to the lowest 16 bits.
+	 */
+	private static int compact(int value) {
+		value &= 0x55555555;
+		value = (value | (value >>> 1)) & 0x33333333;
+		value = (value | (value >>> 2)) & 0x0F0F0F0F;
+		value = (value | (value >>> 4)) & 0x00FF00FF;
+		return (value | (value >>> 8)) & 0x0000FFFF;
+	}
+
+	@Override
+	public String toString() {
+		return "Morton";
+	}
+}
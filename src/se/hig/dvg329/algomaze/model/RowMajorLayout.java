@@ -0,0 +1,74 @@
+package se.hig.dvg329.algomaze.model;
+
+/**
+ * The {@code RowMajorLayout} class stores the {@link Cell}s of a {@link Maze} row by row, which is
+ * the default layout of a {@link Maze}. It has no unused slots and its neighbour offsets are constant:
+ * one for west and east and the width of the {@link Maze} for north and south.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class RowMajorLayout implements CellLayout {
+
+	private final int width, height;
+
+	public RowMajorLayout(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	@Override
+	public int indexOf(int x, int y) {
+		return y * width + x;
+	}
+
+	@Override
+	public int xOf(int index) {
+		return index % width;
+	}
+
+	@Override
+	public int yOf(int index) {
+		return index / width;
+	}
+
+	@Override
+	public int size() {
+		return width * height;
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public int northOf(int index) {
+		return index >= width ? index - width : -1;
+	}
+
+	@Override
+	public int westOf(int index) {
+		return index % width > 0 ? index - 1 : -1;
+	}
+
+	@Override
+	public int southOf(int index) {
+		return index < (height - 1) * width ? index + width : -1;
+	}
+
+	@Override
+	public int eastOf(int index) {
+		return index % width < width - 1 ? index + 1 : -1;
+	}
+
+	@Override
+	public String toString() {
+		return "Row-major";
+	}
+}
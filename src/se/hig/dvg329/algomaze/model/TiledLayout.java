@@ -0,0 +1,84 @@
+package se.hig.dvg329.algomaze.model;
+
+/**
+ * The {@code TiledLayout} class is the base of the space-filling curve layouts. A curve fills a square
+ * whose side is a power of two, so the {@link Maze} is covered by square tiles of at most
+ * {@code 1 << TILE_BITS} by {@code 1 << TILE_BITS} {@link Cell}s, smaller only if the smaller dimension of
+ * the {@link Maze} is, and the tiles are stored row by row. Each tile is ordered by the curve. Only the
+ * tiles along the east and south edges reach outside the {@link Maze}, and their cells outside it are
+ * unused slots, so a large {@link Maze} has fewer unused slots than a tile side times its width plus its
+ * height. A tile of 64 by 64 holds 4096 references, far more than a cache line, so larger tiles would keep
+ * hardly more steps within the same cache lines, and the short curves keep the conversions cheap.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+abstract class TiledLayout implements CellLayout {
+
+	/**
+	 * The base-two logarithm of the largest tile side.
+	 */
+	static final int TILE_BITS = 6;
+
+	final int width, height, tileBits, tileMask, tilesX, size;
+
+	/**
+	 * @throws IllegalArgumentException if the layout needs more slots than an array can hold.
+	 */
+	TiledLayout(int width, int height) throws IllegalArgumentException {
+		this.width = width;
+		this.height = height;
+		int bits = 0;
+		while ((1 << bits) < Math.min(width, height) && bits < TILE_BITS) {
+			bits++;
+		}
+		tileBits = bits;
+		tileMask = (1 << bits) - 1;
+		tilesX = (width + tileMask) >> bits;
+		int tilesY = (height + tileMask) >> bits;
+		long slots = (long) tilesX * tilesY << (2 * bits);
+		if (slots > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("The maze is too large for a " + this + " layout.");
+		}
+		size = (int) slots;
+	}
+
+	abstract int indexInTile(int x, int y);
+
+	abstract int xInTile(int index);
+
+	abstract int yInTile(int index);
+
+	@Override
+	public int indexOf(int x, int y) {
+		int tile = (y >> tileBits) * tilesX + (x >> tileBits);
+		return (tile << (2 * tileBits)) | indexInTile(x & tileMask, y & tileMask);
+	}
+
+	@Override
+	public int xOf(int index) {
+		int tile = index >>> (2 * tileBits);
+		return ((tile % tilesX) << tileBits) | xInTile(index & ((1 << (2 * tileBits)) - 1));
+	}
+
+	@Override
+	public int yOf(int index) {
+		int tile = index >>> (2 * tileBits);
+		return ((tile / tilesX) << tileBits) | yInTile(index & ((1 << (2 * tileBits)) - 1));
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+}
@@ -0,0 +1,262 @@
+package se.hig.dvg329.algomaze.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code AsciiMazeParser} class reads {@link Maze}s back from the text format written by
+ * {@link Maze#toString()}. The file is memory-mapped in large windows and scanned byte by byte
+ * with a small state machine, so no {@link String}s are created for the lines of the file.
+ * A file may hold several {@link Maze}s as well as any other text, e.g. the result headers
+ * written by {@link FileStorageManager#storeData(String)}; a {@link Maze} starts with a line
+ * beginning with {@code ','} and ends with a line beginning with {@code '\''}.
+ * <p>
+ * The walls, the start and the end of each {@link Maze} are restored. Solution markers
+ * ({@code #}) are ignored so that the parsed {@link Maze} can be solved again.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class AsciiMazeParser {
+
+	private static final long MAP_WINDOW = 1L << 28;
+	private static final byte EAST = 1, SOUTH = 2;
+	private static final int SEEK = 0, SKIP = 1, CEILING = 2, CELLS = 3, FLOORS = 4;
+
+	private final List<Maze> mazes = new ArrayList<>();
+	private int state, column, lineLength, width, row;
+	private int startX, endX, endY;
+	private byte previous;
+	private boolean lastRow;
+	private byte[] walls = new byte[0];
+	private long position;
+
+	/**
+	 * Constructs an {@code AsciiMazeParser}.
+	 */
+	public AsciiMazeParser() {}
+
+	/**
+	 * Parses all {@link Maze}s stored in a file.
+	 * @param path the file to read.
+	 * @return the {@link Maze}s in the order they appear in the file.
+	 * @throws IOException if the file cannot be read.
+	 * @throws MazeFormatException if a {@link Maze} in the file is malformed or incomplete.
+	 */
+	public List<Maze> parse(Path path) throws IOException, MazeFormatException {
+		reset();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			for (long offset = 0; offset < size; offset += MAP_WINDOW) {
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+						Math.min(MAP_WINDOW, size - offset));
+				scan(window);
+			}
+		}
+		return finish();
+	}
+
+	/**
+	 * Parses all {@link Maze}s held in the remaining bytes of a buffer.
+	 * @param buffer the bytes to parse.
+	 * @return the {@link Maze}s in the order they appear in the buffer.
+	 * @throws MazeFormatException if a {@link Maze} in the buffer is malformed or incomplete.
+	 */
+	public List<Maze> parse(ByteBuffer buffer) throws MazeFormatException {
+		reset();
+		scan(buffer);
+		return finish();
+	}
+
+	private void reset() {
+		mazes.clear();
+		state = SEEK;
+		column = 0;
+		position = 0;
+	}
+
+	private List<Maze> finish() {
+		if (state == CELLS || state == FLOORS || state == CEILING) {
+			throw new MazeFormatException("Unexpected end of input inside a maze.");
+		}
+		List<Maze> result = new ArrayList<>(mazes);
+		mazes.clear();
+		return result;
+	}
+
+	private void scan(ByteBuffer buffer) {
+		while (buffer.hasRemaining()) {
+			byte b = buffer.get();
+			position++;
+			if (b == '\r') {
+				continue;
+			}
+			if (b == '\n') {
+				endOfLine();
+				column = 0;
+				continue;
+			}
+			switch (state) {
+			case SEEK:
+				if (column == 0 && b == ',') {
+					state = CEILING;
+					startX = -1;
+				}
+				else {
+					state = SKIP;
+				}
+				break;
+			case CEILING:
+				if (b == 'S' && previous == '#') {
+					startX = (column - 3) / 4;
+				}
+				break;
+			case CELLS:
+				if (column == 0) {
+					expect(b == '|', "'|'");
+				}
+				else if (column >= lineLength) {
+					throw error("Row is longer than the ceiling of the maze");
+				}
+				else if (column % 4 == 0 && b == ' ') {
+					walls[row * width + column / 4 - 1] |= EAST;
+				}
+				break;
+			case FLOORS:
+				if (column == 0) {
+					expect(b == '|' || b == '\'', "'|' or '''");
+					lastRow = b == '\'';
+				}
+				else if (column >= lineLength) {
+					throw error("Row is longer than the ceiling of the maze");
+				}
+				else {
+					int x = (column - 1) / 4;
+					int offset = (column - 1) % 4;
+					if (offset == 0 && b == ' ' && !lastRow) {
+						walls[row * width + x] |= SOUTH;
+					}
+					else if (offset == 2 && b == 'E' && previous == '#') {
+						walls[row * width + x] &= ~SOUTH;
+						endX = x;
+						endY = row;
+					}
+				}
+				break;
+			default:
+				break;
+			}
+			previous = b;
+			column++;
+		}
+	}
+
+	private void endOfLine() {
+		switch (state) {
+		case SKIP:
+			state = SEEK;
+			break;
+		case CEILING:
+			if (column < 5 || (column - 1) % 4 != 0) {
+				throw error("Malformed ceiling of a maze");
+			}
+			if (startX < 0) {
+				throw error("The ceiling of a maze has no start");
+			}
+			lineLength = column;
+			width = (column - 1) / 4;
+			row = 0;
+			endX = endY = -1;
+			beginRow();
+			state = CELLS;
+			break;
+		case CELLS:
+			expectLength();
+			state = FLOORS;
+			break;
+		case FLOORS:
+			expectLength();
+			row++;
+			if (lastRow) {
+				mazes.add(build());
+				state = SEEK;
+			}
+			else {
+				beginRow();
+				state = CELLS;
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void beginRow() {
+		int required = (row + 1) * width;
+		if (required > walls.length) {
+			byte[] grown = new byte[Math.max(required, walls.length * 2)];
+			System.arraycopy(walls, 0, grown, 0, walls.length);
+			walls = grown;
+		}
+		for (int i = row * width; i < required; i++) {
+			walls[i] = 0;
+		}
+	}
+
+	private Maze build() {
+		int height = row;
+		if (endX < 0) {
+			throw error("The floor of a maze has no end");
+		}
+		Maze maze;
+		try {
+			maze = new Maze(width, height);
+		}
+		catch (IllegalArgumentException e) {
+			throw error(e.getMessage());
+		}
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				byte bits = walls[y * width + x];
+				Cell cell = maze.getCell(x, y);
+				if ((bits & EAST) != 0 && x + 1 < width) {
+					cell.setEast(true);
+					maze.getEastNeighborOf(cell).setWest(true);
+				}
+				if ((bits & SOUTH) != 0 && y + 1 < height) {
+					cell.setSouth(true);
+					maze.getSouthNeighborOf(cell).setNorth(true);
+				}
+			}
+		}
+		maze.setStart(maze.getCell(startX, 0));
+		maze.setEnd(maze.getCell(endX, endY));
+		maze.setEmpty(false);
+		return maze;
+	}
+
+	private void expect(boolean condition, String expected) {
+		if (!condition) {
+			throw error("Expected " + expected);
+		}
+	}
+
+	private void expectLength() {
+		if (column != lineLength) {
+			throw error("Row length " + column + " does not match the ceiling length " + lineLength);
+		}
+	}
+
+	private MazeFormatException error(String message) {
+		return new MazeFormatException(message + " (maze row " + row + ", byte " + position + ").");
+	}
+}
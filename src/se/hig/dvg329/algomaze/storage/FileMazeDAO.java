@@ -1,11 +1,15 @@
 package se.hig.dvg329.algomaze.storage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
 import java.util.UUID;
 
 import se.hig.dvg329.algomaze.model.Maze;
 
 /**
- * Is used to store {@link Maze} objects to text files.
+ * Is used to store {@link Maze} objects to text files. Each store and load is recorded as a
+ * JDK Flight Recorder event.
  * @author Thomas Lundgren
  * @version 1.0.0
  * @since 1.0.0
@@ -20,12 +24,49 @@ public class FileMazeDAO implements MazeDAO {
 	
 	@Override
 	public void store(Maze maze) {	
-		storageManager.storeData(maze.toString());
+		MazePersistenceEvent event = new MazePersistenceEvent();
+		event.begin();
+		String data = maze.toString();
+		storageManager.storeData(data);
+		event.end();
+		if (event.shouldCommit()) {
+			event.operation = "store";
+			event.path = String.valueOf(storageManager.getSavePath());
+			event.mazeId = maze.getId().toString();
+			event.width = maze.getWidth();
+			event.height = maze.getHeight();
+			event.mazes = 1;
+			event.bytes = data.length();
+			event.commit();
+		}
 	}
 
 	@Override
 	public Maze load(UUID id) {
 		return null;
 	}
+	
+	/**
+	 * Reads back all {@link Maze}s stored in the file at the save path of the
+	 * {@link FileStorageManager}. The text format does not hold the ids of the {@link Maze}s,
+	 * so each returned {@link Maze} has a new id.
+	 * @return the stored {@link Maze}s in the order they were stored.
+	 * @throws IOException if the file cannot be read.
+	 * @throws MazeFormatException if a stored {@link Maze} is malformed.
+	 */
+	public List<Maze> loadAll() throws IOException, MazeFormatException {
+		MazePersistenceEvent event = new MazePersistenceEvent();
+		event.begin();
+		List<Maze> mazes = new AsciiMazeParser().parse(storageManager.getSavePath());
+		event.end();
+		if (event.shouldCommit()) {
+			event.operation = "load";
+			event.path = String.valueOf(storageManager.getSavePath());
+			event.mazes = mazes.size();
+			event.bytes = Files.size(storageManager.getSavePath());
+			event.commit();
+		}
+		return mazes;
+	}
 
 }
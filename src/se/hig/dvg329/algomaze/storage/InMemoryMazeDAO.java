@@ -0,0 +1,149 @@
+package se.hig.dvg329.algomaze.storage;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * Keeps {@link Maze} objects in memory by their ids, e.g. for a server that hands out the ids of
+ * the {@link Maze}s it generates. It may be used from many threads at the same time.
+ * <p>
+ * A stored {@link Maze} is kept as an immutable {@link MazeSnapshot} of its walls, start and end, about one
+ * byte per {@link Cell}, and every {@link #load(UUID)} returns a new {@link Maze} with the stored id. So
+ * changing a stored or loaded {@link Maze}, e.g. by solving it, never changes what is stored, and the values
+ * of the {@link Cell}s and the terrain are not kept. {@link Maze}s with the same content, see
+ * {@link Maze#getContentHash()}, share one snapshot.
+ * <p>
+ * An {@code InMemoryMazeDAO} may hold a largest number of ids, in which case storing one more removes the
+ * id that was least recently stored or loaded.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class InMemoryMazeDAO implements MazeDAO {
+
+	private final int capacity;
+	// Guarded by this. The snapshots by their ids, least recently used first.
+	private final Map<UUID, MazeSnapshot> mazes = new LinkedHashMap<>(16, 0.75f, true);
+	// Guarded by this. The snapshots that are shared, by their content hashes, with the number of ids of each.
+	private final Map<Long, SharedSnapshot> contents = new HashMap<>();
+
+	/**
+	 * Constructs an {@code InMemoryMazeDAO} that holds any number of ids.
+	 */
+	public InMemoryMazeDAO() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Constructs an {@code InMemoryMazeDAO} that holds a largest number of ids.
+	 * @param capacity the largest number of ids.
+	 * @throws IllegalArgumentException if the capacity is smaller than one.
+	 */
+	public InMemoryMazeDAO(int capacity) throws IllegalArgumentException {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The DAO must hold at least one maze.");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Stores a copy of a {@link Maze}, replacing any {@link Maze} stored with the same id. If the capacity is
+	 * exceeded, the least recently used id is removed.
+	 * @param maze the {@link Maze} to store.
+	 */
+	@Override
+	public synchronized void store(Maze maze) {
+		remove(maze.getId());
+		MazeSnapshot snapshot = MazeSnapshot.of(maze);
+		SharedSnapshot shared = contents.get(snapshot.getContentHash());
+		if (shared == null) {
+			shared = new SharedSnapshot(snapshot);
+			contents.put(snapshot.getContentHash(), shared);
+		}
+		if (shared.snapshot.hasSameContent(snapshot)) {
+			shared.ids++;
+			snapshot = shared.snapshot;
+		}
+		// A different content with the same hash is kept on its own.
+		mazes.put(maze.getId(), snapshot);
+		if (mazes.size() > capacity) {
+			Iterator<UUID> eldest = mazes.keySet().iterator();
+			remove(eldest.next());
+		}
+	}
+
+	/**
+	 * Returns a stored {@link Maze}.
+	 * @param id the id of the {@link Maze}.
+	 * @return a new copy of the {@link Maze}, or null if no {@link Maze} with the id has been stored.
+	 */
+	@Override
+	public Maze load(UUID id) {
+		MazeSnapshot snapshot;
+		synchronized (this) {
+			snapshot = mazes.get(id);
+		}
+		return snapshot == null ? null : snapshot.toMaze(id);
+	}
+
+	/**
+	 * Removes a stored {@link Maze}.
+	 * @param id the id of the {@link Maze}.
+	 * @return true if a {@link Maze} with the id was stored.
+	 */
+	public synchronized boolean remove(UUID id) {
+		MazeSnapshot snapshot = mazes.remove(id);
+		if (snapshot == null) {
+			return false;
+		}
+		SharedSnapshot shared = contents.get(snapshot.getContentHash());
+		if (shared != null && shared.snapshot == snapshot && --shared.ids == 0) {
+			contents.remove(snapshot.getContentHash());
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether a {@link Maze} with the same content as the given one is stored, e.g. to find out if a
+	 * {@link Maze} has been seen before.
+	 * @param maze the {@link Maze} to look for.
+	 * @return true if a {@link Maze} with the same walls, start and end is stored.
+	 */
+	public synchronized boolean containsContent(Maze maze) {
+		SharedSnapshot shared = contents.get(maze.getContentHash());
+		return shared != null && shared.snapshot.hasSameContent(MazeSnapshot.of(maze));
+	}
+
+	/**
+	 * Returns the number of ids stored.
+	 * @return the number of ids.
+	 */
+	public synchronized int size() {
+		return mazes.size();
+	}
+
+	/**
+	 * Returns the number of shared snapshots, which is the number of distinct contents stored unless two
+	 * different contents have the same hash.
+	 * @return the number of shared snapshots.
+	 */
+	public synchronized int getDistinctCount() {
+		return contents.size();
+	}
+
+	private static final class SharedSnapshot {
+
+		private final MazeSnapshot snapshot;
+		private int ids;
+
+		SharedSnapshot(MazeSnapshot snapshot) {
+			this.snapshot = snapshot;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package se.hig.dvg329.algomaze.storage;
+
+/**
+ * Thrown when a stored {@link se.hig.dvg329.algomaze.model.Maze} does not follow the format
+ * written by {@link se.hig.dvg329.algomaze.model.Maze#toString()}.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class MazeFormatException extends RuntimeException {
+
+	private static final long serialVersionUID = 4137905530374126911L;
+
+	public MazeFormatException(String message) {
+		super(message);
+	}
+
+}
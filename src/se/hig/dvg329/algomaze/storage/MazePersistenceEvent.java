@@ -0,0 +1,44 @@
+package se.hig.dvg329.algomaze.storage;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event covering the storing or loading of {@link se.hig.dvg329.algomaze.model.Maze}s
+ * by the {@link FileMazeDAO}. A load reads all {@link se.hig.dvg329.algomaze.model.Maze}s of a file, so its
+ * maze id is left empty.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+@Name("se.hig.dvg329.algomaze.MazePersistence")
+@Label("Maze Persistence")
+@Category({ "AlgoMaze", "Storage" })
+@Description("Storing or loading of mazes")
+class MazePersistenceEvent extends jdk.jfr.Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Path")
+	String path;
+
+	@Label("Maze Id")
+	String mazeId;
+
+	@Label("Width")
+	int width;
+
+	@Label("Height")
+	int height;
+
+	@Label("Mazes")
+	int mazes;
+
+	@Label("Size")
+	@DataAmount
+	long bytes;
+}
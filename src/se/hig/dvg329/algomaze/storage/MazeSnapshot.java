@@ -0,0 +1,103 @@
+package se.hig.dvg329.algomaze.storage;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.model.RowMajorLayout;
+
+/**
+ * A {@code MazeSnapshot} is an immutable copy of the content of a {@link Maze}: its size, the open walls of
+ * its {@link Cell}s as one byte each in the format of {@link TiledMazeFile}, and the indices
+ * {@code y * width + x} of its start and end. The values of the {@link Cell}s and the terrain are not kept.
+ * Since it cannot change, its content hash stays valid, and one snapshot can be shared by any number of
+ * stored ids.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+final class MazeSnapshot {
+
+	private final int width, height, start, end;
+	private final byte[] walls;
+	private final long contentHash;
+
+	private MazeSnapshot(int width, int height, int start, int end, byte[] walls, long contentHash) {
+		this.width = width;
+		this.height = height;
+		this.start = start;
+		this.end = end;
+		this.walls = walls;
+		this.contentHash = contentHash;
+	}
+
+	/**
+	 * Copies the content of a {@link Maze}.
+	 * @param maze the {@link Maze} to copy.
+	 * @return the snapshot.
+	 */
+	static MazeSnapshot of(Maze maze) {
+		int width = maze.getWidth();
+		int height = maze.getHeight();
+		byte[] walls = new byte[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				walls[y * width + x] = (byte) TiledMazeFile.wallsOf(maze.getCell(x, y));
+			}
+		}
+		int start = -1, end = -1;
+		if (!maze.isEmpty()) {
+			start = maze.getStart().getY() * width + maze.getStart().getX();
+			end = maze.getEnd().getY() * width + maze.getEnd().getX();
+		}
+		return new MazeSnapshot(width, height, start, end, walls, maze.getContentHash());
+	}
+
+	/**
+	 * Creates a new {@link Maze} with the content of the snapshot.
+	 * @param id the id of the new {@link Maze}.
+	 * @return the new {@link Maze} in row-major order, whose {@link Cell}s all have the value
+	 * {@link Cell.CellValue#NONE}.
+	 */
+	Maze toMaze(UUID id) {
+		Maze maze = new Maze(width, height, new RowMajorLayout(width, height), id);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int open = walls[y * width + x];
+				Cell cell = maze.getCell(x, y);
+				if ((open & 1 << TiledMazeFile.NORTH) != 0) {
+					cell.setNorth(true);
+				}
+				if ((open & 1 << TiledMazeFile.WEST) != 0) {
+					cell.setWest(true);
+				}
+				if ((open & 1 << TiledMazeFile.SOUTH) != 0) {
+					cell.setSouth(true);
+				}
+				if ((open & 1 << TiledMazeFile.EAST) != 0) {
+					cell.setEast(true);
+				}
+			}
+		}
+		if (start >= 0) {
+			maze.setStart(maze.getCell(start % width, start / width));
+			maze.setEnd(maze.getCell(end % width, end / width));
+			maze.setEmpty(false);
+		}
+		return maze;
+	}
+
+	long getContentHash() {
+		return contentHash;
+	}
+
+	/**
+	 * Returns whether another snapshot has the same content, to rule out that two snapshots with the same
+	 * content hash are different.
+	 */
+	boolean hasSameContent(MazeSnapshot other) {
+		return width == other.width && height == other.height && start == other.start && end == other.end
+				&& Arrays.equals(walls, other.walls);
+	}
+}
@@ -0,0 +1,102 @@
+package se.hig.dvg329.algomaze.storage;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code TileCache} class keeps a bounded number of the tiles of a {@link TiledMazeFile} in memory
+ * and evicts the least recently used tile when a new one is read. Since tiles are only read, an evicted
+ * tile is simply dropped, and its array is reused for the next tile that is read.
+ * <p>
+ * The last tile used is remembered outside the map, so the many lookups of a search that stays within
+ * one tile cost no hashing. The cache is not thread-safe.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class TileCache {
+
+	private final TiledMazeFile file;
+	private final int tileSize, maxTiles;
+	private final LinkedHashMap<Long, byte[]> tiles;
+	private byte[] evicted;
+	private long lastIndex = -1;
+	private byte[] lastTile;
+	private long hits, misses;
+
+	/**
+	 * Constructs a {@code TileCache}.
+	 * @param file the file to read the tiles from.
+	 * @param maxTiles the largest number of tiles to keep in memory.
+	 * @throws IllegalArgumentException if the largest number of tiles is smaller than one.
+	 */
+	public TileCache(TiledMazeFile file, int maxTiles) throws IllegalArgumentException {
+		if (maxTiles < 1) {
+			throw new IllegalArgumentException("A tile cache must hold at least one tile.");
+		}
+		this.file = file;
+		this.maxTiles = maxTiles;
+		tileSize = file.getTileSize();
+		tiles = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = -3164409176324711858L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+				if (size() > TileCache.this.maxTiles) {
+					evicted = eldest.getValue();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the open walls of a cell, reading its tile if it is not in the cache.
+	 * @param x the x coordinate of the cell.
+	 * @param y the y coordinate of the cell.
+	 * @return a bit per open wall, see {@link TiledMazeFile}.
+	 * @throws IOException if the tile cannot be read.
+	 */
+	public int wallsAt(int x, int y) throws IOException {
+		int tileX = x / tileSize;
+		int tileY = y / tileSize;
+		long index = (long) tileY * file.getTilesX() + tileX;
+		if (index != lastIndex) {
+			lastTile = tileAt(tileX, tileY, index);
+			lastIndex = index;
+		}
+		else {
+			hits++;
+		}
+		return lastTile[(y - tileY * tileSize) * tileSize + (x - tileX * tileSize)];
+	}
+
+	private byte[] tileAt(int tileX, int tileY, long index) throws IOException {
+		byte[] tile = tiles.get(index);
+		if (tile != null) {
+			hits++;
+			return tile;
+		}
+		misses++;
+		tile = evicted != null ? evicted : new byte[tileSize * tileSize];
+		evicted = null;
+		file.readTile(tileX, tileY, tile);
+		tiles.put(index, tile);
+		return tile;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public int getMaxTiles() {
+		return maxTiles;
+	}
+}
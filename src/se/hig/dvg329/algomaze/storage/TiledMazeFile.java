@@ -0,0 +1,274 @@
+package se.hig.dvg329.algomaze.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code TiledMazeFile} class stores the walls of a maze on disk in square tiles, so that a maze
+ * larger than the heap can be read one tile at a time, see {@link TileCache}. Each cell is one byte
+ * whose lowest four bits tell which of its walls are open: bit {@link #NORTH}, {@link #WEST},
+ * {@link #SOUTH} and {@link #EAST}. The values of the cells are not stored.
+ * <p>
+ * The file starts with a header of {@value #HEADER_BYTES} bytes (magic number, version, width, height
+ * and tile size as {@code int}s, the indices {@code y * width + x} of the start and the end as
+ * {@code long}s, padded with zeroes), followed by the tiles in row-major order. Every tile holds its
+ * cells in row-major order, and the tiles on the east and south edges are padded with closed cells.
+ * A new file is created sparse, so tiles that are never written take no disk space.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+public class TiledMazeFile implements Closeable {
+
+	public static final int NORTH = 0, WEST = 1, SOUTH = 2, EAST = 3;
+	public static final int MAX_TILE_SIZE = 4096;
+
+	private static final int MAGIC = 0x414D5A54, VERSION = 1, HEADER_BYTES = 64;
+
+	private final Path path;
+	private final FileChannel channel;
+	private final int width, height, tileSize, tilesX, tilesY;
+	private long start, end;
+
+	private TiledMazeFile(Path path, FileChannel channel, int width, int height, int tileSize, long start, long end) {
+		this.path = path;
+		this.channel = channel;
+		this.width = width;
+		this.height = height;
+		this.tileSize = tileSize;
+		this.start = start;
+		this.end = end;
+		tilesX = (width + tileSize - 1) / tileSize;
+		tilesY = (height + tileSize - 1) / tileSize;
+	}
+
+	/**
+	 * Creates a file for a maze whose walls are all closed, replacing any existing file.
+	 * @param path the file to create.
+	 * @param width the width of the maze.
+	 * @param height the height of the maze.
+	 * @param tileSize the width and height of a tile.
+	 * @return the created file, open for reading and writing.
+	 * @throws IOException if the file cannot be created.
+	 * @throws IllegalArgumentException if the width or height is smaller than one or the tile size is not
+	 * between one and {@link #MAX_TILE_SIZE}.
+	 */
+	public static TiledMazeFile create(Path path, int width, int height, int tileSize)
+			throws IOException, IllegalArgumentException {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("A tiled maze must have a positive width and height.");
+		}
+		if (tileSize < 1 || tileSize > MAX_TILE_SIZE) {
+			throw new IllegalArgumentException("The tile size must be between 1 and " + MAX_TILE_SIZE + ".");
+		}
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		TiledMazeFile file = new TiledMazeFile(path, channel, width, height, tileSize, -1, -1);
+		try {
+			file.writeHeader();
+			// Writing the last byte sets the length without writing the tiles in between.
+			long length = file.offsetOf((long) file.tilesX * file.tilesY);
+			write(channel, ByteBuffer.wrap(new byte[1]), length - 1);
+		}
+		catch (IOException e) {
+			file.close();
+			throw e;
+		}
+		return file;
+	}
+
+	/**
+	 * Writes the walls, start and end of a {@link Maze} to a new file.
+	 * @param maze the {@link Maze} to write.
+	 * @param path the file to create.
+	 * @param tileSize the width and height of a tile.
+	 * @return the created file, open for reading and writing.
+	 * @throws IOException if the file cannot be written.
+	 * @throws IllegalArgumentException if the tile size is not between one and {@link #MAX_TILE_SIZE}.
+	 */
+	public static TiledMazeFile write(Maze maze, Path path, int tileSize) throws IOException, IllegalArgumentException {
+		TiledMazeFile file = create(path, maze.getWidth(), maze.getHeight(), tileSize);
+		try {
+			byte[] tile = new byte[tileSize * tileSize];
+			for (int tileY = 0; tileY < file.tilesY; tileY++) {
+				for (int tileX = 0; tileX < file.tilesX; tileX++) {
+					for (int y = 0; y < tileSize; y++) {
+						for (int x = 0; x < tileSize; x++) {
+							int mazeX = tileX * tileSize + x;
+							int mazeY = tileY * tileSize + y;
+							tile[y * tileSize + x] = (byte) (mazeX < maze.getWidth() && mazeY < maze.getHeight()
+									? wallsOf(maze.getCell(mazeX, mazeY)) : 0);
+						}
+					}
+					file.writeTile(tileX, tileY, tile);
+				}
+			}
+			if (!maze.isEmpty()) {
+				file.setStartAndEnd(file.indexOf(maze.getStart()), file.indexOf(maze.getEnd()));
+			}
+		}
+		catch (IOException e) {
+			file.close();
+			throw e;
+		}
+		return file;
+	}
+
+	/**
+	 * Opens a file written by this class for reading.
+	 * @param path the file to open.
+	 * @return the opened file.
+	 * @throws IOException if the file cannot be read or is not a tiled maze.
+	 */
+	public static TiledMazeFile open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			read(channel, header, 0);
+			header.flip();
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException(path + " is not a tiled maze.");
+			}
+			int width = header.getInt();
+			int height = header.getInt();
+			int tileSize = header.getInt();
+			long start = header.getLong();
+			long end = header.getLong();
+			if (width < 1 || height < 1 || tileSize < 1 || tileSize > MAX_TILE_SIZE) {
+				throw new IOException(path + " has an invalid header.");
+			}
+			return new TiledMazeFile(path, channel, width, height, tileSize, start, end);
+		}
+		catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the cells of a tile.
+	 * @param tileX the column of the tile.
+	 * @param tileY the row of the tile.
+	 * @param tile the array to read the cells into, of at least {@code tileSize * tileSize} bytes.
+	 * @throws IOException if the tile cannot be read.
+	 */
+	public void readTile(int tileX, int tileY, byte[] tile) throws IOException {
+		read(channel, ByteBuffer.wrap(tile, 0, tileSize * tileSize), offsetOf((long) tileY * tilesX + tileX));
+	}
+
+	/**
+	 * Writes the cells of a tile.
+	 * @param tileX the column of the tile.
+	 * @param tileY the row of the tile.
+	 * @param tile the cells of the tile in row-major order.
+	 * @throws IOException if the tile cannot be written.
+	 */
+	public void writeTile(int tileX, int tileY, byte[] tile) throws IOException {
+		write(channel, ByteBuffer.wrap(tile, 0, tileSize * tileSize), offsetOf((long) tileY * tilesX + tileX));
+	}
+
+	/**
+	 * Sets the start and the end of the maze.
+	 * @param start the index {@code y * width + x} of the start.
+	 * @param end the index {@code y * width + x} of the end.
+	 * @throws IOException if the header cannot be written.
+	 */
+	public void setStartAndEnd(long start, long end) throws IOException {
+		this.start = start;
+		this.end = end;
+		writeHeader();
+	}
+
+	/**
+	 * Returns the index of the start.
+	 * @return the index {@code y * width + x} of the start, or -1 if it has not been set.
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the index of the end.
+	 * @return the index {@code y * width + x} of the end, or -1 if it has not been set.
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	public int getTilesX() {
+		return tilesX;
+	}
+
+	public int getTilesY() {
+		return tilesY;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Returns the open walls of a {@link Cell} as they are stored in a tile.
+	 * @param cell the {@link Cell}.
+	 * @return a bit per open wall.
+	 */
+	public static int wallsOf(Cell cell) {
+		return (cell.hasNorth() ? 1 << NORTH : 0) | (cell.hasWest() ? 1 << WEST : 0)
+				| (cell.hasSouth() ? 1 << SOUTH : 0) | (cell.hasEast() ? 1 << EAST : 0);
+	}
+
+	private long indexOf(Cell cell) {
+		return (long) cell.getY() * width + cell.getX();
+	}
+
+	private long offsetOf(long tileIndex) {
+		return HEADER_BYTES + tileIndex * tileSize * tileSize;
+	}
+
+	private void writeHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).putInt(tileSize).putLong(start).putLong(end);
+		header.clear();
+		write(channel, header, 0);
+	}
+
+	private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new IOException("The tiled maze ends early.");
+			}
+			position += read;
+		}
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package se.hig.dvg329.algomaze.view;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * The {@code CellChangeBuffer} class collects the indices of changed {@link se.hig.dvg329.algomaze.model.Cell}s
+ * so that they can be painted later, at a fixed frame rate. Any number of threads may offer indices
+ * while one thread drains them. The buffer is lock-free and coalescing: an index that is already
+ * waiting in the buffer is not added again, so the buffer never holds more indices than there are
+ * cells and can be a fixed-size ring.
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class CellChangeBuffer {
+
+	private static final int EMPTY = -1;
+
+	private final AtomicIntegerArray pending;
+	private final AtomicIntegerArray ring;
+	private final AtomicLong tail = new AtomicLong();
+	private final int capacity;
+	private long head;
+
+	/**
+	 * Constructs a {@code CellChangeBuffer}.
+	 * @param cells the number of cells, i.e. one more than the largest index that may be offered.
+	 */
+	CellChangeBuffer(int cells) {
+		capacity = Math.max(1, cells);
+		pending = new AtomicIntegerArray(capacity);
+		ring = new AtomicIntegerArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			ring.set(i, EMPTY);
+		}
+	}
+
+	/**
+	 * Adds the index of a changed cell unless it is already waiting to be drained.
+	 * May be called from any thread.
+	 * @param index the index of the changed cell.
+	 */
+	void offer(int index) {
+		if (pending.compareAndSet(index, 0, 1)) {
+			long slot = tail.getAndIncrement();
+			ring.set((int) (slot % capacity), index);
+		}
+	}
+
+	/**
+	 * Removes the waiting indices in the order they were first offered and passes them to a consumer.
+	 * An index is marked as no longer waiting before it is passed on, so a change made while the cell
+	 * is being painted is offered again. Must only be called from one thread at a time.
+	 * @param consumer the consumer of the indices.
+	 * @return the number of drained indices.
+	 */
+	int drain(IntConsumer consumer) {
+		int drained = 0;
+		while (true) {
+			int slot = (int) (head % capacity);
+			int index = ring.get(slot);
+			if (index == EMPTY) {
+				return drained;
+			}
+			ring.set(slot, EMPTY);
+			head++;
+			pending.set(index, 0);
+			consumer.accept(index);
+			drained++;
+		}
+	}
+}
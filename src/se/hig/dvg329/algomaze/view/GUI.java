@@ -1,26 +1,58 @@
 package se.hig.dvg329.algomaze.view;
 
+import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.GridLayout;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JSlider;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.border.Border;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.control.recording.StepLog;
+import se.hig.dvg329.algomaze.control.recording.StepReplayer;
 import se.hig.dvg329.algomaze.model.Cell;
-import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.storage.AsciiMazeParser;
 
+/**
+ * The {@code GUI} class shows a {@link Maze} while it is generated and solved. The algorithms run on a
+ * background worker so that the window stays responsive. Each change of a {@link Cell} is only recorded
+ * in a {@link CellChangeBuffer} on the worker thread; the event dispatch thread drains the buffer and
+ * paints the changed {@link Cell}s {@value #FRAMES_PER_SECOND} times per second. The speed slider limits
+ * how many changes the worker may make per frame, and the cancel button stops the running algorithm.
+ * <p>
+ * The {@link Maze} is shown in a {@link MazeViewer} that can be zoomed and panned, so that {@link Maze}s
+ * of any size opened from disk can be browsed and solved as well. Opening a {@link StepLog} replays the
+ * recorded run instead, at the speed of the slider.
+ * @author Thomas Lundgren
+ * @version 1.1.0
+ * @since 1.0.0
+ */
 public class GUI implements Observer {
 
 	private JFrame frame = new JFrame("AlgoMaze");
@@ -29,12 +61,24 @@ public class GUI implements Observer {
 	private JPanel controlPanel = new JPanel();
 	private JButton generateButton = new JButton("Generate maze");
 	private JButton solveButton = new JButton("Solve");
+	private JButton cancelButton = new JButton("Cancel");
+	private JButton openButton = new JButton("Open maze...");
+	private JSlider speedSlider = new JSlider(1, MAX_SPEED, MAX_SPEED);
+	private JLabel timeLabel = new JLabel(" ");
+	private Timer frameTimer;
 	private Color backgroundColor = Color.decode("#B5D6DE");
 
 	private MazeController mazeController;
-	private GCell[][] grid;
+	private MazeViewer viewer;
 	private int mazeHeight, mazeWidth;
+	private volatile Maze maze;
+	private volatile CellChangeBuffer changes;
+	private volatile boolean cancelled;
+	private volatile long changesPerFrame = Long.MAX_VALUE;
+	private final AtomicLong frameBudget = new AtomicLong(Long.MAX_VALUE);
+	private boolean generated;
 	private static final int DEFAULT_MAZE_HEIGHT = 75, DEFAULT_MAZE_WIDTH = 75;
+	private static final int FRAMES_PER_SECOND = 60, MAX_SPEED = 100;
 
 	public GUI(MazeController mazeController) {
 		mazeHeight = DEFAULT_MAZE_HEIGHT;
@@ -45,10 +89,22 @@ public class GUI implements Observer {
 	public void initGUI() {
 		initControlPanel();
 		initMazePanel();
+		changes = new CellChangeBuffer(mazeWidth * mazeHeight);
 		createMaze();
+		viewer.setMaze(maze);
 		initBackGround();
 		addComponents();
 		initFrame();
+		setRunning(false);
+		
+		frameTimer = new Timer(1000 / FRAMES_PER_SECOND, new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				drawFrame();
+			}
+		});
+		frameTimer.start();
 	}
 
 
@@ -81,11 +137,31 @@ public class GUI implements Observer {
 		cpConstr.gridx = 0;
 		controlPanel.add(solveButton, cpConstr);
 
+		cpConstr.gridy = 2;
+		cpConstr.gridx = 0;
+		controlPanel.add(cancelButton, cpConstr);
+
+		cpConstr.gridy = 3;
+		cpConstr.gridx = 0;
+		controlPanel.add(openButton, cpConstr);
+
+		cpConstr.gridy = 4;
+		cpConstr.gridx = 0;
+		controlPanel.add(new JLabel("Speed"), cpConstr);
+
+		cpConstr.gridy = 5;
+		cpConstr.gridx = 0;
+		controlPanel.add(speedSlider, cpConstr);
+
+		cpConstr.gridy = 6;
+		cpConstr.gridx = 0;
+		controlPanel.add(timeLabel, cpConstr);
+
 		generateButton.addActionListener(new ActionListener() {
 
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				mazeController.generateMaze("Prim");
+				runInBackground(true);
 			}
 		});
 
@@ -93,11 +169,58 @@ public class GUI implements Observer {
 
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				mazeController.solveMaze("Dijkstra");
+				runInBackground(false);
+			}
+		});
+
+		cancelButton.addActionListener(new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				cancelled = true;
+			}
+		});
+
+		openButton.addActionListener(new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser chooser = new JFileChooser(new File("."));
+				if (chooser.showOpenDialog(frame) == JFileChooser.APPROVE_OPTION) {
+					File file = chooser.getSelectedFile();
+					try {
+						if (StepLog.isStepLog(file.toPath())) {
+							replay(file);
+						}
+						else {
+							openMaze(file);
+						}
+					}
+					catch (IOException ex) {
+						timeLabel.setText("Failed: " + ex.getMessage());
+					}
+				}
+			}
+		});
+
+		speedSlider.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				changesPerFrame = changesPerFrame(speedSlider.getValue());
 			}
 		});
 	}
 
+	// The number of changes allowed per frame grows tenfold every 20 steps of the slider,
+	// and the highest speed does not limit the algorithms at all.
+	private static long changesPerFrame(int speed) {
+		if (speed >= MAX_SPEED) {
+			return Long.MAX_VALUE;
+		}
+		return Math.round(Math.pow(10, (speed - 1) / 20.0));
+	}
+
 	private void initControlPanel() {
 		controlPanel.setBackground(Color.WHITE);
 		controlPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
@@ -110,9 +233,11 @@ public class GUI implements Observer {
 		Border border = BorderFactory.createMatteBorder(0, 20, 0, 0, backgroundColor);
 		mazePanel.setBorder(border);
 		mazePanel.setPreferredSize(new Dimension(800, 600));
+		mazePanel.setLayout(new BorderLayout());
 
-		GridLayout gl = new GridLayout(mazeHeight, mazeWidth);
-		mazePanel.setLayout(gl);
+		viewer = new MazeViewer();
+		viewer.setBackground(backgroundColor);
+		mazePanel.add(viewer, BorderLayout.CENTER);
 		background.add(mazePanel);
 	}
 
@@ -128,60 +253,201 @@ public class GUI implements Observer {
 		background.setBorder(BorderFactory.createLineBorder(backgroundColor, 30));
 	}
 
+	/**
+	 * Records the change of a {@link Cell} so that it is painted in the next frame. Called on the thread
+	 * running the algorithm. Blocks while the changes allowed for the current frame are used up and
+	 * throws a {@link CancellationException} out of the algorithm when the user has cancelled it.
+	 */
 	@Override
 	public void update(Observable o, Object arg) {
-		Cell cell = (Cell) o;
-		GCell gCell = grid[cell.getY()][cell.getX()];
-
-		if (cell.hasNorth()) {
-			gCell.setNorth(true);
+		if (cancelled) {
+			throw new CancellationException("Cancelled by the user.");
 		}
-		if (cell.hasWest()) {
-			gCell.setWest(true);
+		Cell cell = (Cell) o;
+		changes.offer(cell.getY() * mazeWidth + cell.getX());
+		if (changesPerFrame != Long.MAX_VALUE) {
+			while (frameBudget.decrementAndGet() < 0) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+				if (cancelled) {
+					throw new CancellationException("Cancelled by the user.");
+				}
+			}
 		}
-		if (cell.hasSouth()) {
-			gCell.setSouth(true);
+	}
+
+	private void drawFrame() {
+		frameBudget.set(changesPerFrame);
+		final Maze current = maze;
+		CellChangeBuffer buffer = changes;
+		// Until the viewer shows the current maze its changes stay in the buffer.
+		if (current == null || buffer == null || viewer.getMaze() != current) {
+			return;
 		}
-		if (cell.hasEast()) {
-			gCell.setEast(true);
+		int drained = buffer.drain(index -> viewer.updateCell(current.getCell(index % mazeWidth, index / mazeWidth)));
+		if (drained > 0) {
+			viewer.repaint();
 		}
-		if (cell.getValue() == CellValue.MARKED) {
-			gCell.getPanel().setBackground(GCell.MARKED);
-			gCell.setBorderColor(GCell.MARKED);
-		} else if (cell.getValue() == CellValue.CANDIDATE) {
-			gCell.getPanel().setBackground(GCell.CANDIDATE);
-			gCell.setBorderColor(GCell.CANDIDATE);
-		} else if (cell.getValue() == CellValue.SOLUTION) {
-			gCell.getPanel().setBackground(GCell.SOLUTION);
-			gCell.setBorderColor(GCell.SOLUTION);
-		} else if (cell.getValue() == CellValue.VISITED) {
-			gCell.getPanel().setBackground(GCell.VISITED);
-			gCell.setBorderColor(GCell.VISITED);
-		} else if (cell == mazeController.getMaze().getStart()) {
-			gCell.getPanel().setBackground(GCell.START);
-			gCell.setBorderColor(GCell.START);
-		} else if (cell == mazeController.getMaze().getEnd()) {
-			gCell.getPanel().setBackground(GCell.END);
-			gCell.setBorderColor(GCell.END);
-		} else {
-			gCell.getPanel().setBackground(GCell.NONE);
-			gCell.setBorderColor(Color.WHITE);
+	}
+
+	private void runInBackground(final boolean generate) {
+		cancelled = false;
+		setRunning(true);
+		if (generate) {
+			generated = false;
+			changes = new CellChangeBuffer(mazeWidth * mazeHeight);
 		}
+		new SwingWorker<Void, Maze>() {
+
+			@Override
+			protected Void doInBackground() {
+				if (generate) {
+					createMaze();
+					publish(maze);
+					mazeController.generateMaze("Prim");
+				}
+				else {
+					mazeController.solveMaze("Dijkstra");
+				}
+				return null;
+			}
+
+			@Override
+			protected void process(List<Maze> created) {
+				viewer.setMaze(created.get(created.size() - 1));
+			}
+
+			@Override
+			protected void done() {
+				try {
+					get();
+					if (generate) {
+						generated = true;
+						timeLabel.setText(String.format("Generated in %.1f ms (observers %.1f ms)",
+								mazeController.getGenerationTime(), mazeController.getGenerationObserverTime()));
+					}
+					else {
+						timeLabel.setText(String.format("Solved in %.1f ms (observers %.1f ms)",
+								mazeController.getSolvingTime(), mazeController.getSolvingObserverTime()));
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				catch (ExecutionException e) {
+					if (e.getCause() instanceof CancellationException) {
+						timeLabel.setText("Cancelled");
+					}
+					else {
+						timeLabel.setText("Failed: " + e.getCause().getMessage());
+					}
+				}
+				setRunning(false);
+			}
+		}.execute();
+	}
+
+	private void openMaze(final File file) {
+		setRunning(true);
+		timeLabel.setText("Opening " + file.getName());
+		new SwingWorker<Maze, Void>() {
+
+			@Override
+			protected Maze doInBackground() throws Exception {
+				List<Maze> mazes = new AsciiMazeParser().parse(file.toPath());
+				if (mazes.isEmpty()) {
+					throw new IllegalArgumentException("The file contains no maze.");
+				}
+				return mazes.get(0);
+			}
+
+			@Override
+			protected void done() {
+				try {
+					Maze opened = get();
+					mazeController.deleteObserver(GUI.this);
+					mazeController.setMaze(opened);
+					mazeController.registerObserver(GUI.this);
+					mazeWidth = opened.getWidth();
+					mazeHeight = opened.getHeight();
+					changes = new CellChangeBuffer(mazeWidth * mazeHeight);
+					maze = opened;
+					viewer.setMaze(opened);
+					generated = true;
+					timeLabel.setText(String.format("Opened %d x %d maze", mazeWidth, mazeHeight));
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				catch (ExecutionException e) {
+					timeLabel.setText("Failed: " + e.getCause().getMessage());
+				}
+				setRunning(false);
+			}
+		}.execute();
+	}
+
+	private void replay(final File file) {
+		cancelled = false;
+		generated = false;
+		setRunning(true);
+		timeLabel.setText("Replaying " + file.getName());
+		new SwingWorker<Integer, Maze>() {
+
+			@Override
+			protected Integer doInBackground() throws Exception {
+				StepReplayer replayer = new StepReplayer(StepLog.readFrom(file.toPath()));
+				Maze replayed = replayer.getMaze();
+				mazeWidth = replayed.getWidth();
+				mazeHeight = replayed.getHeight();
+				changes = new CellChangeBuffer(mazeWidth * mazeHeight);
+				for (int y = 0; y < mazeHeight; y++) {
+					for (int x = 0; x < mazeWidth; x++) {
+						replayed.getCell(x, y).addObserver(GUI.this);
+					}
+				}
+				maze = replayed;
+				publish(replayed);
+				replayer.play(Double.POSITIVE_INFINITY);
+				return replayer.getStepCount();
+			}
+
+			@Override
+			protected void process(List<Maze> replayed) {
+				viewer.setMaze(replayed.get(replayed.size() - 1));
+			}
+
+			@Override
+			protected void done() {
+				try {
+					timeLabel.setText(String.format("Replayed %d steps", get()));
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				catch (ExecutionException e) {
+					if (e.getCause() instanceof CancellationException) {
+						timeLabel.setText("Cancelled");
+					}
+					else {
+						timeLabel.setText("Failed: " + e.getCause().getMessage());
+					}
+				}
+				setRunning(false);
+			}
+		}.execute();
+	}
+
+	private void setRunning(boolean running) {
+		openButton.setEnabled(!running);
+		generateButton.setEnabled(!running);
+		solveButton.setEnabled(!running && generated);
+		cancelButton.setEnabled(running);
 	}
 
 	private void createMaze() {
-		mazeController.createMaze(mazeWidth, mazeHeight);
 		mazeController.deleteObserver(this);
+		maze = mazeController.createMaze(mazeWidth, mazeHeight);
 		mazeController.registerObserver(this);
-		grid = new GCell[mazeHeight][mazeWidth];
-
-		for (int y = 0; y < mazeController.getMaze().getHeight(); y++) {
-			for (int x = 0; x < mazeController.getMaze().getWidth(); x++) {
-				GCell gCell = new GCell(10);
-				mazePanel.add(gCell.getPanel());
-				grid[y][x] = gCell;
-			}
-		}
 	}
 
 }
@@ -0,0 +1,374 @@
+package se.hig.dvg329.algomaze.view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The {@code MazeViewer} class shows a {@link Maze} of any size with zoom (mouse wheel) and pan (drag).
+ * Each frame only renders what is inside the viewport, so its cost depends on the size of the component
+ * and not on the size of the {@link Maze}:
+ * <ul>
+ * <li>When a {@link Cell} covers at least {@value #DETAIL_SCALE} pixels, the visible {@link Cell}s are
+ * painted with their walls straight into a viewport-sized back buffer.</li>
+ * <li>When zoomed out further, a level of a mip-mapped overview is scaled into the viewport. Level 0 has
+ * one pixel per {@link Cell}, darkened by the number of walls of the {@link Cell}, and each following
+ * level averages two by two pixels of the level below. A changed {@link Cell} only updates its own pixel
+ * in each level.</li>
+ * </ul>
+ * @author Thomas Lundgren
+ * @version 1.0.0
+ * @since 1.1.0
+ */
+class MazeViewer extends JComponent {
+
+	private static final long serialVersionUID = 2870513963328601750L;
+
+	static final Color
+		START = Color.decode("#FFBF00"),
+		END = Color.decode("#421140"),
+		NONE = Color.LIGHT_GRAY,
+		SOLUTION = Color.decode("#99FEC7"),
+		MARKED = Color.WHITE,
+		CANDIDATE = Color.decode("#FEC799"),
+		VISITED = CANDIDATE;
+
+	private static final int DETAIL_SCALE = 4;
+	private static final double MAX_SCALE = 64, ZOOM_STEP = 1.25;
+	private static final int WALL = Color.BLACK.getRGB(), OPENING = Color.WHITE.getRGB();
+
+	// The maze and the images drawn from it are not serialized with the component; a deserialized viewer
+	// is empty until setMaze is called, see readObject.
+	private transient Maze maze;
+	private transient Cell start, end;
+	private int mazeWidth, mazeHeight;
+	private transient BufferedImage[] levels = new BufferedImage[0];
+	private transient int[][] levelPixels = new int[0][];
+	private transient BufferedImage backBuffer;
+	private transient int[] backPixels;
+	private double scale = 1, originX, originY;
+	private boolean fitted;
+
+	/**
+	 * Constructs an empty {@code MazeViewer}.
+	 */
+	MazeViewer() {
+		setOpaque(true);
+		setBackground(Color.WHITE);
+		setPreferredSize(new Dimension(800, 600));
+		addNavigation();
+	}
+
+	/**
+	 * Restores the fields that are not serialized, since their initializers do not run when the viewer is
+	 * deserialized, and the navigation, whose listener is not serializable.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		levels = new BufferedImage[0];
+		levelPixels = new int[0][];
+		mazeWidth = 0;
+		mazeHeight = 0;
+		fitted = false;
+		addNavigation();
+	}
+
+	private void addNavigation() {
+		MouseAdapter navigation = new MouseAdapter() {
+
+			private Point last;
+
+			@Override
+			public void mousePressed(MouseEvent e) {
+				last = e.getPoint();
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				if (last != null) {
+					originX -= (e.getX() - last.x) / scale;
+					originY -= (e.getY() - last.y) / scale;
+					last = e.getPoint();
+					repaint();
+				}
+			}
+
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+			}
+		};
+		addMouseListener(navigation);
+		addMouseMotionListener(navigation);
+		addMouseWheelListener(navigation);
+	}
+
+	/**
+	 * Shows a {@link Maze}, rebuilding the overview from all of its {@link Cell}s. The view is fitted to
+	 * the whole {@link Maze} the next time it is painted.
+	 * @param maze the {@link Maze} to show.
+	 */
+	void setMaze(Maze maze) {
+		this.maze = maze;
+		mazeWidth = maze.getWidth();
+		mazeHeight = maze.getHeight();
+		findStartAndEnd();
+
+		int count = 1;
+		for (int size = Math.max(mazeWidth, mazeHeight); size > 1; size = (size + 1) / 2) {
+			count++;
+		}
+		levels = new BufferedImage[count];
+		levelPixels = new int[count][];
+		for (int level = 0; level < count; level++) {
+			int w = Math.max(1, (mazeWidth + (1 << level) - 1) >> level);
+			int h = Math.max(1, (mazeHeight + (1 << level) - 1) >> level);
+			levels[level] = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+			levelPixels[level] = ((DataBufferInt) levels[level].getRaster().getDataBuffer()).getData();
+		}
+		for (int y = 0; y < mazeHeight; y++) {
+			for (int x = 0; x < mazeWidth; x++) {
+				levelPixels[0][y * mazeWidth + x] = overviewColorOf(maze.getCell(x, y));
+			}
+		}
+		for (int level = 1; level < count; level++) {
+			for (int y = 0; y < levels[level].getHeight(); y++) {
+				for (int x = 0; x < levels[level].getWidth(); x++) {
+					average(level, x, y);
+				}
+			}
+		}
+		fitted = false;
+		repaint();
+	}
+
+	/**
+	 * Updates the overview for a changed {@link Cell}. The change becomes visible the next time the
+	 * viewer is repainted. Ignored while no {@link Maze} is shown. Must be called on the event dispatch
+	 * thread.
+	 * @param cell the changed {@link Cell}.
+	 */
+	void updateCell(Cell cell) {
+		if (maze == null) {
+			return;
+		}
+		if (start == null) {
+			findStartAndEnd();
+		}
+		int x = cell.getX();
+		int y = cell.getY();
+		levelPixels[0][y * mazeWidth + x] = overviewColorOf(cell);
+		for (int level = 1; level < levels.length; level++) {
+			x >>= 1;
+			y >>= 1;
+			average(level, x, y);
+		}
+	}
+
+	Maze getMaze() {
+		return maze;
+	}
+
+	/**
+	 * Fits the whole {@link Maze} into the viewport.
+	 */
+	void fitToView() {
+		if (maze == null || getWidth() == 0 || getHeight() == 0) {
+			return;
+		}
+		scale = Math.min((double) getWidth() / mazeWidth, (double) getHeight() / mazeHeight);
+		originX = (mazeWidth - getWidth() / scale) / 2;
+		originY = (mazeHeight - getHeight() / scale) / 2;
+		fitted = true;
+		repaint();
+	}
+
+	private void zoom(double factor, int pivotX, int pivotY) {
+		if (maze == null) {
+			return;
+		}
+		double minScale = Math.min((double) getWidth() / mazeWidth, (double) getHeight() / mazeHeight) / 4;
+		double newScale = Math.max(minScale, Math.min(MAX_SCALE, scale * factor));
+		double cellX = originX + pivotX / scale;
+		double cellY = originY + pivotY / scale;
+		scale = newScale;
+		originX = cellX - pivotX / scale;
+		originY = cellY - pivotY / scale;
+		repaint();
+	}
+
+	static Color colorOf(CellValue value, boolean isStart, boolean isEnd) {
+		if (value == CellValue.MARKED) {
+			return MARKED;
+		} else if (value == CellValue.CANDIDATE) {
+			return CANDIDATE;
+		} else if (value == CellValue.SOLUTION) {
+			return SOLUTION;
+		} else if (value == CellValue.VISITED) {
+			return VISITED;
+		} else if (isStart) {
+			return START;
+		} else if (isEnd) {
+			return END;
+		} else {
+			return NONE;
+		}
+	}
+
+	private Color colorOf(Cell cell) {
+		return colorOf(cell.getValue(), cell == start, cell == end);
+	}
+
+	// The start and end of a new maze are only chosen when it is generated, until then Maze throws.
+	private void findStartAndEnd() {
+		try {
+			start = maze.getStart();
+			end = maze.getEnd();
+		}
+		catch (RuntimeException e) {
+			start = null;
+			end = null;
+		}
+	}
+
+	private int overviewColorOf(Cell cell) {
+		int walls = (cell.hasNorth() ? 0 : 1) + (cell.hasWest() ? 0 : 1) + (cell.hasSouth() ? 0 : 1)
+				+ (cell.hasEast() ? 0 : 1);
+		int rgb = colorOf(cell).getRGB();
+		int keep = 8 - walls;
+		int r = ((rgb >> 16) & 0xFF) * keep / 8;
+		int g = ((rgb >> 8) & 0xFF) * keep / 8;
+		int b = (rgb & 0xFF) * keep / 8;
+		return (r << 16) | (g << 8) | b;
+	}
+
+	private void average(int level, int x, int y) {
+		BufferedImage below = levels[level - 1];
+		int[] belowPixels = levelPixels[level - 1];
+		int r = 0, g = 0, b = 0, n = 0;
+		for (int dy = 0; dy < 2; dy++) {
+			int by = 2 * y + dy;
+			if (by >= below.getHeight()) {
+				break;
+			}
+			for (int dx = 0; dx < 2; dx++) {
+				int bx = 2 * x + dx;
+				if (bx >= below.getWidth()) {
+					break;
+				}
+				int rgb = belowPixels[by * below.getWidth() + bx];
+				r += (rgb >> 16) & 0xFF;
+				g += (rgb >> 8) & 0xFF;
+				b += rgb & 0xFF;
+				n++;
+			}
+		}
+		levelPixels[level][y * levels[level].getWidth() + x] = ((r / n) << 16) | ((g / n) << 8) | (b / n);
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		g.setColor(getBackground());
+		g.fillRect(0, 0, getWidth(), getHeight());
+		if (maze == null) {
+			return;
+		}
+		if (!fitted) {
+			fitToView();
+		}
+		if (scale >= DETAIL_SCALE) {
+			paintDetail(g);
+		}
+		else {
+			paintOverview(g);
+		}
+	}
+
+	private void paintOverview(Graphics g) {
+		int level = 0;
+		while (level + 1 < levels.length && scale * (1 << (level + 1)) <= 1) {
+			level++;
+		}
+		double levelScale = scale * (1 << level);
+		double levelX = originX / (1 << level);
+		double levelY = originY / (1 << level);
+		BufferedImage image = levels[level];
+
+		int sx1 = (int) Math.max(0, Math.floor(levelX));
+		int sy1 = (int) Math.max(0, Math.floor(levelY));
+		int sx2 = (int) Math.min(image.getWidth(), Math.ceil(levelX + getWidth() / levelScale));
+		int sy2 = (int) Math.min(image.getHeight(), Math.ceil(levelY + getHeight() / levelScale));
+		if (sx1 >= sx2 || sy1 >= sy2) {
+			return;
+		}
+		Graphics2D g2 = (Graphics2D) g;
+		g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+		g2.drawImage(image,
+				(int) Math.round((sx1 - levelX) * levelScale), (int) Math.round((sy1 - levelY) * levelScale),
+				(int) Math.round((sx2 - levelX) * levelScale), (int) Math.round((sy2 - levelY) * levelScale),
+				sx1, sy1, sx2, sy2, null);
+	}
+
+	private void paintDetail(Graphics g) {
+		int width = getWidth();
+		int height = getHeight();
+		if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+			backBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			backPixels = ((DataBufferInt) backBuffer.getRaster().getDataBuffer()).getData();
+		}
+		Arrays.fill(backPixels, getBackground().getRGB());
+
+		int firstX = (int) Math.max(0, Math.floor(originX));
+		int firstY = (int) Math.max(0, Math.floor(originY));
+		int lastX = (int) Math.min(mazeWidth - 1, Math.floor(originX + width / scale));
+		int lastY = (int) Math.min(mazeHeight - 1, Math.floor(originY + height / scale));
+		for (int y = firstY; y <= lastY; y++) {
+			int top = (int) Math.round((y - originY) * scale);
+			int bottom = (int) Math.round((y + 1 - originY) * scale);
+			for (int x = firstX; x <= lastX; x++) {
+				int left = (int) Math.round((x - originX) * scale);
+				int right = (int) Math.round((x + 1 - originX) * scale);
+				paintCell(maze.getCell(x, y), left, top, right, bottom, width, height);
+			}
+		}
+		g.drawImage(backBuffer, 0, 0, null);
+	}
+
+	private void paintCell(Cell cell, int left, int top, int right, int bottom, int width, int height) {
+		Color color = colorOf(cell);
+		int fill = color.getRGB();
+		int opening = color == NONE ? OPENING : fill;
+		for (int py = Math.max(0, top); py < Math.min(height, bottom); py++) {
+			boolean topRow = py == top, bottomRow = py == bottom - 1;
+			int edge = topRow ? (cell.hasNorth() ? opening : WALL) : bottomRow ? (cell.hasSouth() ? opening : WALL) : fill;
+			int offset = py * width;
+			for (int px = Math.max(0, left); px < Math.min(width, right); px++) {
+				int rgb = edge;
+				if (px == left) {
+					rgb = cell.hasWest() ? (topRow || bottomRow ? edge : opening) : WALL;
+				}
+				else if (px == right - 1) {
+					rgb = cell.hasEast() ? (topRow || bottomRow ? edge : opening) : WALL;
+				}
+				backPixels[offset + px] = rgb;
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package se.hig.dvg329.algomaze.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BatchRunnerTest {
+
+	private static double[] oneToHundred() {
+		double[] values = new double[100];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i + 1;
+		}
+		return values;
+	}
+
+	@Test
+	void percentile_zeroAndHundred_returnSmallestAndLargest() {
+		double[] values = { 1.5, 2, 4, 8 };
+		assertEquals(1.5, BatchRunner.percentile(values, 0));
+		assertEquals(8, BatchRunner.percentile(values, 100));
+	}
+
+	@Test
+	void percentile_singleSample_returnsSampleForAnyPercent() {
+		double[] values = { 3.25 };
+		for (double percent : new double[] { 0, 1, 50, 99, 100 }) {
+			assertEquals(3.25, BatchRunner.percentile(values, percent));
+		}
+	}
+
+	@Test
+	void percentile_nearestRank_roundsRankUp() {
+		double[] values = { 10, 20, 30, 40 };
+		assertEquals(20, BatchRunner.percentile(values, 50));
+		assertEquals(30, BatchRunner.percentile(values, 51));
+		assertEquals(40, BatchRunner.percentile(values, 95));
+	}
+
+	@Test
+	void percentile_wholeRank_isNotRoundedUp() {
+		double[] values = oneToHundred();
+		for (int percent = 1; percent <= 100; percent++) {
+			assertEquals(percent, BatchRunner.percentile(values, percent));
+		}
+	}
+
+	@Test
+	void run_smallBatch_reportsEveryMaze() throws Exception {
+		BatchRunner runner = new BatchRunner(4, 5, 8, "Prim", "Dijkstra", 2);
+		runner.run();
+		assertTrue(runner.getReport().startsWith("Batch of 4 mazes (5x5 to 8x8) on 2 workers"));
+	}
+}
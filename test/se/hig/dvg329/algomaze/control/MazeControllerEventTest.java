@@ -0,0 +1,48 @@
+package se.hig.dvg329.algomaze.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class MazeControllerEventTest {
+
+	@Test
+	void generateAndSolve_recording_commitsEvents() throws Exception {
+		Path file = Files.createTempFile("algomaze", ".jfr");
+		try {
+			try (Recording recording = new Recording()) {
+				recording.enable("se.hig.dvg329.algomaze.MazeGeneration");
+				recording.enable("se.hig.dvg329.algomaze.MazeSolving");
+				recording.enable("se.hig.dvg329.algomaze.ObserverCallback").withThreshold(Duration.ZERO);
+				recording.start();
+				MazeController mazeController = new MazeController();
+				mazeController.createMaze(10, 10);
+				mazeController.generateMaze("Prim", 3);
+				mazeController.registerObserver((o, arg) -> {});
+				mazeController.solveMaze("Dijkstra");
+				recording.stop();
+				recording.dump(file);
+			}
+			Set<String> names = new HashSet<>();
+			for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+				names.add(event.getEventType().getName());
+			}
+			assertTrue(names.contains("se.hig.dvg329.algomaze.MazeGeneration"), names.toString());
+			assertTrue(names.contains("se.hig.dvg329.algomaze.MazeSolving"), names.toString());
+			assertTrue(names.contains("se.hig.dvg329.algomaze.ObserverCallback"), names.toString());
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package se.hig.dvg329.algomaze.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.model.Maze;
+
+class MazeControllerTest {
+
+	private static int countObservers(Maze maze) {
+		int count = 0;
+		for (int y = 0; y < maze.getHeight(); y++) {
+			for (int x = 0; x < maze.getWidth(); x++) {
+				count += maze.getCell(x, y).countObservers();
+			}
+		}
+		return count;
+	}
+
+	@Test
+	void solveMaze_incrementalSolverReplaced_stopsObservingCells() {
+		MazeController mazeController = new MazeController();
+		Maze maze = mazeController.createMaze(12, 10);
+		mazeController.generateMaze("Prim", 6);
+		mazeController.solveMaze("Incremental");
+		assertEquals(12 * 10, countObservers(maze));
+		mazeController.solveMaze("Dijkstra");
+		assertEquals(0, countObservers(maze));
+	}
+
+	@Test
+	void setMaze_otherMaze_incrementalSolverStopsObservingCells() {
+		MazeController mazeController = new MazeController();
+		Maze maze = mazeController.createMaze(12, 10);
+		mazeController.generateMaze("Prim", 6);
+		mazeController.solveMaze("Incremental");
+		mazeController.setMaze(null);
+		assertEquals(0, countObservers(maze));
+	}
+}
@@ -0,0 +1,110 @@
+package se.hig.dvg329.algomaze.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.model.HilbertLayout;
+import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.model.RowMajorLayout;
+
+class MazeFootprintTest {
+
+	@Test
+	void estimate_largerMaze_scalesWithCells() {
+		MazeFootprint small = MazeFootprint.estimate(new RowMajorLayout(100, 100), null, null);
+		MazeFootprint large = MazeFootprint.estimate(new RowMajorLayout(200, 200), null, null);
+		assertEquals(10000, small.getCells());
+		assertTrue(large.getGridBytes() > 3 * small.getGridBytes());
+		assertTrue(small.getGridBytes() >= small.getCells() * MazeFootprint.CELL_BYTES);
+	}
+
+	@Test
+	void estimate_paddedLayout_countsUnusedSlots() {
+		MazeFootprint rowMajor = MazeFootprint.estimate(new RowMajorLayout(100, 30), null, null);
+		MazeFootprint hilbert = MazeFootprint.estimate(new HilbertLayout(100, 30), null, null);
+		assertTrue(hilbert.getGridBytes() > rowMajor.getGridBytes());
+	}
+
+	@Test
+	void estimate_algorithms_addTheirScratch() {
+		MazeFootprint footprint = MazeFootprint.estimate(new RowMajorLayout(100, 100), "Prim", "Dijkstra");
+		assertTrue(footprint.getGeneratorBytes() > 0);
+		assertTrue(footprint.getSolverBytes() > footprint.getGeneratorBytes());
+		assertEquals(footprint.getGridBytes() + footprint.getGeneratorBytes() + footprint.getSolverBytes(),
+				footprint.getTotalBytes());
+		assertTrue(footprint.toString().contains("Dijkstra"));
+	}
+
+	@Test
+	void createMaze_largerThanHeap_throwsBeforeAllocating() {
+		MazeController mazeController = new MazeController();
+		assertThrows(IllegalArgumentException.class, () -> mazeController.createMaze(100000, 100000));
+		assertNull(mazeController.getMaze());
+	}
+
+	@Test
+	void reserve_moreThanLeftByOtherReservation_fails() {
+		long half = Runtime.getRuntime().maxMemory() / 2 + 1;
+		assertTrue(MazeFootprint.reserve(half));
+		try {
+			assertFalse(MazeFootprint.reserve(half));
+			MazeController mazeController = new MazeController();
+			assertThrows(IllegalArgumentException.class,
+					() -> mazeController.createMaze(3000, (int) (half / 3000 / MazeFootprint.CELL_BYTES) + 1));
+		}
+		finally {
+			MazeFootprint.release(half);
+		}
+		assertTrue(MazeFootprint.reserve(half));
+		MazeFootprint.release(half);
+	}
+
+	@Test
+	void getFootprint_generatedMaze_namesGenerator() {
+		MazeController mazeController = new MazeController();
+		Maze maze = mazeController.createMaze(20, 20);
+		mazeController.generateMaze("Prim");
+		assertEquals(maze.getWidth() * maze.getHeight(), mazeController.getFootprint().getCells());
+		assertTrue(mazeController.getFootprint().getGeneratorBytes() > 0);
+	}
+
+	@Test
+	void reserve_sequentialJobsOnSmallHeap_areNotRejectedForGarbage() throws Exception {
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		String classPath = locationOf(MazeController.class) + File.pathSeparator + locationOf(SequentialJobs.class);
+		Process process = new ProcessBuilder(java, "-Xmx64m", "-cp", classPath, SequentialJobs.class.getName()).redirectErrorStream(true).start();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (InputStream in = process.getInputStream()) {
+			in.transferTo(output);
+		}
+		assertTrue(process.waitFor(2, TimeUnit.MINUTES));
+		assertEquals(0, process.exitValue(), output.toString());
+	}
+
+	private static String locationOf(Class<?> type) throws Exception {
+		return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+	}
+
+	/**
+	 * Runs many jobs of the same size in a row on one {@link MazeController}, each of which leaves its
+	 * {@link Maze} as garbage.
+	 */
+	static class SequentialJobs {
+
+		public static void main(String[] args) {
+			MazeController mazeController = new MazeController();
+			for (int i = 0; i < 40; i++) {
+				mazeController.createMaze(200, 200);
+				mazeController.generateMaze("Prim", i);
+				mazeController.solveMaze("Dijkstra");
+			}
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package se.hig.dvg329.algomaze.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MazeJobExecutorTest {
+
+	MazeJobExecutor executor;
+
+	@AfterEach
+	void tearDown() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void submit_burstOfJobs_keepsBoundedPool() throws Exception {
+		executor = new MazeJobExecutor(MazeJobExecutor.DEFAULT_LARGE_JOB_CELLS, 1, 2);
+		List<CompletableFuture<GenerateSolveResult>> results = new ArrayList<>();
+		for (int i = 0; i < 24; i++) {
+			results.add(executor.submit(new GenerateSolveRequest(10 + i, 10, "Prim", "Dijkstra")));
+		}
+		for (int i = 0; i < results.size(); i++) {
+			GenerateSolveResult result = results.get(i).get(30, TimeUnit.SECONDS);
+			assertEquals(10 + i, result.getMaze().getWidth());
+		}
+		assertTrue(executor.getPooledControllerCount() >= 1);
+		assertTrue(executor.getPooledControllerCount() <= 2);
+	}
+
+	@Test
+	void submit_largeJobs_runOneAtATimeWhileSmallJobsPass() throws Exception {
+		executor = new MazeJobExecutor(100, 1, 4);
+		GenerateSolveRequest large = new GenerateSolveRequest(500, 500, "Prim", "Dijkstra");
+		CompletableFuture<GenerateSolveResult> first = executor.submit(large);
+		while (executor.getAvailableLargeJobPermits() > 0 && !first.isDone()) {
+			Thread.sleep(1);
+		}
+		CompletableFuture<GenerateSolveResult> second = executor.submit(large);
+		GenerateSolveResult small = executor.submit(new GenerateSolveRequest(8, 8, "Prim", "Dijkstra"))
+				.get(30, TimeUnit.SECONDS);
+
+		assertEquals(8, small.getMaze().getWidth());
+		assertFalse(second.isDone());
+		second.get(60, TimeUnit.SECONDS);
+		assertTrue(first.isDone());
+		assertEquals(1, executor.getAvailableLargeJobPermits());
+	}
+
+	@Test
+	void submit_invalidSize_completesExceptionally() {
+		executor = new MazeJobExecutor();
+		CompletableFuture<GenerateSolveResult> result = executor.submit(new GenerateSolveRequest(2, 2, "Prim", "Dijkstra"));
+		ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(30, TimeUnit.SECONDS));
+		assertTrue(e.getCause() instanceof IllegalArgumentException);
+		assertEquals(1, executor.getPooledControllerCount());
+	}
+
+	@Test
+	void constructor_noPooledControllers_throwsIllegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> new MazeJobExecutor(100, 1, 0));
+	}
+}
@@ -0,0 +1,107 @@
+package se.hig.dvg329.algomaze.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.storage.InMemoryMazeDAO;
+
+class MazeServerTest {
+
+	MazeServer server;
+	InMemoryMazeDAO mazeDAO;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mazeDAO = new InMemoryMazeDAO();
+		server = new MazeServer(0, 2, mazeDAO);
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		server.stop();
+	}
+
+	private HttpURLConnection get(String path) throws IOException {
+		return (HttpURLConnection) URI.create("http://localhost:" + server.getPort() + path).toURL().openConnection();
+	}
+
+	private static byte[] read(HttpURLConnection connection) throws IOException {
+		try (InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int read; (read = in.read(buffer)) > 0;) {
+				bytes.write(buffer, 0, read);
+			}
+			return bytes.toByteArray();
+		}
+	}
+
+	@Test
+	void generate_sameSeedTwice_isServedFromCache() throws Exception {
+		HttpURLConnection first = get("/generate?width=12&height=9&seed=5");
+		String text = new String(read(first), StandardCharsets.US_ASCII);
+		HttpURLConnection second = get("/generate?width=12&height=9&seed=5");
+		read(second);
+
+		assertEquals(200, first.getResponseCode());
+		assertEquals(first.getHeaderField("Maze-Id"), second.getHeaderField("Maze-Id"));
+		assertEquals(1, mazeDAO.size());
+		Maze maze = mazeDAO.load(UUID.fromString(first.getHeaderField("Maze-Id")));
+		assertEquals(maze.toString(), text);
+	}
+
+	@Test
+	void solveAndFetch_storedMaze_returnSolvedMaze() throws Exception {
+		HttpURLConnection generated = get("/generate?width=10&height=10&algorithm=Braid");
+		read(generated);
+		String id = generated.getHeaderField("Maze-Id");
+
+		HttpURLConnection solved = get("/solve?id=" + id + "&algorithm=DeltaStepping");
+		String text = new String(read(solved), StandardCharsets.US_ASCII);
+		assertTrue(text.contains(" # "));
+
+		byte[] binary = read(get("/mazes/" + id + "?format=binary"));
+		ByteBuffer buffer = ByteBuffer.wrap(binary);
+		assertEquals(10, buffer.getInt());
+		assertEquals(10, buffer.getInt());
+		assertEquals(4 * 4 + 100, binary.length);
+		assertFalse(mazeDAO.load(UUID.fromString(id)).toString().contains(" # "));
+	}
+
+	@Test
+	void generate_storedMazeRemoved_isGeneratedAgain() throws Exception {
+		server.stop();
+		mazeDAO = new InMemoryMazeDAO(1);
+		server = new MazeServer(0, 2, mazeDAO);
+		server.start();
+		HttpURLConnection first = get("/generate?width=12&height=9&seed=5");
+		String text = new String(read(first), StandardCharsets.US_ASCII);
+		read(get("/generate?width=12&height=9&seed=6"));
+		HttpURLConnection again = get("/generate?width=12&height=9&seed=5");
+
+		assertEquals(text, new String(read(again), StandardCharsets.US_ASCII));
+		assertNotEquals(first.getHeaderField("Maze-Id"), again.getHeaderField("Maze-Id"));
+		assertEquals(1, mazeDAO.size());
+	}
+
+	@Test
+	void requests_invalidOrUnknown_returnErrorStatus() throws Exception {
+		assertEquals(400, get("/generate?width=x&height=9").getResponseCode());
+		assertEquals(400, get("/generate?width=9&height=9&algorithm=Unknown").getResponseCode());
+		assertEquals(404, get("/mazes/" + UUID.randomUUID()).getResponseCode());
+	}
+}
@@ -0,0 +1,85 @@
+package se.hig.dvg329.algomaze.control.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class MazeAnalyzerTest {
+
+	/**
+	 * Builds a {@link Maze} of 3 by 5 cells with a corridor down the middle column that ends in a
+	 * junction with a corridor along the bottom row.
+	 */
+	private static Maze buildT() {
+		Maze maze = new Maze(3, 5);
+		for (int y = 0; y < 4; y++) {
+			maze.getCell(1, y).setSouth(true);
+			maze.getCell(1, y + 1).setNorth(true);
+		}
+		for (int x = 0; x < 2; x++) {
+			maze.getCell(x, 4).setEast(true);
+			maze.getCell(x + 1, 4).setWest(true);
+		}
+		return maze;
+	}
+
+	@Test
+	void analyze_handBuiltMaze_countsDegrees() {
+		Maze maze = buildT();
+		maze.setCell(1, 3, CellValue.SOLUTION);
+		maze.setCell(1, 4, CellValue.SOLUTION);
+		MazeAnalysis analysis = new MazeAnalyzer(1).analyze(maze);
+		assertEquals(3, analysis.getDeadEnds());
+		assertEquals(3, analysis.getCorridors());
+		assertEquals(1, analysis.getJunctions());
+		assertEquals(8, analysis.getDegreeCount(0));
+		assertEquals(5, analysis.getLongestCorridor());
+		assertEquals(2, analysis.getSolutionLength());
+		assertEquals(2.0, analysis.getAverageBranching());
+		assertEquals(0.2, analysis.getRiverFactor(), 1e-9);
+	}
+
+	@Test
+	void analyze_corridorAcrossStripes_isJoined() {
+		assertEquals(5, new MazeAnalyzer(5).analyze(buildT()).getLongestCorridor());
+		assertEquals(5, new MazeAnalyzer(2).analyze(buildT()).getLongestCorridor());
+	}
+
+	@Test
+	void analyze_solvedPerfectMaze_sameForAnyStripes() {
+		MazeController mazeController = new MazeController();
+		mazeController.createMaze(37, 41);
+		mazeController.generateMaze("Prim", 7);
+		mazeController.solveMaze("Dijkstra");
+		MazeAnalysis single = new MazeAnalyzer(1).analyze(mazeController.getMaze());
+		MazeAnalysis striped = new MazeAnalyzer(6).analyze(mazeController.getMaze());
+		assertEquals(single.toString(), striped.toString());
+		long degreeSum = 0;
+		for (int degree = 0; degree <= 4; degree++) {
+			degreeSum += degree * single.getDegreeCount(degree);
+		}
+		// Every passage of a spanning tree is counted from both of its cells.
+		assertEquals(2 * (single.getCells() - 1), degreeSum);
+		assertTrue(single.getSolutionLength() > 0);
+	}
+
+	@Test
+	void toString_germanDefaultLocale_usesDecimalPoint() {
+		Locale locale = Locale.getDefault();
+		Locale.setDefault(Locale.GERMANY);
+		try {
+			String text = new MazeAnalyzer(1).analyze(buildT()).toString();
+			assertTrue(text.contains("River factor: 0.200"), text);
+			assertTrue(text.contains("Average branching: 2.000"), text);
+		}
+		finally {
+			Locale.setDefault(locale);
+		}
+	}
+}
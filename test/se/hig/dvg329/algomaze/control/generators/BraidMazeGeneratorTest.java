@@ -0,0 +1,58 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.validation.MazeValidationResult;
+import se.hig.dvg329.algomaze.control.validation.PerfectMazeValidator;
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class BraidMazeGeneratorTest {
+
+	PerfectMazeValidator validator = new PerfectMazeValidator();
+
+	private int countDeadEnds(Maze maze) {
+		int count = 0;
+		for (int y = 0; y < maze.getHeight(); y++) {
+			for (int x = 0; x < maze.getWidth(); x++) {
+				Cell cell = maze.getCell(x, y);
+				int open = (cell.hasNorth() ? 1 : 0) + (cell.hasWest() ? 1 : 0) + (cell.hasSouth() ? 1 : 0)
+						+ (cell.hasEast() ? 1 : 0);
+				if (open == 1) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Test
+	void generate_allDeadEndsRemoved_leavesNoDeadEnds() {
+		Maze maze = new Maze(30, 20);
+		new BraidMazeGenerator(new PrimMazeGenerator(), 1, 0).generate(maze, new Random(5));
+		assertEquals(0, countDeadEnds(maze));
+		MazeValidationResult result = validator.validate(maze);
+		assertEquals(0, result.getInconsistentWalls());
+		assertEquals(0, result.getOpenBoundaries());
+		assertEquals(1, result.getComponents());
+		assertTrue(result.getLoops() > 0);
+	}
+
+	@Test
+	void generate_randomWalls_addsThatManyLoops() {
+		Maze maze = new Maze(30, 20);
+		new BraidMazeGenerator(new PrimMazeGenerator(), 0, 0.1).generate(maze, new Random(6));
+		MazeValidationResult result = validator.validate(maze);
+		assertEquals(60, result.getLoops());
+		assertEquals(1, result.getComponents());
+	}
+
+	@Test
+	void constructor_fractionAboveOne_throwsIllegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> new BraidMazeGenerator(new PrimMazeGenerator(), 1.5, 0));
+	}
+}
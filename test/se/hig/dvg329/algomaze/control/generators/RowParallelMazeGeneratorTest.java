@@ -0,0 +1,92 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Observer;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.model.Maze;
+
+class RowParallelMazeGeneratorTest {
+
+	private static void assertSameForAnyPool(Function<ForkJoinPool, RowParallelMazeGenerator> generators) {
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool many = new ForkJoinPool(4);
+		try {
+			Maze first = new Maze(40, 300);
+			Maze second = new Maze(40, 300);
+			generators.apply(single).generate(first, new Random(21));
+			generators.apply(many).generate(second, new Random(21));
+			assertTrue(first.hasSameContent(second));
+		}
+		finally {
+			single.shutdown();
+			many.shutdown();
+		}
+	}
+
+	@Test
+	void generate_sidewinderOnAnyPool_givesSameMaze() {
+		assertSameForAnyPool(SidewinderMazeGenerator::new);
+	}
+
+	@Test
+	void generate_binaryTreeOnAnyPool_givesSameMaze() {
+		assertSameForAnyPool(BinaryTreeMazeGenerator::new);
+	}
+
+	@Test
+	void generate_binaryTree_topRowIsOneCorridor() {
+		Maze maze = new Maze(12, 6);
+		new BinaryTreeMazeGenerator().generate(maze, new Random(2));
+		for (int x = 0; x < 11; x++) {
+			assertTrue(maze.getCell(x, 0).hasEast());
+		}
+	}
+
+	@Test
+	void generate_observedCells_notifiedOnCallingThread() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Maze maze = new Maze(30, 40);
+			Thread caller = Thread.currentThread();
+			AtomicInteger otherThreads = new AtomicInteger();
+			Observer observer = (o, arg) -> {
+				if (Thread.currentThread() != caller) {
+					otherThreads.incrementAndGet();
+				}
+			};
+			for (int y = 0; y < 40; y++) {
+				for (int x = 0; x < 30; x++) {
+					maze.getCell(x, y).addObserver(observer);
+				}
+			}
+			new SidewinderMazeGenerator(pool).generate(maze, new Random(4));
+			assertEquals(0, otherThreads.get());
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void generate_observedAndUnobserved_giveSameMaze() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Maze observed = new Maze(30, 40);
+			Maze unobserved = new Maze(30, 40);
+			observed.getCell(29, 39).addObserver((o, arg) -> {});
+			new BinaryTreeMazeGenerator(pool).generate(observed, new Random(8));
+			new BinaryTreeMazeGenerator(pool).generate(unobserved, new Random(8));
+			assertTrue(observed.hasSameContent(unobserved));
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class TerrainGeneratorTest {
+
+	@Test
+	void generate_sameSeed_givesSameTerrain() {
+		TerrainGenerator generator = new TerrainGenerator();
+		assertArrayEquals(generator.generate(64, 48, 7), generator.generate(64, 48, 7));
+	}
+
+	@Test
+	void generate_costs_areWithinRangeAndVaried() {
+		short[] terrain = new TerrainGenerator(8, 20, 3).generate(100, 100, 11);
+		int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+		for (short cost : terrain) {
+			min = Math.min(min, cost);
+			max = Math.max(max, cost);
+		}
+		assertTrue(min >= 1, "lowest cost " + min);
+		assertTrue(max <= 20, "highest cost " + max);
+		assertTrue(max - min >= 5, "costs from " + min + " to " + max);
+	}
+
+	@Test
+	void constructor_tooHighCost_throwsIllegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> new TerrainGenerator(8, Short.MAX_VALUE + 1, 3));
+	}
+
+	@Test
+	void generate_moreCellsThanAnArray_throwsIllegalArgumentException() {
+		// 65536 * 65536 overflows an int to zero.
+		assertThrows(IllegalArgumentException.class, () -> new TerrainGenerator().generate(65536, 65536, 1));
+	}
+}
@@ -0,0 +1,73 @@
+package se.hig.dvg329.algomaze.control.generators;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.validation.MazeValidationResult;
+import se.hig.dvg329.algomaze.control.validation.PerfectMazeValidator;
+import se.hig.dvg329.algomaze.model.Maze;
+
+/**
+ * The default "Wilson" generator, with one walker, is also in the generators of the
+ * {@code PerfectMazeValidatorTest}. These tests cover several walkers and the uniformity.
+ */
+class WilsonMazeGeneratorTest {
+
+	/**
+	 * The number of spanning trees of a grid of 3 by 3 cells.
+	 */
+	static final int TREES_3X3 = 192;
+
+	@Test
+	void generate_concurrentWalkers_isPerfect() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			WilsonMazeGenerator generator = new WilsonMazeGenerator(4, pool);
+			PerfectMazeValidator validator = new PerfectMazeValidator();
+			for (long seed = 0; seed < 10; seed++) {
+				int width = 3 + (int) (seed * 11 % 60);
+				int height = 3 + (int) (seed * 17 % 45);
+				Maze maze = new Maze(width, height);
+				generator.generate(maze, new Random(seed));
+				MazeValidationResult result = validator.validate(maze);
+				assertTrue(result.isPerfect(), "seed " + seed + ": " + result);
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void generate_oneWalker_sameSeedGivesSameMaze() {
+		WilsonMazeGenerator generator = new WilsonMazeGenerator();
+		Maze first = new Maze(25, 14);
+		Maze second = new Maze(25, 14);
+		generator.generate(first, new Random(8));
+		generator.generate(second, new Random(8));
+		assertTrue(first.hasSameContent(second));
+	}
+
+	@Test
+	void generate_oneWalker_picksEveryTreeAlike() {
+		WilsonMazeGenerator generator = new WilsonMazeGenerator(1, ForkJoinPool.commonPool());
+		Random random = new Random(13);
+		Map<Long, Integer> counts = new HashMap<>();
+		int samples = 100 * TREES_3X3;
+		for (int i = 0; i < samples; i++) {
+			Maze maze = new Maze(3, 3);
+			generator.generate(maze, random);
+			counts.merge(maze.getContentHash(), 1, Integer::sum);
+		}
+		assertEquals(TREES_3X3, counts.size());
+		for (int count : counts.values()) {
+			assertTrue(count > 50 && count < 160, "a tree was generated " + count + " times");
+		}
+	}
+}
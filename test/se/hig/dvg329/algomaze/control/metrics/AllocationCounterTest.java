@@ -0,0 +1,17 @@
+package se.hig.dvg329.algomaze.control.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class AllocationCounterTest {
+
+	static volatile Object sink;
+
+	@Test
+	void currentThreadAllocatedBytes_afterAllocating_grows() {
+		long before = AllocationCounter.currentThreadAllocatedBytes();
+		sink = new byte[1 << 20];
+		assertTrue(AllocationCounter.currentThreadAllocatedBytes() - before >= 1 << 20);
+	}
+}
@@ -0,0 +1,52 @@
+package se.hig.dvg329.algomaze.control.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+	LatencyHistogram histogram;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		histogram = new LatencyHistogram();
+	}
+
+	@Test
+	void getPercentile_onEmptyHistogram_returnsZero() {
+		assertEquals(0, histogram.getPercentile(50));
+		assertEquals(0, histogram.getCount());
+	}
+
+	@Test
+	void indexOf_bucketBounds_areContiguous() {
+		for (int i = 1; i < 900; i++) {
+			assertEquals(i, LatencyHistogram.indexOf(LatencyHistogram.upperBoundOf(i - 1) + 1), "bucket " + i);
+			assertEquals(i, LatencyHistogram.indexOf(LatencyHistogram.upperBoundOf(i)), "bucket " + i);
+		}
+	}
+
+	@Test
+	void getPercentile_uniformValues_isWithinSevenPercent() {
+		for (long i = 1; i <= 10000; i++) {
+			histogram.record(i * 1000);
+		}
+
+		assertEquals(10000, histogram.getCount());
+		assertEquals(10000000, histogram.getMax());
+		assertEquals(5000000, histogram.getPercentile(50), 5000000 * 0.07);
+		assertEquals(9900000, histogram.getPercentile(99), 9900000 * 0.07);
+		assertEquals(5000500, histogram.getMean(), 1);
+	}
+
+	@Test
+	void reset_afterRecording_clearsHistogram() {
+		histogram.record(42);
+		histogram.reset();
+
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+	}
+}
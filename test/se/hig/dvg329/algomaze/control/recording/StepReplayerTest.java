@@ -0,0 +1,156 @@
+package se.hig.dvg329.algomaze.control.recording;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class StepReplayerTest {
+
+	MazeController mazeController;
+	Maze maze;
+	StepLog log;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mazeController = new MazeController();
+		maze = mazeController.createMaze(40, 30);
+		StepRecorder recorder = new StepRecorder(maze);
+		mazeController.registerObserver(recorder);
+		mazeController.generateMaze("Prim");
+		mazeController.solveMaze("Dijkstra");
+		log = recorder.getLog();
+	}
+
+	private void assertSameCells(Maze expected, Maze actual) {
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				Cell e = expected.getCell(x, y);
+				Cell a = actual.getCell(x, y);
+				assertEquals(StepRecorder.stateOf(e), StepRecorder.stateOf(a), "cell " + x + "," + y);
+			}
+		}
+	}
+
+	@Test
+	void play_recordedRun_reproducesMaze() {
+		StepReplayer replayer = new StepReplayer(log);
+		replayer.play(Double.POSITIVE_INFINITY);
+		assertEquals(log.size(), replayer.getPosition());
+		assertSameCells(maze, replayer.getMaze());
+		assertEquals(maze.toString(), replayer.getMaze().toString());
+	}
+
+	@Test
+	void writeTo_readFrom_keepsSteps() throws Exception {
+		Path file = Files.createTempFile("algomaze", ".steps");
+		try {
+			log.writeTo(file);
+			assertTrue(StepLog.isStepLog(file));
+			StepLog read = StepLog.readFrom(file);
+			assertEquals(log.size(), read.size());
+			assertEquals(log.getStart(), read.getStart());
+			assertEquals(log.getEnd(), read.getEnd());
+			for (int i = 0; i < log.size(); i++) {
+				assertEquals(log.get(i), read.get(i));
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void readFrom_sizeLargerThanFile_throwsIOException() throws Exception {
+		Path file = Files.createTempFile("algomaze", ".steps");
+		try {
+			log.writeTo(file);
+			byte[] bytes = Files.readAllBytes(file);
+			// The number of steps is the last int of the header.
+			ByteBuffer.wrap(bytes).putInt(6 * Integer.BYTES, Integer.MAX_VALUE);
+			Files.write(file, bytes);
+			assertThrows(IOException.class, () -> StepLog.readFrom(file));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void readFrom_truncatedLog_throwsIOException() throws Exception {
+		Path file = Files.createTempFile("algomaze", ".steps");
+		try {
+			log.writeTo(file);
+			byte[] bytes = Files.readAllBytes(file);
+			Files.write(file, Arrays.copyOf(bytes, bytes.length - 3 * Integer.BYTES - 1));
+			assertThrows(IOException.class, () -> StepLog.readFrom(file));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void readFrom_badOp_throwsIOException() throws Exception {
+		Path file = Files.createTempFile("algomaze", ".steps");
+		try {
+			log.writeTo(file);
+			byte[] bytes = Files.readAllBytes(file);
+			// The first step follows the seven ints of the header.
+			ByteBuffer.wrap(bytes).putInt(7 * Integer.BYTES, StepLog.encode(0, 6));
+			Files.write(file, bytes);
+			assertThrows(IOException.class, () -> StepLog.readFrom(file));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void step_badOpOrIndex_throwsIllegalArgumentException() {
+		StepLog corrupt = new StepLog(4, 4);
+		corrupt.add(StepLog.encode(3, StepLog.OPEN + StepLog.EAST));
+		corrupt.add(StepLog.encode(3, 5));
+		corrupt.add(StepLog.encode(16, StepLog.OPEN));
+		StepReplayer replayer = new StepReplayer(corrupt);
+		assertTrue(replayer.step());
+		assertThrows(IllegalArgumentException.class, replayer::step);
+		assertEquals(1, replayer.getPosition());
+		assertThrows(IllegalArgumentException.class, () -> replayer.seek(3));
+	}
+
+	@Test
+	void constructor_startOutsideMaze_throwsIllegalArgumentException() {
+		StepLog corrupt = new StepLog(4, 4);
+		corrupt.setStartAndEnd(16, 0);
+		assertThrows(IllegalArgumentException.class, () -> new StepReplayer(corrupt));
+	}
+
+	@Test
+	void seek_backward_matchesReplayFromStart() {
+		StepReplayer replayer = new StepReplayer(log);
+		replayer.play(Double.POSITIVE_INFINITY);
+		int target = log.size() / 3 + 7;
+		replayer.seek(target);
+		StepReplayer fresh = new StepReplayer(log);
+		fresh.seek(target);
+		assertEquals(target, replayer.getPosition());
+		assertSameCells(fresh.getMaze(), replayer.getMaze());
+	}
+
+	@Test
+	void seek_pastEnd_throwsIllegalArgumentException() {
+		StepReplayer replayer = new StepReplayer(log);
+		assertThrows(IllegalArgumentException.class, () -> replayer.seek(log.size() + 1));
+	}
+}
@@ -0,0 +1,82 @@
+package se.hig.dvg329.algomaze.control.registry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.control.solvers.MazeSolver;
+import se.hig.dvg329.algomaze.control.solvers.MazeSolverFactory;
+
+class AlgorithmRegistryTest {
+
+	private static AlgorithmProvider<String> provider(AlgorithmDescriptor descriptor) {
+		return new AlgorithmProvider<String>() {
+
+			@Override
+			public AlgorithmDescriptor getDescriptor() {
+				return descriptor;
+			}
+
+			@Override
+			public String create() {
+				return descriptor.getName();
+			}
+		};
+	}
+
+	@Test
+	void select_fastestThatFits_dependsOnCoresAndHeap() {
+		AlgorithmRegistry<String> registry = new AlgorithmRegistry<>(Arrays.asList(
+				provider(new AlgorithmDescriptor("Serial", 40, 100, false, false)),
+				provider(new AlgorithmDescriptor("Parallel", 20, 300, true, false)),
+				provider(new AlgorithmDescriptor("Disk", 0, 1000, false, true))));
+
+		assertEquals("Serial", registry.select(1000, 1 << 20, 1).getName());
+		assertEquals("Parallel", registry.select(1000, 1 << 20, 4).getName());
+		assertEquals("Parallel", registry.select(1000, 30000, 1).getName());
+		assertEquals("Disk", registry.select(1000, 100, 4).getName());
+		assertEquals("Serial", registry.create("Serial", 10, 10));
+		assertNull(registry.create("Unknown", 10, 10));
+	}
+
+	@Test
+	void select_weightedRegistry_skipsUnweighted() {
+		AlgorithmRegistry<String> registry = new AlgorithmRegistry<>(Arrays.asList(
+				provider(new AlgorithmDescriptor("Exact", 40, 1000, false, false, true)),
+				provider(new AlgorithmDescriptor("Breadth", 0, 100, false, true))), true);
+
+		assertEquals("Exact", registry.select(1000, 1 << 20, 1).getName());
+		assertEquals("Exact", registry.select(1000, 100, 1).getName());
+		assertEquals("Breadth", registry.create("Breadth", 10, 10));
+	}
+
+	@Test
+	void solverRegistry_auto_neverPicksUnweighted() {
+		AlgorithmRegistry<MazeSolver> registry = MazeSolverFactory.getRegistry();
+		assertFalse(registry.getDescriptor("OutOfCore").isWeighted());
+		assertTrue(registry.select(1000000, 0, 1).isWeighted());
+		assertTrue(registry.select(1000000, Long.MAX_VALUE, 64).isWeighted());
+	}
+
+	@Test
+	void solverRegistry_serviceLoader_findsBuiltInSolvers() {
+		AlgorithmRegistry<MazeSolver> registry = MazeSolverFactory.getRegistry();
+		for (String name : new String[] { "Dijkstra", "Incremental", "OutOfCore", "DeltaStepping" }) {
+			assertNotNull(registry.getDescriptor(name), name);
+		}
+		assertNull(new MazeSolverFactory().createMazeSolver("Unknown"));
+		assertNotNull(new MazeSolverFactory().createMazeSolver(AlgorithmRegistry.AUTO, 100, 100));
+	}
+
+	@Test
+	void mazeController_auto_generatesAndSolves() {
+		MazeController mazeController = new MazeController();
+		mazeController.createMaze(20, 20);
+		mazeController.generateMaze(AlgorithmRegistry.AUTO);
+		mazeController.solveMaze(AlgorithmRegistry.AUTO);
+		assertNotNull(mazeController.getSolverName());
+	}
+}
@@ -0,0 +1,119 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class BatchMazeSolverTest {
+
+	MazeController mazeController;
+	Maze maze;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mazeController = new MazeController();
+		maze = mazeController.createMaze(40, 30);
+		mazeController.generateTerrain(9);
+		mazeController.generateMaze("Braid", 9);
+	}
+
+	@Test
+	void solveDistances_randomQueries_matchIncrementalSolver() {
+		Random random = new Random(9);
+		int[] sources = new int[200];
+		int[] targets = new int[200];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = random.nextInt(40 * 30);
+			targets[i] = random.nextInt(40 * 30);
+		}
+		long[] distances = new BatchMazeSolver(maze, new ForkJoinPool(3)).solveDistances(sources, targets);
+
+		IncrementalMazeSolver reference = new IncrementalMazeSolver();
+		for (int i = 0; i < sources.length; i++) {
+			maze.setStart(maze.getCell(sources[i] % 40, sources[i] / 40));
+			maze.setEnd(maze.getCell(targets[i] % 40, targets[i] / 40));
+			reference.solve(maze);
+			assertEquals(reference.getDistance(), distances[i], "query " + i);
+		}
+	}
+
+	@Test
+	void solvePaths_query_returnsConnectedPathWithMatchingCost() {
+		BatchMazeSolver solver = new BatchMazeSolver(maze);
+		int[] sources = { 0, 5 };
+		int[] targets = { 40 * 30 - 1, 5 };
+		int[][] paths = solver.solvePaths(sources, targets);
+		long[] distances = solver.solveDistances(sources, targets);
+
+		assertArrayEquals(new int[] { 5 }, paths[1]);
+		assertEquals(0, distances[1]);
+		int[] path = paths[0];
+		assertEquals(0, path[0]);
+		assertEquals(40 * 30 - 1, path[path.length - 1]);
+		long cost = 0;
+		for (int i = 1; i < path.length; i++) {
+			int step = Math.abs(path[i] - path[i - 1]);
+			assertTrue(step == 1 || step == 40, "not neighbours: " + path[i - 1] + ", " + path[i]);
+			cost += maze.getTraversalCost(path[i] % 40, path[i] / 40);
+		}
+		assertEquals(distances[0], cost);
+	}
+
+	@Test
+	void solveDistances_walledInTarget_returnsMinusOne() {
+		Cell target = maze.getCell(10, 10);
+		target.setNorth(false);
+		target.setWest(false);
+		target.setSouth(false);
+		target.setEast(false);
+		long[] distances = new BatchMazeSolver(maze).solveDistances(new int[] { 0 }, new int[] { 10 * 40 + 10 });
+		assertEquals(-1, distances[0]);
+	}
+
+	@Test
+	void solveDistances_targetOutsideMaze_throwsIllegalArgumentException() {
+		BatchMazeSolver solver = new BatchMazeSolver(maze);
+		assertThrows(IllegalArgumentException.class, () -> solver.solveDistances(new int[] { 0 }, new int[] { 40 * 30 }));
+	}
+
+	@Test
+	void solveDistances_solverDropped_mazeCanBeCollected() throws Exception {
+		// The threads of the pool outlive the solver.
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			WeakReference<Maze> reference = solveAndDrop(pool);
+			for (int i = 0; i < 10 && reference.get() != null; i++) {
+				System.gc();
+				Thread.sleep(10);
+			}
+			assertNull(reference.get());
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private static WeakReference<Maze> solveAndDrop(ForkJoinPool pool) {
+		MazeController controller = new MazeController();
+		Maze dropped = controller.createMaze(60, 60);
+		controller.generateMaze("Prim", 4);
+		int[] sources = new int[256];
+		int[] targets = new int[256];
+		Random random = new Random(4);
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = random.nextInt(60 * 60);
+			targets[i] = random.nextInt(60 * 60);
+		}
+		new BatchMazeSolver(dropped, pool).solveDistances(sources, targets);
+		return new WeakReference<>(dropped);
+	}
+}
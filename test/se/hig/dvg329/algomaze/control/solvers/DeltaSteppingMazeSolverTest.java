@@ -0,0 +1,62 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class DeltaSteppingMazeSolverTest {
+
+	private static Maze braidedMaze(int width, int height, long seed) {
+		MazeController mazeController = new MazeController();
+		Maze maze = mazeController.createMaze(width, height);
+		mazeController.generateTerrain(seed);
+		mazeController.generateMaze("Braid", seed);
+		return maze;
+	}
+
+	@Test
+	void solve_differentDeltas_matchIncrementalSolver() {
+		Maze maze = braidedMaze(50, 40, 3);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		IncrementalMazeSolver reference = new IncrementalMazeSolver();
+		Random random = new Random(3);
+		for (int query = 0; query < 20; query++) {
+			maze.setStart(maze.getCell(random.nextInt(50), random.nextInt(40)));
+			maze.setEnd(maze.getCell(random.nextInt(50), random.nextInt(40)));
+			reference.solve(maze);
+			for (int delta : new int[] { 1, 4, 32, 5000 }) {
+				DeltaSteppingMazeSolver solver = new DeltaSteppingMazeSolver(delta, pool);
+				solver.solve(maze);
+				assertEquals(reference.getDistance(), solver.getDistance(), "query " + query + ", delta " + delta);
+			}
+		}
+	}
+
+	@Test
+	void solve_largeBuckets_relaxesInParallelAndMarksPathOfSameCost() {
+		Maze maze = braidedMaze(200, 150, 5);
+		DeltaSteppingMazeSolver solver = new DeltaSteppingMazeSolver(2000, new ForkJoinPool(4));
+		solver.solve(maze);
+		IncrementalMazeSolver reference = new IncrementalMazeSolver();
+		reference.solve(maze);
+		assertEquals(reference.getDistance(), solver.getDistance());
+
+		solver.solve(maze);
+		long cost = -maze.getTraversalCost(maze.getStart().getX(), maze.getStart().getY());
+		for (int y = 0; y < 150; y++) {
+			for (int x = 0; x < 200; x++) {
+				if (maze.getCell(x, y).getValue() == CellValue.SOLUTION) {
+					cost += maze.getTraversalCost(x, y);
+				}
+			}
+		}
+		assertEquals(solver.getDistance(), cost);
+	}
+}
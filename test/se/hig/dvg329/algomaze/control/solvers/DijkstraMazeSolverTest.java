@@ -0,0 +1,95 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class DijkstraMazeSolverTest {
+
+	DijkstraMazeSolver solver;
+	Maze maze;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		solver = new DijkstraMazeSolver();
+		// A 5 x 5 maze without inner walls, so there are many paths from the start to the end.
+		maze = new Maze(5, 5);
+		for (int y = 0; y < 5; y++) {
+			for (int x = 0; x < 5; x++) {
+				Cell cell = maze.getCell(x, y);
+				cell.setNorth(y > 0);
+				cell.setWest(x > 0);
+				cell.setSouth(y < 4);
+				cell.setEast(x < 4);
+			}
+		}
+		maze.setStart(maze.getCell(2, 0));
+		maze.setEnd(maze.getCell(2, 4));
+		maze.setEmpty(false);
+	}
+
+	private int countSolutionCells() {
+		int count = 0;
+		for (int y = 0; y < 5; y++) {
+			for (int x = 0; x < 5; x++) {
+				if (maze.getCell(x, y).getValue() == CellValue.SOLUTION) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Test
+	void solve_withoutTerrain_takesStraightPath() {
+		solver.solve(maze);
+		assertEquals(5, countSolutionCells());
+		assertEquals(CellValue.SOLUTION, maze.getCell(2, 2).getValue());
+	}
+
+	@Test
+	void solve_expensiveCells_goesAround() {
+		short[] terrain = new short[25];
+		Arrays.fill(terrain, (short) 1);
+		terrain[1 * 5 + 2] = 50;
+		terrain[2 * 5 + 2] = 50;
+		terrain[3 * 5 + 2] = 50;
+		maze.setTerrain(terrain);
+		solver.solve(maze);
+		assertEquals(7, countSolutionCells());
+		assertNotEquals(CellValue.SOLUTION, maze.getCell(2, 2).getValue());
+	}
+
+	@Test
+	void solve_solverKept_mazeCanBeCollected() throws Exception {
+		WeakReference<Maze> reference = solveAndDrop(solver);
+		for (int i = 0; i < 10 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(reference.get());
+	}
+
+	private static WeakReference<Maze> solveAndDrop(DijkstraMazeSolver solver) {
+		Maze dropped = new Maze(4, 4);
+		for (int x = 0; x < 4; x++) {
+			for (int y = 0; y < 4; y++) {
+				dropped.getCell(x, y).setSouth(y < 3);
+				dropped.getCell(x, y).setNorth(y > 0);
+			}
+		}
+		dropped.setStart(dropped.getCell(0, 0));
+		dropped.setEnd(dropped.getCell(0, 3));
+		dropped.setEmpty(false);
+		solver.solve(dropped);
+		return new WeakReference<>(dropped);
+	}
+}
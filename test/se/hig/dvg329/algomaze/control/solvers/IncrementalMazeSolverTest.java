@@ -0,0 +1,118 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class IncrementalMazeSolverTest {
+
+	IncrementalMazeSolver solver;
+	Maze maze;
+	Random random;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		solver = new IncrementalMazeSolver();
+		MazeController mazeController = new MazeController();
+		maze = mazeController.createMaze(60, 40);
+		mazeController.generateTerrain(3);
+		mazeController.generateMaze("Braid", 3);
+		random = new Random(3);
+	}
+
+	/**
+	 * A plain Dijkstra over the walls and terrain of the maze, as the reference.
+	 */
+	private long shortestDistance() {
+		int width = maze.getWidth();
+		long[] distances = new long[width * maze.getHeight()];
+		Arrays.fill(distances, Long.MAX_VALUE);
+		Cell start = maze.getStart();
+		distances[start.getY() * width + start.getX()] = 0;
+		PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+		queue.add(new long[] { 0, start.getY() * width + start.getX() });
+		while (!queue.isEmpty()) {
+			long[] entry = queue.poll();
+			int index = (int) entry[1];
+			if (entry[0] > distances[index]) {
+				continue;
+			}
+			Cell cell = maze.getCell(index % width, index / width);
+			Cell[] neighbors = { cell.hasNorth() ? maze.getNorthNeighborOf(cell) : null,
+					cell.hasWest() ? maze.getWestNeighborOf(cell) : null,
+					cell.hasSouth() ? maze.getSouthNeighborOf(cell) : null,
+					cell.hasEast() ? maze.getEastNeighborOf(cell) : null };
+			for (Cell neighbor : neighbors) {
+				if (neighbor != null) {
+					int next = neighbor.getY() * width + neighbor.getX();
+					long distance = entry[0] + maze.getTraversalCost(neighbor.getX(), neighbor.getY());
+					if (distance < distances[next]) {
+						distances[next] = distance;
+						queue.add(new long[] { distance, next });
+					}
+				}
+			}
+		}
+		Cell end = maze.getEnd();
+		long distance = distances[end.getY() * width + end.getX()];
+		return distance == Long.MAX_VALUE ? -1 : distance;
+	}
+
+	private void toggleRandomWall() {
+		int x = random.nextInt(maze.getWidth() - 1);
+		int y = random.nextInt(maze.getHeight());
+		Cell cell = maze.getCell(x, y);
+		Cell east = maze.getEastNeighborOf(cell);
+		boolean open = !cell.hasEast();
+		cell.setEast(open);
+		east.setWest(open);
+	}
+
+	@Test
+	void solve_firstCall_findsShortestDistance() {
+		solver.solve(maze);
+		assertEquals(shortestDistance(), solver.getDistance());
+	}
+
+	@Test
+	void solve_afterWallChanges_matchesFullSearch() {
+		solver.solve(maze);
+		for (int i = 0; i < 50; i++) {
+			toggleRandomWall();
+			if (i % 3 == 0) {
+				toggleRandomWall();
+			}
+			solver.solve(maze);
+			assertEquals(shortestDistance(), solver.getDistance(), "after change " + i);
+		}
+	}
+
+	@Test
+	void solve_unchangedMaze_expandsNothing() {
+		solver.solve(maze);
+		assertTrue(solver.getStatistics().getVisitedCells() > 0);
+		solver.solve(maze);
+		assertEquals(0, solver.getStatistics().getVisitedCells());
+	}
+
+	@Test
+	void solve_startWalledIn_reportsNoPath() {
+		solver.solve(maze);
+		Cell start = maze.getStart();
+		start.setWest(false);
+		start.setEast(false);
+		start.setSouth(false);
+		start.setNorth(false);
+		solver.solve(maze);
+		assertEquals(-1, solver.getDistance());
+	}
+}
@@ -0,0 +1,75 @@
+package se.hig.dvg329.algomaze.control.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Cell.CellValue;
+import se.hig.dvg329.algomaze.model.Maze;
+import se.hig.dvg329.algomaze.storage.TiledMazeFile;
+
+class OutOfCoreMazeSolverTest {
+
+	MazeController mazeController;
+	Maze maze;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mazeController = new MazeController();
+		maze = mazeController.createMaze(45, 31);
+		mazeController.generateMaze("Braid", 4);
+	}
+
+	@Test
+	void solve_tiledFileWithSpilledArrays_matchesBatchSolver() throws Exception {
+		Path path = Files.createTempFile("algomaze", ".tiles");
+		// Tiles that do not divide the maze, two of them cached and nothing kept on the heap.
+		OutOfCoreMazeSolver solver = new OutOfCoreMazeSolver(7, 2, 0);
+		BatchMazeSolver reference = new BatchMazeSolver(maze);
+		Random random = new Random(4);
+		try (TiledMazeFile file = TiledMazeFile.write(maze, path, 7)) {
+			for (int query = 0; query < 20; query++) {
+				int start = random.nextInt(45 * 31);
+				int end = random.nextInt(45 * 31);
+				file.setStartAndEnd(start, end);
+				List<Long> cells = new ArrayList<>();
+				long steps = solver.solve(file, cells::add);
+
+				assertEquals(reference.solveDistances(new int[] { start }, new int[] { end })[0], steps);
+				assertEquals(steps + 1, cells.size());
+				assertEquals(end, (long) cells.get(0));
+				assertEquals(start, (long) cells.get(cells.size() - 1));
+				assertTrue(solver.hasSpilled());
+			}
+		}
+		finally {
+			Files.delete(path);
+		}
+		assertTrue(solver.getCacheMisses() > 2);
+	}
+
+	@Test
+	void solve_maze_marksShortestPath() {
+		mazeController.solveMaze("OutOfCore");
+		long solution = 0;
+		for (int y = 0; y < 31; y++) {
+			for (int x = 0; x < 45; x++) {
+				if (maze.getCell(x, y).getValue() == CellValue.SOLUTION) {
+					solution++;
+				}
+			}
+		}
+		int start = maze.getStart().getY() * 45 + maze.getStart().getX();
+		int end = maze.getEnd().getY() * 45 + maze.getEnd().getX();
+		long distance = new BatchMazeSolver(maze).solveDistances(new int[] { start }, new int[] { end })[0];
+		assertEquals(distance + 1, solution);
+	}
+}
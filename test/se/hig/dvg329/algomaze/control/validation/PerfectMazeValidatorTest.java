@@ -0,0 +1,98 @@
+package se.hig.dvg329.algomaze.control.validation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class PerfectMazeValidatorTest {
+
+	static final String[] GENERATORS = { "Prim", "Backtracker", "Wilson", "Sidewinder", "BinaryTree" };
+	static final int SEEDS = 25;
+
+	PerfectMazeValidator validator;
+	MazeController mazeController;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		validator = new PerfectMazeValidator(3);
+		mazeController = new MazeController();
+	}
+
+	private Maze generate(String algorithm, int width, int height, long seed) {
+		mazeController.createMaze(width, height);
+		mazeController.generateMaze(algorithm, seed);
+		return mazeController.getMaze();
+	}
+
+	@Test
+	void validate_everyGeneratorAndSeed_isPerfect() {
+		for (String algorithm : GENERATORS) {
+			for (long seed = 0; seed < SEEDS; seed++) {
+				int width = 3 + (int) (seed * 7 % 41);
+				int height = 3 + (int) (seed * 13 % 37);
+				MazeValidationResult result = validator.validate(generate(algorithm, width, height, seed));
+				assertTrue(result.isPerfect(), algorithm + " with seed " + seed + ": " + result);
+				assertEquals((long) width * height - 1, result.getPassages());
+			}
+		}
+	}
+
+	@Test
+	void generateMaze_sameSeed_givesSameMaze() {
+		for (String algorithm : GENERATORS) {
+			String first = generate(algorithm, 20, 15, 42).toString();
+			assertEquals(first, generate(algorithm, 20, 15, 42).toString(), algorithm);
+		}
+	}
+
+	@Test
+	void validate_extraPassage_findsLoop() {
+		Maze maze = generate("Prim", 10, 10, 1);
+		for (int x = 0; x < 9; x++) {
+			if (!maze.getCell(x, 4).hasEast()) {
+				maze.getCell(x, 4).setEast(true);
+				maze.getCell(x + 1, 4).setWest(true);
+				break;
+			}
+		}
+		MazeValidationResult result = validator.validate(maze);
+		assertFalse(result.isPerfect());
+		assertEquals(1, result.getLoops());
+		assertEquals(1, result.getComponents());
+	}
+
+	@Test
+	void validate_wallOpenOnOneSide_findsInconsistency() {
+		Maze maze = generate("Prim", 10, 10, 2);
+		for (int x = 0; x < 10; x++) {
+			if (maze.getCell(x, 3).hasSouth()) {
+				maze.getCell(x, 4).setNorth(false);
+				break;
+			}
+		}
+		MazeValidationResult result = validator.validate(maze);
+		assertFalse(result.isPerfect());
+		assertEquals(1, result.getInconsistentWalls());
+		assertEquals(2, result.getComponents());
+	}
+
+	@Test
+	void validate_emptyMaze_hasOneComponentPerCell() {
+		Maze maze = new Maze(5, 4);
+		MazeValidationResult result = validator.validate(maze);
+		assertFalse(result.isPerfect());
+		assertEquals(20, result.getComponents());
+		assertEquals(0, result.getPassages());
+	}
+
+	@Test
+	void validate_openOuterWall_findsOpenBoundary() {
+		Maze maze = generate("Prim", 6, 6, 3);
+		maze.getCell(5, 2).setEast(true);
+		assertEquals(1, validator.validate(maze).getOpenBoundaries());
+	}
+}
@@ -0,0 +1,80 @@
+package se.hig.dvg329.algomaze.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CellLayoutTest {
+
+	private static CellLayout[] layoutsOf(int width, int height) {
+		return new CellLayout[] { new RowMajorLayout(width, height), new MortonLayout(width, height),
+				new HilbertLayout(width, height) };
+	}
+
+	@Test
+	void indexOf_everyCell_isUniqueAndRoundTrips() {
+		int[][] sizes = { { 3, 3 }, { 8, 8 }, { 5, 37 }, { 70, 9 }, { 64, 100 }, { 130, 200 } };
+		for (int[] size : sizes) {
+			for (CellLayout layout : layoutsOf(size[0], size[1])) {
+				boolean[] used = new boolean[layout.size()];
+				for (int y = 0; y < size[1]; y++) {
+					for (int x = 0; x < size[0]; x++) {
+						int index = layout.indexOf(x, y);
+						assertFalse(used[index], layout + " " + size[0] + "x" + size[1] + " at " + x + "," + y);
+						used[index] = true;
+						assertEquals(x, layout.xOf(index));
+						assertEquals(y, layout.yOf(index));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void neighborsOf_everyCell_matchCoordinates() {
+		for (CellLayout layout : layoutsOf(13, 6)) {
+			for (int y = 0; y < 6; y++) {
+				for (int x = 0; x < 13; x++) {
+					int index = layout.indexOf(x, y);
+					assertEquals(y > 0 ? layout.indexOf(x, y - 1) : -1, layout.northOf(index));
+					assertEquals(x > 0 ? layout.indexOf(x - 1, y) : -1, layout.westOf(index));
+					assertEquals(y < 5 ? layout.indexOf(x, y + 1) : -1, layout.southOf(index));
+					assertEquals(x < 12 ? layout.indexOf(x + 1, y) : -1, layout.eastOf(index));
+				}
+			}
+		}
+	}
+
+	@Test
+	void size_justAboveAPowerOfTwo_padsOnlyEdgeTiles() {
+		for (CellLayout layout : layoutsOf(1025, 1025)) {
+			assertTrue(layout.size() < 1.15 * 1025 * 1025, layout + " has " + layout.size() + " slots");
+		}
+	}
+
+	@Test
+	void hilbertLayout_consecutiveIndices_areNeighbors() {
+		HilbertLayout layout = new HilbertLayout(16, 16);
+		for (int i = 1; i < layout.size(); i++) {
+			int distance = Math.abs(layout.xOf(i) - layout.xOf(i - 1)) + Math.abs(layout.yOf(i) - layout.yOf(i - 1));
+			assertEquals(1, distance);
+		}
+	}
+
+	@Test
+	void maze_withLayout_storesEveryCellAtItsCoordinates() {
+		Maze maze = new Maze(21, 10, new HilbertLayout(21, 10));
+		for (int y = 0; y < 10; y++) {
+			for (int x = 0; x < 21; x++) {
+				assertEquals(x, maze.getCell(x, y).getX());
+				assertEquals(y, maze.getCell(x, y).getY());
+			}
+		}
+		assertSame(maze.getCell(4, 3), maze.getEastNeighborOf(maze.getCell(3, 3)));
+	}
+
+	@Test
+	void maze_withLayoutOfOtherSize_throwsIllegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> new Maze(10, 10, new MortonLayout(10, 11)));
+	}
+}
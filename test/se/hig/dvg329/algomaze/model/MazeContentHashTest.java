@@ -0,0 +1,97 @@
+package se.hig.dvg329.algomaze.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.storage.AsciiMazeParser;
+import se.hig.dvg329.algomaze.storage.InMemoryMazeDAO;
+
+class MazeContentHashTest {
+
+	private static Maze generate(long seed, CellLayout layout) {
+		MazeController mazeController = new MazeController();
+		mazeController.createMaze(layout.getWidth(), layout.getHeight(), layout);
+		mazeController.generateMaze("Prim", seed);
+		return mazeController.getMaze();
+	}
+
+	@Test
+	void getContentHash_sameContent_sameHash() throws Exception {
+		Maze maze = generate(3, new RowMajorLayout(21, 13));
+		Maze hilbert = generate(3, new HilbertLayout(21, 13));
+		Maze parsed = new AsciiMazeParser()
+				.parse(ByteBuffer.wrap(maze.toString().getBytes(StandardCharsets.US_ASCII))).get(0);
+		assertNotEquals(maze.getId(), hilbert.getId());
+		assertEquals(maze.getContentHash(), hilbert.getContentHash());
+		assertEquals(maze.getContentHash(), parsed.getContentHash());
+		assertTrue(maze.hasSameContent(parsed));
+		assertNotEquals(maze.getContentHash(), generate(4, new RowMajorLayout(21, 13)).getContentHash());
+	}
+
+	@Test
+	void getContentHash_wallToggledBack_restoresHash() {
+		Maze maze = generate(5, new RowMajorLayout(10, 10));
+		long hash = maze.getContentHash();
+		Cell cell = maze.getCell(4, 4);
+		boolean east = cell.hasEast();
+		cell.setEast(!east);
+		assertNotEquals(hash, maze.getContentHash());
+		cell.setEast(east);
+		assertEquals(hash, maze.getContentHash());
+		cell.setEast(east);
+		assertEquals(hash, maze.getContentHash());
+	}
+
+	@Test
+	void getContentHash_solved_unchanged() {
+		MazeController mazeController = new MazeController();
+		mazeController.createMaze(15, 15);
+		mazeController.generateMaze("Prim", 9);
+		long hash = mazeController.getMaze().getContentHash();
+		mazeController.solveMaze("Dijkstra");
+		assertEquals(hash, mazeController.getMaze().getContentHash());
+	}
+
+	@Test
+	void store_sameContent_keptOnce() {
+		InMemoryMazeDAO mazeDAO = new InMemoryMazeDAO();
+		Maze first = generate(11, new RowMajorLayout(12, 8));
+		Maze second = generate(11, new RowMajorLayout(12, 8));
+		Maze third = generate(12, new RowMajorLayout(12, 8));
+		mazeDAO.store(first);
+		mazeDAO.store(second);
+		mazeDAO.store(third);
+		assertEquals(3, mazeDAO.size());
+		assertEquals(2, mazeDAO.getDistinctCount());
+		Maze loaded = mazeDAO.load(second.getId());
+		assertEquals(second.getId(), loaded.getId());
+		assertNotSame(second, loaded);
+		assertTrue(loaded.hasSameContent(first));
+		assertTrue(mazeDAO.remove(first.getId()));
+		assertTrue(mazeDAO.containsContent(second));
+		assertTrue(mazeDAO.remove(second.getId()));
+		assertFalse(mazeDAO.containsContent(second));
+		assertFalse(mazeDAO.remove(second.getId()));
+		assertEquals(1, mazeDAO.size());
+		assertEquals(1, mazeDAO.getDistinctCount());
+	}
+
+	@Test
+	void store_mazeChangedAfterwards_storedCopyUnchanged() {
+		InMemoryMazeDAO mazeDAO = new InMemoryMazeDAO();
+		Maze first = generate(11, new MortonLayout(12, 8));
+		Maze second = generate(11, new RowMajorLayout(12, 8));
+		mazeDAO.store(first);
+		mazeDAO.store(second);
+		first.getCell(0, 0).setEast(!first.getCell(0, 0).hasEast());
+		mazeDAO.store(generate(11, new RowMajorLayout(12, 8)));
+		assertEquals(1, mazeDAO.getDistinctCount());
+		assertTrue(mazeDAO.load(first.getId()).hasSameContent(second));
+		assertFalse(mazeDAO.containsContent(first));
+	}
+}
@@ -0,0 +1,117 @@
+package se.hig.dvg329.algomaze.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Cell;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class AsciiMazeParserTest {
+
+	AsciiMazeParser parser;
+	MazeController mazeController;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		parser = new AsciiMazeParser();
+		mazeController = new MazeController();
+	}
+
+	private Maze generate(int width, int height) {
+		mazeController.createMaze(width, height);
+		mazeController.generateMaze("Prim");
+		mazeController.solveMaze("Dijkstra");
+		return mazeController.getMaze();
+	}
+
+	private List<Maze> parse(String text) {
+		return parser.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private void assertSameLayout(Maze expected, Maze actual) {
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		assertEquals(expected.getStart().getX(), actual.getStart().getX());
+		assertEquals(expected.getStart().getY(), actual.getStart().getY());
+		assertEquals(expected.getEnd().getX(), actual.getEnd().getX());
+		assertEquals(expected.getEnd().getY(), actual.getEnd().getY());
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				Cell e = expected.getCell(x, y);
+				Cell a = actual.getCell(x, y);
+				assertEquals(e.hasNorth(), a.hasNorth(), "north of " + x + "," + y);
+				assertEquals(e.hasWest(), a.hasWest(), "west of " + x + "," + y);
+				assertEquals(e.hasSouth(), a.hasSouth(), "south of " + x + "," + y);
+				assertEquals(e.hasEast(), a.hasEast(), "east of " + x + "," + y);
+			}
+		}
+	}
+
+	@Test
+	void parse_printedMaze_restoresWallsStartAndEnd() {
+		Maze maze = generate(12, 7);
+		List<Maze> parsed = parse(maze.toString());
+
+		assertEquals(1, parsed.size());
+		assertSameLayout(maze, parsed.get(0));
+	}
+
+	@Test
+	void parse_fileWithHeadersAndSeveralMazes_returnsAllMazes() throws Exception {
+		Maze first = generate(5, 9);
+		String firstText = first.toString();
+		Maze second = generate(9, 4);
+		String text = "AlgoMaze v 1.0.0\r\nMaze solving time: 1.0 ms\n\n" + firstText + "\n"
+				+ "Maze generated with: Prim's algorithm\n\n" + second.toString() + "\n";
+		Path file = Files.createTempFile("algomaze", ".txt");
+		try {
+			Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+			List<Maze> parsed = parser.parse(file);
+
+			assertEquals(2, parsed.size());
+			assertSameLayout(first, parsed.get(0));
+			assertSameLayout(second, parsed.get(1));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void parse_parsedMaze_canBeSolvedAgain() {
+		Maze maze = generate(15, 4);
+		Maze parsed = parse(maze.toString()).get(0);
+
+		mazeController.setMaze(parsed);
+		mazeController.solveMaze("Dijkstra");
+
+		assertEquals(maze.toString(), parsed.toString());
+	}
+
+	@Test
+	void parse_truncatedMaze_throwsMazeFormatException() {
+		String text = generate(6, 6).toString();
+
+		assertThrows(MazeFormatException.class, () -> {
+			parse(text.substring(0, text.length() / 2));
+		});
+	}
+
+	@Test
+	void parse_rowOfWrongLength_throwsMazeFormatException() {
+		String text = generate(6, 6).toString().replaceFirst("\n\\|", "\n |");
+
+		assertThrows(MazeFormatException.class, () -> {
+			parse(text);
+		});
+	}
+}
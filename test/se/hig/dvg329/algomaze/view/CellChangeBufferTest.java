@@ -0,0 +1,66 @@
+package se.hig.dvg329.algomaze.view;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+class CellChangeBufferTest {
+
+	@Test
+	void drain_afterRepeatedOffers_returnsEachIndexOnceInOfferOrder() {
+		CellChangeBuffer buffer = new CellChangeBuffer(10);
+		buffer.offer(3);
+		buffer.offer(7);
+		buffer.offer(3);
+		buffer.offer(0);
+
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(3, buffer.drain(drained::add));
+		assertEquals(java.util.Arrays.asList(3, 7, 0), drained);
+		assertEquals(0, buffer.drain(drained::add));
+	}
+
+	@Test
+	void offer_afterDrain_acceptsIndexAgain() {
+		CellChangeBuffer buffer = new CellChangeBuffer(4);
+		buffer.offer(2);
+		buffer.drain(index -> {});
+		buffer.offer(2);
+
+		assertEquals(1, buffer.drain(index -> {}));
+	}
+
+	@Test
+	void drain_whileManyThreadsOffer_neverLosesAChange() throws Exception {
+		int cells = 1000;
+		CellChangeBuffer buffer = new CellChangeBuffer(cells);
+		boolean[] seen = new boolean[cells];
+		Thread[] producers = new Thread[4];
+		for (int t = 0; t < producers.length; t++) {
+			producers[t] = new Thread(() -> {
+				for (int i = 0; i < 200000; i++) {
+					buffer.offer(ThreadLocalRandom.current().nextInt(cells));
+				}
+			});
+			producers[t].start();
+		}
+		boolean running = true;
+		while (running) {
+			running = false;
+			for (Thread producer : producers) {
+				running |= producer.isAlive();
+			}
+			buffer.drain(index -> seen[index] = true);
+		}
+		buffer.drain(index -> seen[index] = true);
+
+		for (int i = 0; i < cells; i++) {
+			assertTrue(seen[i], "index " + i + " was never drained");
+		}
+		assertEquals(0, buffer.drain(index -> {}));
+	}
+}
@@ -0,0 +1,60 @@
+package se.hig.dvg329.algomaze.view;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import se.hig.dvg329.algomaze.control.MazeController;
+import se.hig.dvg329.algomaze.model.Maze;
+
+class MazeViewerTest {
+
+	private static MazeViewer serializeAndRead(MazeViewer viewer) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(viewer);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (MazeViewer) in.readObject();
+		}
+	}
+
+	private static void paint(MazeViewer viewer) {
+		BufferedImage image = new BufferedImage(viewer.getWidth(), viewer.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics g = image.getGraphics();
+		try {
+			viewer.paint(g);
+		}
+		finally {
+			g.dispose();
+		}
+	}
+
+	@Test
+	void readObject_serializedViewer_paintsAndShowsNewMaze() throws Exception {
+		MazeController mazeController = new MazeController();
+		Maze maze = mazeController.createMaze(30, 20);
+		mazeController.generateMaze("Prim", 5);
+		MazeViewer viewer = new MazeViewer();
+		viewer.setSize(300, 200);
+		viewer.setMaze(maze);
+		paint(viewer);
+
+		MazeViewer read = serializeAndRead(viewer);
+		assertNull(read.getMaze());
+		paint(read);
+		read.updateCell(maze.getCell(3, 4));
+		read.setMaze(maze);
+		read.updateCell(maze.getCell(3, 4));
+		paint(read);
+		assertSame(maze, read.getMaze());
+		assertEquals(1, read.getMouseWheelListeners().length);
+	}
+}